@@ -2,6 +2,8 @@
 
 import { useEffect, useState, use } from 'react';
 import { apiFetch } from '@/lib/api';
+import { usePagedList } from '@/lib/use-paged-list';
+import { LoadMoreButton } from '@/components/shared/LoadMoreButton';
 import Link from 'next/link';
 import { useRouter } from 'next/navigation';
 import { Calendar, Clock, ArrowLeft, ArrowRight, Users, Edit, Trash2, Link as LinkIcon, Share2, Circle, AlertTriangle, Loader2 } from 'lucide-react';
@@ -26,7 +28,6 @@ interface Participant {
 export default function EventDetailsPage({ params }: { params: Promise<{ id: string }> }) {
   const router = useRouter();
   const [event, setEvent] = useState<Event | null>(null);
-  const [participants, setParticipants] = useState<Participant[]>([]);
   const [loading, setLoading] = useState(true);
   const [deleting, setDeleting] = useState(false);
   const [copied, setCopied] = useState(false);
@@ -34,20 +35,19 @@ export default function EventDetailsPage({ params }: { params: Promise<{ id: str
   // Unwrap params using React.use()
   const resolvedParams = use(params);
 
+  // Participants page in once the event's slug is known
+  const {
+    items: participants,
+    hasMore: moreParticipants,
+    loadingMore: loadingParticipants,
+    loadMore: loadMoreParticipants,
+  } = usePagedList<Participant>(event?.slug ? `/participants/events/${event.slug}` : null);
+
   useEffect(() => {
     const fetchData = async () => {
       try {
         const eventData = await apiFetch(`/events/${resolvedParams.id}/details`);
         setEvent(eventData);
-
-        if (eventData && eventData.slug) {
-             try {
-                const participantsData = await apiFetch(`/participants/events/${eventData.slug}`);
-                setParticipants(Array.isArray(participantsData) ? participantsData : []);
-             } catch (pErr) {
-                 console.error("Failed to fetch participants", pErr);
-             }
-        }
       } catch (err) {
         console.error('Failed to fetch event details', err);
       } finally {
@@ -164,7 +164,7 @@ export default function EventDetailsPage({ params }: { params: Promise<{ id: str
                 <div className="flex items-center justify-between mb-6">
                     <h2 className="text-lg font-semibold text-white flex items-center gap-2">
                         <Users className="w-5 h-5 text-indigo-400" />
-                        Participants ({participants.length})
+                        Participants ({event.participantCount ?? participants.length})
                     </h2>
                 </div>
 
@@ -203,6 +203,14 @@ export default function EventDetailsPage({ params }: { params: Promise<{ id: str
                                 ))}
                             </tbody>
                         </table>
+                        <div className="mt-4">
+                            <LoadMoreButton
+                                hasMore={moreParticipants}
+                                loading={loadingParticipants}
+                                onClick={loadMoreParticipants}
+                                label="Load more participants"
+                            />
+                        </div>
                     </div>
                 )}
             </div>
@@ -2,7 +2,8 @@
 
 import { useEffect, useState } from 'react';
 import Link from 'next/link';
-import { apiFetch } from '@/lib/api';
+import { usePagedList } from '@/lib/use-paged-list';
+import { LoadMoreButton } from '@/components/shared/LoadMoreButton';
 import { Plus, Search, Filter, Calendar, Users, Clock, Loader2, Play } from 'lucide-react';
 
 interface Event {
@@ -16,28 +17,11 @@ interface Event {
 }
 
 export default function EventsPage() {
-  const [events, setEvents] = useState<Event[]>([]);
+  const { items: events, hasMore, loading, loadingMore, loadMore } = usePagedList<Event>('/events');
   const [filteredEvents, setFilteredEvents] = useState<Event[]>([]);
-  const [loading, setLoading] = useState(true);
   const [searchTerm, setSearchTerm] = useState('');
   const [filterStatus, setFilterStatus] = useState('ALL');
 
-  useEffect(() => {
-    const fetchEvents = async () => {
-      try {
-        const data = await apiFetch('/events');
-        setEvents(Array.isArray(data) ? data : []);
-        setFilteredEvents(Array.isArray(data) ? data : []);
-      } catch (error) {
-        console.error('Failed to fetch events', error);
-      } finally {
-        setLoading(false);
-      }
-    };
-
-    fetchEvents();
-  }, []);
-
   useEffect(() => {
     let result = events;
 
@@ -180,6 +164,9 @@ export default function EventsPage() {
           ))}
         </div>
       )}
+
+      {/* Search and filters apply to the events loaded so far */}
+      <LoadMoreButton hasMore={hasMore} loading={loadingMore} onClick={loadMore} label="Load more events" />
     </div>
   );
 }
@@ -1,8 +1,7 @@
 'use client';
 
-import { useEffect, useState } from 'react';
 import { useAuth } from '@/lib/auth-context';
-import { apiFetch } from '@/lib/api';
+import { usePagedList } from '@/lib/use-paged-list';
 import Link from 'next/link';
 import { Plus, Calendar, Clock, Users, ArrowRight, Sparkles, Zap } from 'lucide-react';
 
@@ -18,28 +17,8 @@ interface Event {
 
 export default function DashboardPage() {
   const { user } = useAuth();
-  const [events, setEvents] = useState<Event[]>([]);
-  const [loading, setLoading] = useState(true);
-
-  useEffect(() => {
-    const fetchEvents = async () => {
-      try {
-        const data = await apiFetch('/events');
-        // If data is array directly or wrapped? Controller returns List<Dto> so it's direct array usually
-        // But apiFetch usually parses JSON.
-        // Let's assume response is array based on Spring Controller.
-        // Wait, standard spring response might be wrapped if using a wrapper advice, but looking at controller:
-        // return ResponseEntity.ok(events); -> Array
-        setEvents(Array.isArray(data) ? data : []);
-      } catch (error) {
-        console.error('Failed to fetch events', error);
-      } finally {
-        setLoading(false);
-      }
-    };
-
-    fetchEvents();
-  }, []);
+  // The first page is enough for the overview; the events page loads the rest on demand
+  const { items: events, hasMore, loading } = usePagedList<Event>('/events');
 
   if (loading) {
     return (
@@ -72,7 +51,7 @@ export default function DashboardPage() {
                     <Calendar className="w-6 h-6" />
                 </div>
                 <div>
-                    <div className="text-2xl font-bold text-white">{events.length}</div>
+                    <div className="text-2xl font-bold text-white">{events.length}{hasMore && '+'}</div>
                     <div className="text-sm text-slate-400">Total Events</div>
                 </div>
             </div>
@@ -84,7 +63,7 @@ export default function DashboardPage() {
                 </div>
                 <div>
                     <div className="text-2xl font-bold text-white">
-                        {events.reduce((acc, curr) => acc + (curr.participantCount || 0), 0)}
+                        {events.reduce((acc, curr) => acc + (curr.participantCount || 0), 0)}{hasMore && '+'}
                     </div>
                     <div className="text-sm text-slate-400">Total Participants</div>
                 </div>
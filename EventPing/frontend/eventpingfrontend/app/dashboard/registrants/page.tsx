@@ -1,7 +1,8 @@
 'use client';
 
 import { useState, useEffect } from 'react';
-import { apiFetch } from '@/lib/api';
+import { usePagedList } from '@/lib/use-paged-list';
+import { LoadMoreButton } from '@/components/shared/LoadMoreButton';
 import { 
   Users, 
   Search, 
@@ -30,60 +31,44 @@ interface Event {
 }
 
 export default function RegistrantsPage() {
-  const [participants, setParticipants] = useState<Participant[]>([]);
-  const [events, setEvents] = useState<Event[]>([]);
-  const [loading, setLoading] = useState(true);
-  const [selectedEvent, setSelectedEvent] = useState<string>('all');
+  const {
+    items: events,
+    hasMore: moreEvents,
+    loading: loadingEvents,
+    loadingMore: loadingMoreEvents,
+    loadMore: loadMoreEvents,
+  } = usePagedList<Event>('/events');
+  const [selectedEvent, setSelectedEvent] = useState<string>('');
   const [searchQuery, setSearchQuery] = useState('');
 
+  // Registrants are listed one event at a time, starting with the newest
   useEffect(() => {
-    const fetchData = async () => {
-      try {
-        const eventsData = await apiFetch('/events');
-        setEvents(eventsData);
-        
-        // Fetch participants for all events or the first one?
-        // Let's assume we want to show a consolidated view if possible, 
-        // but the backend endpoint is per event slug.
-        // For now, if 'all' is selected, we'll fetch from all user events and flatten.
-        if (eventsData && eventsData.length > 0) {
-            const allParticipants = await Promise.all(
-                eventsData.map(async (event: Event) => {
-                    const p = await apiFetch(`/participants/events/${event.slug}`);
-                    return p.map((item: any) => ({
-                        ...item, 
-                        eventName: event.title,
-                        fullName: item.fullName || item.email?.split('@')[0] || 'Unknown',
-                        phoneNumber: item.phoneNumber || 'N/A'
-                    }));
-                })
-            );
-            setParticipants(allParticipants.flat());
-        }
-      } catch (error) {
-        console.error('Failed to fetch registrants', error);
-      } finally {
-        setLoading(false);
-      }
-    };
+    if (!selectedEvent && events.length > 0) {
+      setSelectedEvent(events[0].slug);
+    }
+  }, [events, selectedEvent]);
 
-    fetchData();
-  }, []);
+  const {
+    items: registrants,
+    hasMore: moreParticipants,
+    loading: loadingParticipants,
+    loadingMore: loadingMoreParticipants,
+    loadMore: loadMoreParticipants,
+  } = usePagedList<any>(selectedEvent ? `/participants/events/${selectedEvent}` : null);
+  const loading = loadingEvents || loadingParticipants || (events.length > 0 && !selectedEvent);
 
+  const eventName = events.find(e => e.slug === selectedEvent)?.title || '';
+  const participants: Participant[] = registrants.map((item: any) => ({
+    ...item,
+    eventName,
+    fullName: item.fullName || item.email?.split('@')[0] || 'Unknown',
+    phoneNumber: item.phoneNumber || 'N/A'
+  }));
+
+  // Search applies to the registrants loaded so far
   const filteredParticipants = participants.filter(p => {
-    if (!p) return false;
-    const name = String(p.fullName || '');
-    const email = String(p.email || '');
-    const query = String(searchQuery || '').toLowerCase();
-    
-    const matchesSearch = name.toLowerCase().includes(query) || 
-                         email.toLowerCase().includes(query);
-    
-    // Handle potential missing event info
-    if (selectedEvent === 'all') return matchesSearch;
-    
-    const eventTitle = events.find(e => e.slug === selectedEvent)?.title;
-    return matchesSearch && (p.eventName === eventTitle);
+    const query = searchQuery.toLowerCase();
+    return p.fullName.toLowerCase().includes(query) || String(p.email || '').toLowerCase().includes(query);
   });
 
   return (
@@ -116,11 +101,18 @@ export default function RegistrantsPage() {
                             onChange={(e) => setSelectedEvent(e.target.value)}
                             className="w-full bg-slate-900 border border-white/10 rounded-lg px-3 py-2 text-sm text-white focus:outline-none focus:ring-2 focus:ring-indigo-500/50"
                         >
-                            <option value="all">All Events</option>
                             {events.map(event => (
                                 <option key={event.id} value={event.slug}>{event.title}</option>
                             ))}
                         </select>
+                        <div className="mt-3">
+                            <LoadMoreButton
+                                hasMore={moreEvents}
+                                loading={loadingMoreEvents}
+                                onClick={loadMoreEvents}
+                                label="Load more events"
+                            />
+                        </div>
                     </div>
                 </div>
             </div>
@@ -129,8 +121,8 @@ export default function RegistrantsPage() {
                 <h4 className="text-white font-medium mb-1">Quick Stats</h4>
                 <div className="space-y-3 mt-4">
                     <div className="flex justify-between items-center">
-                        <span className="text-slate-400 text-sm">Total Registrants</span>
-                        <span className="text-white font-bold">{participants.length}</span>
+                        <span className="text-slate-400 text-sm">Loaded Registrants</span>
+                        <span className="text-white font-bold">{participants.length}{moreParticipants && '+'}</span>
                     </div>
                     <div className="flex justify-between items-center">
                         <span className="text-slate-400 text-sm">Filtered</span>
@@ -224,6 +216,15 @@ export default function RegistrantsPage() {
                     </div>
                 </div>
             )}
+
+            {!loading && (
+                <LoadMoreButton
+                    hasMore={moreParticipants}
+                    loading={loadingMoreParticipants}
+                    onClick={loadMoreParticipants}
+                    label="Load more registrants"
+                />
+            )}
         </div>
       </div>
     </div>
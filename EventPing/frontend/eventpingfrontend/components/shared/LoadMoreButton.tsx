@@ -0,0 +1,26 @@
+'use client';
+
+import { Loader2 } from 'lucide-react';
+
+interface LoadMoreButtonProps {
+  hasMore: boolean;
+  loading: boolean;
+  onClick: () => void;
+  label?: string;
+}
+
+export function LoadMoreButton({ hasMore, loading, onClick, label = 'Load more' }: LoadMoreButtonProps) {
+  if (!hasMore) return null;
+
+  return (
+    <button
+      type="button"
+      onClick={onClick}
+      disabled={loading}
+      className="w-full flex items-center justify-center gap-2 py-3 bg-white/5 hover:bg-white/10 disabled:opacity-60 text-slate-300 rounded-xl border border-white/10 transition-all text-sm font-medium"
+    >
+      {loading && <Loader2 className="w-4 h-4 animate-spin" />}
+      {loading ? 'Loading...' : label}
+    </button>
+  );
+}
@@ -56,6 +56,27 @@ export const apiFetch = async (endpoint: string, options: FetchOptions = {}) =>
   return data;
 };
 
+export interface Page<T> {
+  items: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+// Fetches one page of a keyset-paged listing; pass the previous page's nextCursor for the next one
+export const apiFetchPage = async <T>(endpoint: string, cursor: string | null = null, limit?: number): Promise<Page<T>> => {
+  const params = new URLSearchParams();
+  if (limit) params.set('limit', String(limit));
+  if (cursor) params.set('cursor', cursor);
+  const query = params.toString();
+  const separator = endpoint.includes('?') ? '&' : '?';
+  const page = await apiFetch(query ? `${endpoint}${separator}${query}` : endpoint);
+  return {
+    items: Array.isArray(page?.items) ? page.items : [],
+    nextCursor: page?.nextCursor ?? null,
+    hasMore: Boolean(page?.hasMore && page?.nextCursor),
+  };
+};
+
 export const api = {
   get: (endpoint: string) => apiFetch(endpoint, { method: 'GET' }),
   post: (endpoint: string, body: any) => apiFetch(endpoint, { method: 'POST', body: JSON.stringify(body) }),
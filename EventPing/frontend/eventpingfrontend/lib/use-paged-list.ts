@@ -0,0 +1,58 @@
+'use client';
+
+import { useCallback, useEffect, useRef, useState } from 'react';
+import { apiFetchPage } from './api';
+
+// Renders the first page of a keyset-paged listing; loadMore follows nextCursor on demand.
+// A null endpoint leaves the list empty until there is something to fetch.
+export const usePagedList = <T>(endpoint: string | null, limit?: number) => {
+  const [items, setItems] = useState<T[]>([]);
+  const [cursor, setCursor] = useState<string | null>(null);
+  const [hasMore, setHasMore] = useState(false);
+  const [loading, setLoading] = useState(endpoint !== null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  // Pages that arrive after the endpoint changed belong to the previous list
+  const current = useRef(endpoint);
+
+  useEffect(() => {
+    current.current = endpoint;
+    setItems([]);
+    setCursor(null);
+    setHasMore(false);
+    if (!endpoint) {
+      setLoading(false);
+      return;
+    }
+
+    setLoading(true);
+    apiFetchPage<T>(endpoint, null, limit)
+      .then((page) => {
+        if (current.current !== endpoint) return;
+        setItems(page.items);
+        setCursor(page.nextCursor);
+        setHasMore(page.hasMore);
+      })
+      .catch((error) => console.error(`Failed to fetch ${endpoint}`, error))
+      .finally(() => {
+        if (current.current === endpoint) setLoading(false);
+      });
+  }, [endpoint, limit]);
+
+  const loadMore = useCallback(async () => {
+    if (!endpoint || !cursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const page = await apiFetchPage<T>(endpoint, cursor, limit);
+      if (current.current !== endpoint) return;
+      setItems((previous) => [...previous, ...page.items]);
+      setCursor(page.nextCursor);
+      setHasMore(page.hasMore);
+    } catch (error) {
+      console.error(`Failed to fetch more of ${endpoint}`, error);
+    } finally {
+      setLoadingMore(false);
+    }
+  }, [endpoint, cursor, limit, loadingMore]);
+
+  return { items, hasMore, loading, loadingMore, loadMore };
+};
@@ -117,10 +117,12 @@ public class User {
     @JoinColumn(name = "plan_id")
     private thomas.com.EventPing.plan.model.Plan plan;
 
-    @Column(name = "monthly_credits_used", nullable = false)
+    // Usage columns are written only by credit ledger flushes and the monthly reset, so
+    // saving a stale entity cannot undo either
+    @Column(name = "monthly_credits_used", nullable = false, updatable = false)
     private Integer monthlyCreditsUsed = 0;
 
-    @Column(name = "last_usage_reset_at")
+    @Column(name = "last_usage_reset_at", updatable = false)
     private LocalDateTime lastUsageResetAt = LocalDateTime.now();
 
     @OneToMany(mappedBy = "creator", cascade = CascadeType.ALL, orphanRemoval = true)
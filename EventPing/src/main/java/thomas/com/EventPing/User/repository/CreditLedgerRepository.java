@@ -0,0 +1,96 @@
+package thomas.com.EventPing.User.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Set-based JDBC writes for the credit ledger and the monthly usage totals on users. A flush
+ * of N users' debits is two statements however many reminders they cover.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CreditLedgerRepository {
+
+    private static final String APPEND_DEBITS_SQL =
+            "INSERT INTO credit_ledger (user_id, amount, reason) " +
+            "SELECT d.user_id, d.amount, ? FROM unnest(?::bigint[], ?::int[]) AS d(user_id, amount)";
+
+    private static final String APPLY_DEBITS_SQL =
+            "UPDATE users u SET monthly_credits_used = u.monthly_credits_used + d.amount " +
+            "FROM unnest(?::bigint[], ?::int[]) AS d(user_id, amount) WHERE u.id = d.user_id " +
+            "RETURNING u.id, u.monthly_credits_used, u.plan_id";
+
+    private static final String FIND_USAGE_SQL =
+            "SELECT id, monthly_credits_used, plan_id FROM users WHERE id = ?";
+
+    // Bounded by primary key range; rows already reset this run no longer match the cutoff
+    private static final String RESET_USAGE_SQL =
+            "UPDATE users SET monthly_credits_used = 0, last_usage_reset_at = ? " +
+            "WHERE id IN (SELECT id FROM users WHERE id > ? AND id <= ? AND last_usage_reset_at < ?) " +
+            "RETURNING id";
+
+    private static final String MAX_USER_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A user's credits used this month as stored, with their plan
+     */
+    public record Usage(Long userId, int used, Long planId) {
+    }
+
+    /**
+     * Append one ledger row per user and add the amounts to their monthly totals. Returns
+     * the new totals. Must run in a transaction so both writes land together.
+     */
+    public List<Usage> applyDebits(Long[] userIds, Integer[] amounts, String reason) {
+        jdbcTemplate.update(APPEND_DEBITS_SQL, ps -> {
+            ps.setString(1, reason);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", userIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", amounts));
+        });
+        return jdbcTemplate.query(APPLY_DEBITS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", userIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", amounts));
+        }, (rs, rowNum) -> usage(rs));
+    }
+
+    public Optional<Usage> findUsage(Long userId) {
+        return jdbcTemplate.query(FIND_USAGE_SQL, ps -> ps.setLong(1, userId), (rs, rowNum) -> usage(rs))
+                .stream().findFirst();
+    }
+
+    /**
+     * Zero the monthly totals of users with ids in (afterId, throughId] who were last reset
+     * before the cutoff. Returns the ids of the users reset.
+     */
+    public List<Long> resetUsageInRange(long afterId, long throughId, LocalDateTime cutoff, LocalDateTime now) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        return jdbcTemplate.query(RESET_USAGE_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(now), utc);
+            ps.setLong(2, afterId);
+            ps.setLong(3, throughId);
+            ps.setTimestamp(4, Timestamp.valueOf(cutoff), utc);
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    public long findMaxUserId() {
+        Long max = jdbcTemplate.queryForObject(MAX_USER_ID_SQL, Long.class);
+        return max != null ? max : 0;
+    }
+
+    private static Usage usage(ResultSet rs) throws SQLException {
+        long planId = rs.getLong(3);
+        return new Usage(rs.getLong(1), rs.getInt(2), rs.wasNull() ? null : planId);
+    }
+}
@@ -0,0 +1,52 @@
+package thomas.com.EventPing.User.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access to the per-user daily usage counters. Quota units are taken with a single
+ * conditional upsert that runs in the caller's transaction, so a rollback returns the unit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserDailyUsageRepository {
+
+    // The row lock taken by the upsert serializes concurrent creations of the same user only
+    private static final String RESERVE_EVENT_SQL =
+            "INSERT INTO user_daily_usage (user_id, usage_date, events_created) VALUES (?, ?, 1) " +
+            "ON CONFLICT (user_id, usage_date) DO UPDATE " +
+            "SET events_created = user_daily_usage.events_created + 1 " +
+            "WHERE user_daily_usage.events_created < ? " +
+            "RETURNING events_created";
+
+    private static final String DELETE_BEFORE_SQL = "DELETE FROM user_daily_usage WHERE usage_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Count one more event for the user on the given day if they are below the cap.
+     * Returns the new count, or empty when the cap was already reached. The cap must be
+     * at least one.
+     */
+    public Optional<Integer> reserveEvent(Long userId, LocalDate day, int cap) {
+        List<Integer> created = jdbcTemplate.query(RESERVE_EVENT_SQL, ps -> {
+            ps.setLong(1, userId);
+            ps.setDate(2, Date.valueOf(day));
+            ps.setInt(3, cap);
+        }, (rs, rowNum) -> rs.getInt(1));
+        return created.stream().findFirst();
+    }
+
+    /**
+     * Drop counters of days that no longer affect any quota
+     */
+    public int deleteBefore(LocalDate day) {
+        return jdbcTemplate.update(DELETE_BEFORE_SQL, ps -> ps.setDate(1, Date.valueOf(day)));
+    }
+}
@@ -8,5 +8,4 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findByResetToken(String resetToken);
-    java.util.List<User> findByLastUsageResetAtBefore(java.time.LocalDateTime cutoff);
 }
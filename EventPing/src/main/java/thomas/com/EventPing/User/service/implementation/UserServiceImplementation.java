@@ -102,11 +102,7 @@ public class UserServiceImplementation implements UserService {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
         
         // Store old values for audit logging
-        User oldUser = new User();
-        oldUser.setId(user.getId());
-        oldUser.setEmail(user.getEmail());
-        oldUser.setFullName(user.getFullName());
-        oldUser.setPhoneNumber(user.getPhoneNumber());
+        Object oldUser = auditLoggingService.captureForAudit(user);
         
         // Manual update of fields since we don't have a partial update DTO/mapper method ideally
         user.setEmail(request.getEmail());
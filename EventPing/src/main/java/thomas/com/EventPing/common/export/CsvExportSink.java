@@ -0,0 +1,106 @@
+package thomas.com.EventPing.common.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV with CRLF line endings. Field names are ignored: values are written in
+ * the order of the header given at construction.
+ */
+final class CsvExportSink implements ExportSink {
+
+    private final Writer writer;
+    private boolean firstField;
+
+    CsvExportSink(OutputStream out, List<String> header) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        startRecord();
+        for (String column : header) {
+            field(column, column);
+        }
+        endRecord();
+    }
+
+    @Override
+    public void startRecord() {
+        firstField = true;
+    }
+
+    @Override
+    public void field(String name, String value) throws IOException {
+        separate();
+        if (value != null) {
+            writeEscaped(value);
+        }
+    }
+
+    @Override
+    public void field(String name, long value) throws IOException {
+        separate();
+        writer.write(Long.toString(value));
+    }
+
+    @Override
+    public void field(String name, boolean value) throws IOException {
+        separate();
+        writer.write(Boolean.toString(value));
+    }
+
+    @Override
+    public void startObject(String name) {
+        // Nested fields continue as columns of the same row
+    }
+
+    @Override
+    public void endObject() {
+    }
+
+    @Override
+    public void endRecord() throws IOException {
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void separate() throws IOException {
+        if (!firstField) {
+            writer.write(',');
+        }
+        firstField = false;
+    }
+
+    private void writeEscaped(String value) throws IOException {
+        if (startsLikeFormula(value)) {
+            // A leading quote makes the spreadsheet show the text instead of running it
+            writer.write("\"'");
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean startsLikeFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@'
+                || first == '\t' || first == '\r';
+    }
+}
@@ -0,0 +1,47 @@
+package thomas.com.EventPing.common.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes streamed export records as CSV or NDJSON. Callers describe each record field by
+ * field: the CSV sink writes the values in order under a fixed header, the NDJSON sink
+ * writes one JSON object per line keyed by field name. Exported values are user-supplied,
+ * so the CSV sink neutralizes anything a spreadsheet would run as a formula.
+ */
+public interface ExportSink extends AutoCloseable {
+
+    static ExportSink csv(OutputStream out, List<String> header) throws IOException {
+        return new CsvExportSink(out, header);
+    }
+
+    static ExportSink ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return new NdjsonExportSink(out, objectMapper);
+    }
+
+    void startRecord() throws IOException;
+
+    void field(String name, String value) throws IOException;
+
+    void field(String name, long value) throws IOException;
+
+    void field(String name, boolean value) throws IOException;
+
+    /**
+     * Start a nested object. CSV has no nesting, so its fields continue as further columns.
+     */
+    void startObject(String name) throws IOException;
+
+    void endObject() throws IOException;
+
+    void endRecord() throws IOException;
+
+    /**
+     * Flush without closing: the caller owns the output stream
+     */
+    @Override
+    void close() throws IOException;
+}
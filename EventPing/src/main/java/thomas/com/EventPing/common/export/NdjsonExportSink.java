@@ -0,0 +1,63 @@
+package thomas.com.EventPing.common.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One JSON object per line, keyed by field name
+ */
+final class NdjsonExportSink implements ExportSink {
+
+    private final JsonGenerator generator;
+
+    NdjsonExportSink(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Each record ends with its own newline instead of the default space separator
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void startRecord() throws IOException {
+        generator.writeStartObject();
+    }
+
+    @Override
+    public void field(String name, String value) throws IOException {
+        generator.writeStringField(name, value);
+    }
+
+    @Override
+    public void field(String name, long value) throws IOException {
+        generator.writeNumberField(name, value);
+    }
+
+    @Override
+    public void field(String name, boolean value) throws IOException {
+        generator.writeBooleanField(name, value);
+    }
+
+    @Override
+    public void startObject(String name) throws IOException {
+        generator.writeObjectFieldStart(name);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void endRecord() throws IOException {
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,24 @@
+package thomas.com.EventPing.common.repository;
+
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Timestamp binding shared by the JDBC repositories. Timestamps are bound the way Hibernate
+ * binds them with hibernate.jdbc.time_zone=UTC, so rows written over plain JDBC compare
+ * correctly with rows written and queried through JPA.
+ */
+public final class JdbcTimestamps {
+
+    private JdbcTimestamps() {
+    }
+
+    /**
+     * A calendar for setTimestamp and getTimestamp. Calendars are mutable, so each call
+     * returns a new one; share it within one statement only.
+     */
+    public static Calendar utcCalendar() {
+        return Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+    }
+}
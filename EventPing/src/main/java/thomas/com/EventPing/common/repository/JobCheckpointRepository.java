@@ -0,0 +1,88 @@
+package thomas.com.EventPing.common.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Optional;
+
+/**
+ * JDBC access to batch job checkpoints: one row per job holding the id its current run has
+ * reached. Advancing runs in the chunk's transaction, so the checkpoint never gets ahead of
+ * the work it records.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JobCheckpointRepository {
+
+    private static final String FIND_SQL =
+            "SELECT job_name, last_id, run_started_at, completed_at FROM job_checkpoints WHERE job_name = ?";
+
+    private static final String START_SQL =
+            "INSERT INTO job_checkpoints (job_name, last_id, run_started_at, completed_at, updated_at) " +
+            "VALUES (?, 0, ?, NULL, ?) " +
+            "ON CONFLICT (job_name) DO UPDATE SET last_id = 0, run_started_at = EXCLUDED.run_started_at, " +
+            "completed_at = NULL, updated_at = EXCLUDED.updated_at";
+
+    private static final String ADVANCE_SQL =
+            "UPDATE job_checkpoints SET last_id = ?, updated_at = ? WHERE job_name = ?";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE job_checkpoints SET completed_at = ?, updated_at = ? WHERE job_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Checkpoint(String jobName, long lastId, LocalDateTime runStartedAt, LocalDateTime completedAt) {
+
+        public boolean isRunning() {
+            return completedAt == null;
+        }
+    }
+
+    public Optional<Checkpoint> find(String jobName) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        return jdbcTemplate.query(FIND_SQL, ps -> ps.setString(1, jobName), (rs, rowNum) -> {
+            Timestamp completedAt = rs.getTimestamp("completed_at", utc);
+            return new Checkpoint(
+                    rs.getString("job_name"),
+                    rs.getLong("last_id"),
+                    rs.getTimestamp("run_started_at", utc).toLocalDateTime(),
+                    completedAt != null ? completedAt.toLocalDateTime() : null);
+        }).stream().findFirst();
+    }
+
+    /**
+     * Begin a new run of the job from the first id
+     */
+    public Checkpoint start(String jobName, LocalDateTime startedAt) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        jdbcTemplate.update(START_SQL, ps -> {
+            ps.setString(1, jobName);
+            ps.setTimestamp(2, Timestamp.valueOf(startedAt), utc);
+            ps.setTimestamp(3, Timestamp.valueOf(startedAt), utc);
+        });
+        return new Checkpoint(jobName, 0, startedAt, null);
+    }
+
+    public void advance(String jobName, long lastId) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        jdbcTemplate.update(ADVANCE_SQL, ps -> {
+            ps.setLong(1, lastId);
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()), utc);
+            ps.setString(3, jobName);
+        });
+    }
+
+    public void complete(String jobName) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(COMPLETE_SQL, ps -> {
+            ps.setTimestamp(1, now, utc);
+            ps.setTimestamp(2, now, utc);
+            ps.setString(3, jobName);
+        });
+    }
+}
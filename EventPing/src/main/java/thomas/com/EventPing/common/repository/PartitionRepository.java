@@ -0,0 +1,124 @@
+package thomas.com.EventPing.common.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Catalog lookups and DDL shared by the managers of monthly range-partitioned tables:
+ * whether a table is partitioned, the bounds of its partitions and creating a new one.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionRepository {
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Whether the table is a partitioned table (false on non-PostgreSQL databases)
+     */
+    public boolean isPartitioned(String table) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid " +
+                    "WHERE c.relname = ?", Integer.class, table);
+            return count != null && count > 0;
+        } catch (Exception e) {
+            log.debug("Could not determine whether {} is partitioned", table, e);
+            return false;
+        }
+    }
+
+    public List<PartitionRange> listPartitions(String table) {
+        return jdbcTemplate.query(
+                "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?",
+                (rs, rowNum) -> PartitionRange.parse(rs.getString(1), rs.getString(2)),
+                table);
+    }
+
+    /**
+     * Add a range partition to a table that has a DEFAULT partition. A partition cannot be
+     * created while the default holds rows in its range, so the new range is built as a
+     * plain table, those rows are moved into it and it is attached. Run it inside a
+     * transaction so the rows are never visible in both places. Returns the rows moved.
+     */
+    public int createPartitionFromDefault(String parent, String defaultPartition, String keyColumn,
+                                          String name, LocalDateTime from, LocalDateTime to) {
+        String lower = Timestamp.valueOf(from).toString();
+        String upper = Timestamp.valueOf(to).toString();
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)",
+                name, parent));
+        int moved = jdbcTemplate.update(String.format(
+                "WITH moved AS (DELETE FROM %s WHERE %s >= '%s' AND %s < '%s' RETURNING *) " +
+                "INSERT INTO %s SELECT * FROM moved",
+                defaultPartition, keyColumn, lower, keyColumn, upper, name));
+        jdbcTemplate.execute(String.format(
+                "ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                parent, name, lower, upper));
+        return moved;
+    }
+
+    public static List<LocalDate> monthsToCover(LocalDate firstMonth, int premakeMonths) {
+        List<LocalDate> months = new ArrayList<>();
+        for (int i = 0; i <= premakeMonths; i++) {
+            months.add(firstMonth.plusMonths(i));
+        }
+        return months;
+    }
+
+    /**
+     * Range of a single partition; null bounds mean MINVALUE/MAXVALUE, both null for the DEFAULT partition
+     */
+    public record PartitionRange(String name, LocalDateTime lowerBound, LocalDateTime upperBound, boolean isDefault) {
+
+        public static PartitionRange parse(String name, String boundExpression) {
+            if (boundExpression == null || boundExpression.trim().equals("DEFAULT")) {
+                return new PartitionRange(name, null, null, true);
+            }
+            Matcher matcher = RANGE_BOUND.matcher(boundExpression);
+            if (!matcher.find()) {
+                throw new IllegalStateException("Unexpected partition bound for " + name + ": " + boundExpression);
+            }
+            return new PartitionRange(name, parseBound(matcher.group(1)), parseBound(matcher.group(2)), false);
+        }
+
+        public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            if (isDefault) {
+                return false;
+            }
+            boolean startsBeforeEnd = lowerBound == null || lowerBound.isBefore(to);
+            boolean endsAfterStart = upperBound == null || upperBound.isAfter(from);
+            return startsBeforeEnd && endsAfterStart;
+        }
+
+        /**
+         * Whether every row the partition can hold is older than the cutoff
+         */
+        public boolean endsBy(LocalDateTime cutoff) {
+            return !isDefault && upperBound != null && !upperBound.isAfter(cutoff);
+        }
+
+        private static LocalDateTime parseBound(String value) {
+            String trimmed = value.trim();
+            if (trimmed.equals("MINVALUE") || trimmed.equals("MAXVALUE")) {
+                return null;
+            }
+            return Timestamp.valueOf(trimmed.replace("'", "")).toLocalDateTime();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package thomas.com.EventPing.common.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.User.repository.CreditLedgerRepository;
+import thomas.com.EventPing.config.CreditProperties;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+import thomas.com.EventPing.plan.service.PlanEntitlements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind credit accounting. Debits are added to an in-memory accumulator per user and
+ * flushed to the credit ledger in batches, so sending a reminder costs no write of its own.
+ * Credit checks are answered from the accumulator: the user's total as of the last flush
+ * plus whatever has been debited since.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CreditLedger {
+
+    static final String REMINDER_REASON = "REMINDER";
+    private static final String FLUSHED_METRIC = "eventping.credits.flushed";
+    private static final String DROPPED_METRIC = "eventping.credits.dropped";
+
+    private final CreditLedgerRepository creditLedgerRepository;
+    private final PlanEntitlementCache planEntitlementCache;
+    private final TransactionTemplate transactionTemplate;
+    private final CreditProperties creditProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, Accumulator> accumulators = new ConcurrentHashMap<>();
+
+    /**
+     * One user's credits: the stored total as of the last flush or load, debits being
+     * flushed right now, and debits not picked up by a flush yet
+     */
+    private static final class Accumulator {
+        volatile Integer stored;
+        volatile Long planId;
+        volatile boolean touched = true;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger pending = new AtomicInteger();
+
+        int used() {
+            return (stored != null ? stored : 0) + inFlight.get() + pending.get();
+        }
+
+        boolean idle() {
+            return !touched && inFlight.get() == 0 && pending.get() == 0;
+        }
+    }
+
+    /**
+     * Charge the user; written to the ledger by the next flush
+     */
+    public void debit(Long userId, int amount) {
+        if (userId == null || amount <= 0) {
+            return;
+        }
+        accumulators.compute(userId, (id, acc) -> {
+            Accumulator accumulator = acc != null ? acc : new Accumulator();
+            accumulator.pending.addAndGet(amount);
+            accumulator.touched = true;
+            return accumulator;
+        });
+    }
+
+    /**
+     * Whether the user is below their plan's monthly limit. Users without a plan have none.
+     */
+    public boolean hasCredits(User user) {
+        if (user.getPlan() == null) {
+            return false;
+        }
+        PlanEntitlements plan = planEntitlementCache.forUser(user);
+        // Unlimited credits if monthlyCreditLimit is null
+        if (plan.monthlyCreditLimit() == null) {
+            return true;
+        }
+        Accumulator accumulator = accumulators.compute(user.getId(), (id, acc) -> {
+            Accumulator current = acc != null ? acc : new Accumulator();
+            if (current.stored == null) {
+                // The loaded entity is the freshest total we have without a query
+                current.stored = user.getMonthlyCreditsUsed() != null ? user.getMonthlyCreditsUsed() : 0;
+            }
+            current.planId = user.getPlan().getId();
+            current.touched = true;
+            return current;
+        });
+        return accumulator.used() < plan.monthlyCreditLimit();
+    }
+
+    /**
+     * Same check for a user known only by id. The stored total and plan are read once and
+     * then kept current by the flushes.
+     */
+    public boolean hasCredits(Long userId) {
+        Accumulator known = accumulators.get(userId);
+        // Read outside the map so a slow query does not block other users' debits
+        CreditLedgerRepository.Usage loaded = known == null || known.stored == null
+                ? creditLedgerRepository.findUsage(userId).orElse(null)
+                : null;
+        Accumulator accumulator = accumulators.compute(userId, (id, acc) -> {
+            Accumulator current = acc != null ? acc : new Accumulator();
+            if (current.stored == null && loaded != null) {
+                current.stored = loaded.used();
+                current.planId = loaded.planId();
+            }
+            current.touched = true;
+            return current;
+        });
+        if (accumulator.stored == null || accumulator.planId == null) {
+            // Unknown user or no plan
+            return false;
+        }
+        Integer limit = planEntitlementCache.forPlanId(accumulator.planId).monthlyCreditLimit();
+        return limit == null || accumulator.used() < limit;
+    }
+
+    /**
+     * Write accumulated debits to the ledger, one transaction per batch of users. A failed
+     * batch is retried one user at a time. Called by the scheduler and by the usage reset
+     * on other threads, so flushes are serialized: two overlapping flushes would write the
+     * same debits twice.
+     */
+    @Scheduled(fixedDelayString = "${eventping.credits.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        List<Long> userIds = new ArrayList<>();
+        List<Integer> amounts = new ArrayList<>();
+        for (Map.Entry<Long, Accumulator> entry : accumulators.entrySet()) {
+            Accumulator accumulator = entry.getValue();
+            // Debits added after this take are left for the next flush
+            int amount = accumulator.pending.getAndSet(0);
+            if (amount > 0) {
+                accumulator.inFlight.addAndGet(amount);
+                userIds.add(entry.getKey());
+                amounts.add(amount);
+            }
+        }
+
+        int batchSize = Math.max(1, creditProperties.getFlushBatchSize());
+        long flushed = 0;
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, userIds.size());
+            flushed += flushBatch(userIds.subList(from, to), amounts.subList(from, to));
+        }
+        if (flushed > 0) {
+            meterRegistry.counter(FLUSHED_METRIC).increment(flushed);
+            log.debug("Flushed {} credits of {} users to the ledger", flushed, userIds.size());
+        }
+        evictIdle();
+    }
+
+    /**
+     * Forget the stored totals of users that were just reset in the database, so the next
+     * check reads the new total. Debits not flushed yet were made after the run's opening
+     * flush, belong to the new month and are kept. Holding the flush lock means no flush
+     * is half-applied while totals are dropped.
+     */
+    public synchronized void usageReset(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            accumulators.computeIfPresent(userId, (id, acc) -> {
+                acc.stored = null;
+                return acc;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private long flushBatch(List<Long> userIds, List<Integer> amounts) {
+        if (userIds.size() > 1) {
+            try {
+                return apply(userIds, amounts);
+            } catch (Exception e) {
+                log.warn("Credit flush of {} users failed, retrying one at a time: {}", userIds.size(), e.getMessage());
+            }
+        }
+        return flushOneByOne(userIds, amounts);
+    }
+
+    /**
+     * Retry a failed batch one user at a time, so one bad row does not hold back everyone
+     * else's debits. A row that fails a constraint on its own will never apply and is
+     * dropped. Any other failure means the database is unavailable, so that row and the
+     * rest are put back for the next flush without trying them.
+     */
+    private long flushOneByOne(List<Long> userIds, List<Integer> amounts) {
+        long flushed = 0;
+        for (int i = 0; i < userIds.size(); i++) {
+            try {
+                flushed += apply(userIds.subList(i, i + 1), amounts.subList(i, i + 1));
+            } catch (DataIntegrityViolationException e) {
+                drop(userIds.get(i), amounts.get(i), e);
+            } catch (Exception e) {
+                log.warn("Credit flush of {} users failed, will retry: {}", userIds.size() - i, e.getMessage());
+                putBack(userIds.subList(i, userIds.size()), amounts.subList(i, amounts.size()));
+                break;
+            }
+        }
+        return flushed;
+    }
+
+    private long apply(List<Long> userIds, List<Integer> amounts) {
+        List<CreditLedgerRepository.Usage> totals = transactionTemplate.execute(status ->
+                creditLedgerRepository.applyDebits(userIds.toArray(Long[]::new),
+                        amounts.toArray(Integer[]::new), REMINDER_REASON));
+        for (CreditLedgerRepository.Usage usage : totals) {
+            Accumulator accumulator = accumulators.get(usage.userId());
+            if (accumulator != null) {
+                accumulator.stored = usage.used();
+                accumulator.planId = usage.planId();
+            }
+        }
+        long flushed = 0;
+        for (int i = 0; i < userIds.size(); i++) {
+            accumulators.get(userIds.get(i)).inFlight.addAndGet(-amounts.get(i));
+            flushed += amounts.get(i);
+        }
+        return flushed;
+    }
+
+    private void putBack(List<Long> userIds, List<Integer> amounts) {
+        for (int i = 0; i < userIds.size(); i++) {
+            Accumulator accumulator = accumulators.get(userIds.get(i));
+            accumulator.inFlight.addAndGet(-amounts.get(i));
+            accumulator.pending.addAndGet(amounts.get(i));
+        }
+    }
+
+    private void drop(Long userId, int amount, DataIntegrityViolationException e) {
+        log.error("Dropping {} credits of user {} that cannot be written to the ledger: {}",
+                amount, userId, e.getMessage());
+        accumulators.get(userId).inFlight.addAndGet(-amount);
+        meterRegistry.counter(DROPPED_METRIC).increment(amount);
+    }
+
+    /**
+     * Drop users not seen since the previous flush, so plan changes are picked up on reload
+     */
+    private void evictIdle() {
+        for (Long userId : accumulators.keySet()) {
+            accumulators.computeIfPresent(userId, (id, acc) -> {
+                if (acc.idle()) {
+                    return null;
+                }
+                acc.touched = false;
+                return acc;
+            });
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package thomas.com.EventPing.common.service;
+
+/**
+ * Outcome of taking one unit of a daily quota. A null limit means the plan is unlimited
+ * and nothing was counted.
+ */
+public record DailyQuota(boolean granted, Integer limit, int used) {
+
+    public static final DailyQuota UNLIMITED = new DailyQuota(true, null, 0);
+
+    public boolean isUnlimited() {
+        return limit == null;
+    }
+
+    /**
+     * Units left today, or null when unlimited
+     */
+    public Integer remaining() {
+        return limit != null ? Math.max(0, limit - used) : null;
+    }
+}
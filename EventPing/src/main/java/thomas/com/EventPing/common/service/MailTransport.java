@@ -0,0 +1,114 @@
+package thomas.com.EventPing.common.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.config.MailDeliveryProperties;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends mail in batches, each over one authenticated SMTP connection: the batch is handed
+ * to {@link JavaMailSender#send(MimeMessage...)}, which connects once and sends every
+ * message before closing. Connections per mail host are capped, so concurrent senders
+ * queue for a free connection instead of overrunning the server's limit.
+ */
+@Slf4j
+@Component
+public class MailTransport {
+
+    private final JavaMailSender mailSender;
+    private final MailDeliveryProperties properties;
+    private final Map<String, Semaphore> connectionsByHost = new ConcurrentHashMap<>();
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+
+    public MailTransport(JavaMailSender mailSender, MailDeliveryProperties mailDeliveryProperties,
+                         MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.properties = mailDeliveryProperties;
+        this.batchTimer = meterRegistry.timer("eventping.mail.batch");
+        this.sentCounter = meterRegistry.counter("eventping.mail.messages", "result", "sent");
+        this.failedCounter = meterRegistry.counter("eventping.mail.messages", "result", "failed");
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Send the messages in connection-sized batches. Returns the messages that were not
+     * sent with their cause; an empty map means every message went out.
+     */
+    public Map<MimeMessage, Exception> send(List<MimeMessage> messages) {
+        Map<MimeMessage, Exception> failures = new IdentityHashMap<>();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < messages.size(); from += batchSize) {
+            List<MimeMessage> batch = messages.subList(from, Math.min(from + batchSize, messages.size()));
+            sendBatch(batch, failures);
+        }
+        failedCounter.increment(failures.size());
+        sentCounter.increment(messages.size() - failures.size());
+        return failures;
+    }
+
+    private void sendBatch(List<MimeMessage> batch, Map<MimeMessage, Exception> failures) {
+        Semaphore connections = connectionsByHost.computeIfAbsent(host(),
+                host -> new Semaphore(Math.max(1, properties.getMaxConnectionsPerHost()), true));
+        try {
+            if (!connections.tryAcquire(properties.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                failAll(batch, new MailSendException("No SMTP connection to " + host() + " became free"), failures);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failAll(batch, new MailSendException("Interrupted waiting for an SMTP connection"), failures);
+            return;
+        }
+
+        try {
+            batchTimer.record(() -> mailSender.send(batch.toArray(MimeMessage[]::new)));
+        } catch (MailSendException e) {
+            // Lists the messages that failed; none listed means the connection itself failed
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                failAll(batch, e, failures);
+            } else {
+                failed.forEach((message, cause) -> failures.put((MimeMessage) message, cause));
+            }
+            log.warn("{} of {} messages not sent to {}: {}",
+                    failed.isEmpty() ? batch.size() : failed.size(), batch.size(), host(), e.getMessage());
+        } catch (MailException e) {
+            // Authentication or message preparation failed before anything was sent
+            failAll(batch, e, failures);
+            log.warn("Batch of {} messages not sent to {}: {}", batch.size(), host(), e.getMessage());
+        } finally {
+            connections.release();
+        }
+    }
+
+    private String host() {
+        return mailSender instanceof JavaMailSenderImpl impl && impl.getHost() != null
+                ? impl.getHost() + ":" + impl.getPort()
+                : "default";
+    }
+
+    private static void failAll(List<MimeMessage> batch, Exception cause, Map<MimeMessage, Exception> failures) {
+        for (MimeMessage message : batch) {
+            failures.put(message, cause);
+        }
+    }
+}
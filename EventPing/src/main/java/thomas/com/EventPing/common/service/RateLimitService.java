@@ -3,82 +3,106 @@ package thomas.com.EventPing.common.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.User.repository.UserDailyUsageRepository;
 import thomas.com.EventPing.event.model.Event;
 import thomas.com.EventPing.event.repository.EventRepository;
-import thomas.com.EventPing.participant.repository.ParticipantRepository;
-import thomas.com.EventPing.plan.model.Plan;
-import thomas.com.EventPing.plan.repository.PlanRepository;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+import thomas.com.EventPing.plan.service.PlanEntitlements;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 
 @Service
 @RequiredArgsConstructor
 public class RateLimitService {
     private final EventRepository eventRepository;
-    private final ParticipantRepository participantRepository;
-    private final PlanRepository planRepository;
-
-    public boolean canCreateEvent(User user) {
-        // Get user's plan
-        Plan plan = user.getPlan();
-        if (plan == null) {
-            plan = planRepository.findByName(Plan.PlanName.FREE)
-                    .orElseThrow(() -> new RuntimeException("FREE plan not found"));
-        }
+    private final PlanEntitlementCache planEntitlementCache;
+    private final UserDailyUsageRepository userDailyUsageRepository;
+    private final CreditLedger creditLedger;
+
+    /**
+     * Atomically take one of the user's event creations for today. Concurrent requests
+     * cannot overshoot the plan's daily limit because the check and the increment are one
+     * conditional upsert; it joins the caller's transaction, so a failed creation gives the
+     * unit back.
+     */
+    public DailyQuota reserveDailyEvent(User user) {
+        // Get user's plan, falling back to FREE
+        PlanEntitlements plan = planEntitlementCache.forUser(user);
 
         // Unlimited if maxEventsPerDay is null
-        if (plan.getMaxEventsPerDay() == null) {
-            return true;
+        Integer limit = plan.maxEventsPerDay();
+        if (limit == null) {
+            return DailyQuota.UNLIMITED;
+        }
+        if (limit <= 0) {
+            return new DailyQuota(false, limit, 0);
         }
 
-        // Count events created today
-        LocalDateTime startOfDay = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
-        long eventsToday = eventRepository.countByCreatorAndCreatedAtAfter(user, startOfDay);
-
-        return eventsToday < plan.getMaxEventsPerDay();
+        return userDailyUsageRepository.reserveEvent(user.getId(), LocalDate.now(), limit)
+                .map(created -> new DailyQuota(true, limit, created))
+                .orElseGet(() -> new DailyQuota(false, limit, limit));
     }
 
     public boolean canAddParticipant(Event event) {
-        // Get event creator's plan
-        User creator = event.getCreator();
-        Plan plan = creator.getPlan();
-        if (plan == null) {
-            plan = planRepository.findByName(Plan.PlanName.FREE)
-                    .orElseThrow(() -> new RuntimeException("FREE plan not found"));
+        Integer cap = participantCap(event);
+        return cap == null || event.getParticipantCount() < cap;
+    }
+
+    /**
+     * Atomically take a participant slot on the event. Concurrent joins cannot overshoot
+     * the plan's cap because the check and the increment are one conditional UPDATE.
+     */
+    public boolean reserveParticipantSlot(Event event) {
+        Integer cap = participantCap(event);
+        return eventRepository.reserveParticipantSlot(event.getId(), cap != null ? cap : Integer.MAX_VALUE)
+                .isPresent();
+    }
+
+    public void releaseParticipantSlot(Event event) {
+        eventRepository.releaseParticipantSlot(event.getId());
+    }
+
+    /**
+     * Atomically take up to {@code requested} participant slots for a bulk add.
+     * Returns how many were granted; fewer than requested means the cap was reached.
+     */
+    public int reserveParticipantSlots(Event event, int requested) {
+        if (requested <= 0) {
+            return 0;
         }
+        Integer cap = participantCap(event);
+        return eventRepository.reserveParticipantSlots(event.getId(), cap != null ? cap : Integer.MAX_VALUE, requested)
+                .orElse(0);
+    }
 
-        // Unlimited if maxParticipantsPerEvent is null
-        if (plan.getMaxParticipantsPerEvent() == null) {
-            return true;
+    public void releaseParticipantSlots(Event event, int released) {
+        if (released > 0) {
+            eventRepository.releaseParticipantSlots(event.getId(), released);
         }
+    }
 
-        long currentParticipants = participantRepository.countByEvent(event);
+    private Integer participantCap(Event event) {
+        // Get event creator's plan
+        User creator = event.getCreator();
+        PlanEntitlements plan = planEntitlementCache.forUser(creator);
 
-        return currentParticipants < plan.getMaxParticipantsPerEvent();
+        // Unlimited if maxParticipantsPerEvent is null
+        return plan.maxParticipantsPerEvent();
     }
 
     public boolean canAddTeamMember(User owner) {
-        Plan plan = owner.getPlan();
-        if (plan == null) {
-            plan = planRepository.findByName(Plan.PlanName.FREE)
-                    .orElseThrow(() -> new RuntimeException("FREE plan not found"));
-        }
+        PlanEntitlements plan = planEntitlementCache.forUser(owner);
 
         // We need a repository for team members, but for now let's assume one
         // Long currentTeamMembers = teamMemberRepository.countByOwner(owner);
-        // return currentTeamMembers < plan.getMaxTeamMembers();
-        return plan.getMaxTeamMembers() > 0; // Simplified for now
+        // return currentTeamMembers < plan.maxTeamMembers();
+        return plan.maxTeamMembers() > 0; // Simplified for now
     }
 
+    /**
+     * Answered from the in-memory credit accumulator, including debits not yet flushed
+     */
     public boolean hasCredits(User user) {
-        Plan plan = user.getPlan();
-        if (plan == null) return false;
-        
-        // Unlimited credits if monthlyCreditLimit is null
-        if (plan.getMonthlyCreditLimit() == null) {
-            return true;
-        }
-
-        return user.getMonthlyCreditsUsed() < plan.getMonthlyCreditLimit();
+        return creditLedger.hasCredits(user);
     }
 }
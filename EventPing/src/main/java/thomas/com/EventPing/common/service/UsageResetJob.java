@@ -0,0 +1,100 @@
+package thomas.com.EventPing.common.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.repository.CreditLedgerRepository;
+import thomas.com.EventPing.common.repository.JobCheckpointRepository;
+import thomas.com.EventPing.config.CreditProperties;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monthly credit usage reset as a resumable batch job. Users are reset in bounded primary
+ * key ranges, one transaction per range, and the checkpoint advances with each range. A run
+ * cut short resumes from its checkpoint with its original cutoff; running it again is
+ * harmless because users already reset no longer match the cutoff.
+ */
+@Service
+@Slf4j
+public class UsageResetJob {
+
+    static final String JOB_NAME = "monthly-usage-reset";
+    private static final int RESET_INTERVAL_DAYS = 30;
+
+    private final CreditLedgerRepository creditLedgerRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final CreditLedger creditLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final CreditProperties creditProperties;
+    private final Counter usersReset;
+    private final Counter chunksCommitted;
+    private final AtomicLong lastId = new AtomicLong();
+    private final AtomicLong maxId = new AtomicLong();
+
+    public UsageResetJob(CreditLedgerRepository creditLedgerRepository,
+                         JobCheckpointRepository jobCheckpointRepository,
+                         CreditLedger creditLedger,
+                         TransactionTemplate transactionTemplate,
+                         CreditProperties creditProperties,
+                         MeterRegistry meterRegistry) {
+        this.creditLedgerRepository = creditLedgerRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.creditLedger = creditLedger;
+        this.transactionTemplate = transactionTemplate;
+        this.creditProperties = creditProperties;
+        this.usersReset = meterRegistry.counter("eventping.usage.reset.users");
+        this.chunksCommitted = meterRegistry.counter("eventping.usage.reset.chunks");
+        meterRegistry.gauge("eventping.usage.reset.last.id", lastId);
+        meterRegistry.gauge("eventping.usage.reset.max.id", maxId);
+    }
+
+    /**
+     * Reset every user due a reset, resuming an interrupted run if there is one.
+     * Returns the number of users reset by this call.
+     */
+    public long run() {
+        // Last month's debits land before the totals are zeroed
+        creditLedger.flush();
+
+        JobCheckpointRepository.Checkpoint checkpoint = jobCheckpointRepository.find(JOB_NAME)
+                .filter(JobCheckpointRepository.Checkpoint::isRunning)
+                .orElseGet(() -> jobCheckpointRepository.start(JOB_NAME, LocalDateTime.now()));
+        if (checkpoint.lastId() > 0) {
+            log.info("Resuming usage reset started at {} after user {}", checkpoint.runStartedAt(), checkpoint.lastId());
+        }
+
+        // The cutoff is fixed per run so a resumed run resets the same users
+        LocalDateTime cutoff = checkpoint.runStartedAt().minusDays(RESET_INTERVAL_DAYS);
+        long last = checkpoint.lastId();
+        long max = creditLedgerRepository.findMaxUserId();
+        int chunkSize = Math.max(1, creditProperties.getResetChunkSize());
+        lastId.set(last);
+        maxId.set(max);
+
+        long reset = 0;
+        while (last < max) {
+            long after = last;
+            long through = Math.min(after + chunkSize, max);
+            List<Long> ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = creditLedgerRepository.resetUsageInRange(after, through, cutoff, LocalDateTime.now());
+                jobCheckpointRepository.advance(JOB_NAME, through);
+                return chunk;
+            });
+            creditLedger.usageReset(ids);
+            reset += ids.size();
+            usersReset.increment(ids.size());
+            chunksCommitted.increment();
+            last = through;
+            lastId.set(last);
+            log.debug("Usage reset reached user {} of {}, {} users reset so far", last, max, reset);
+        }
+
+        jobCheckpointRepository.complete(JOB_NAME);
+        return reset;
+    }
+}
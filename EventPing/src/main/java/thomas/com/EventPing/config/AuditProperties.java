@@ -3,6 +3,10 @@ package thomas.com.EventPing.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import thomas.com.EventPing.security.entity.AuditEvent;
+
+import java.util.EnumMap;
+import java.util.Map;
 
 @Data
 @Component
@@ -15,4 +19,58 @@ public class AuditProperties {
     private boolean logDataModifications = true;
     private boolean logSecurityViolations = true;
     private int retentionDays = 90;
-}
\ No newline at end of file
+    private Writer writer = new Writer();
+    private Partitioning partitioning = new Partitioning();
+    private Rollup rollup = new Rollup();
+    private Export export = new Export();
+
+    /**
+     * What a producer does when the audit buffer is full
+     */
+    public enum OverflowPolicy {
+        DROP,         // Discard the event immediately
+        WAIT,         // Wait up to offer-timeout for free space, then discard
+        CALLER_RUNS   // Insert synchronously on the calling thread
+    }
+
+    @Data
+    public static class Writer {
+        private int bufferCapacity = 8192;      // rounded up to a power of two
+        private int batchSize = 500;
+        private long flushIntervalMs = 250;
+        private long offerTimeoutMs = 50;
+        private double lowSeverityHighWatermark = 0.75; // LOW events are shed above this fill ratio
+        private Map<AuditEvent.AuditSeverity, OverflowPolicy> overflowPolicy = defaultOverflowPolicy();
+
+        public OverflowPolicy policyFor(AuditEvent.AuditSeverity severity) {
+            return overflowPolicy.getOrDefault(severity, OverflowPolicy.DROP);
+        }
+
+        private static Map<AuditEvent.AuditSeverity, OverflowPolicy> defaultOverflowPolicy() {
+            Map<AuditEvent.AuditSeverity, OverflowPolicy> policy = new EnumMap<>(AuditEvent.AuditSeverity.class);
+            policy.put(AuditEvent.AuditSeverity.LOW, OverflowPolicy.DROP);
+            policy.put(AuditEvent.AuditSeverity.MEDIUM, OverflowPolicy.DROP);
+            policy.put(AuditEvent.AuditSeverity.HIGH, OverflowPolicy.WAIT);
+            policy.put(AuditEvent.AuditSeverity.CRITICAL, OverflowPolicy.CALLER_RUNS);
+            return policy;
+        }
+    }
+
+    @Data
+    public static class Partitioning {
+        private int premakeMonths = 3; // monthly partitions created ahead of time
+    }
+
+    @Data
+    public static class Rollup {
+        private boolean enabled = true;
+        private int minuteRetentionHours = 48; // hour rollups follow retention-days
+        private int topN = 10;                 // users and IPs returned in statistics
+    }
+
+    @Data
+    public static class Export {
+        private int fetchSize = 1000;          // rows pulled per cursor round trip
+        private int bufferSize = 65536;        // bytes buffered before writing to the response
+    }
+}
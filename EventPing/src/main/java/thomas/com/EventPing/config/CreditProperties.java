@@ -0,0 +1,16 @@
+package thomas.com.EventPing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "eventping.credits")
+public class CreditProperties {
+
+    private boolean enforce = true;        // skip reminders of creators over their monthly credit limit
+    private long flushIntervalMs = 5_000;  // how often accumulated debits are written to the ledger
+    private int flushBatchSize = 500;      // users written per flush transaction
+    private int resetChunkSize = 5_000;    // user id range reset per transaction by the monthly reset
+}
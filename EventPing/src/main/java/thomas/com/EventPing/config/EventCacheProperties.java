@@ -0,0 +1,16 @@
+package thomas.com.EventPing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "eventping.cache.events")
+public class EventCacheProperties {
+
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    private long ttlSeconds = 600;                 // event details, evicted explicitly on change
+    private long participantCountTtlSeconds = 10;  // counts drift with every join
+}
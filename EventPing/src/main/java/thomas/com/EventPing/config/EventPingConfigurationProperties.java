@@ -8,7 +8,9 @@ import org.springframework.context.annotation.Configuration;
     SecurityProperties.class,
     RateLimitProperties.class,
     ValidationProperties.class,
-    AuditProperties.class
+    AuditProperties.class,
+    EventCacheProperties.class,
+    ParticipantImportProperties.class
 })
 public class EventPingConfigurationProperties {
     // This class enables all custom configuration properties
@@ -0,0 +1,15 @@
+package thomas.com.EventPing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "eventping.mail")
+public class MailDeliveryProperties {
+
+    private int batchSize = 100;               // messages sent over one SMTP connection
+    private int maxConnectionsPerHost = 4;     // concurrent SMTP connections to one mail host
+    private long acquireTimeoutMs = 30_000;    // wait for a free connection before failing the batch
+}
@@ -0,0 +1,14 @@
+package thomas.com.EventPing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "eventping.participants.export")
+public class ParticipantExportProperties {
+
+    private int fetchSize = 1000;          // rows pulled per cursor round trip
+    private int bufferSize = 65536;        // bytes buffered before writing to the response
+}
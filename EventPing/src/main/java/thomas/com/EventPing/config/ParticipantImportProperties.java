@@ -0,0 +1,15 @@
+package thomas.com.EventPing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "eventping.participants.import")
+public class ParticipantImportProperties {
+
+    private int chunkSize = 500;            // rows deduped, inserted and committed together
+    private int maxRows = 50_000;           // per upload
+    private int maxReportedErrors = 1000;   // further row errors are counted but not listed
+}
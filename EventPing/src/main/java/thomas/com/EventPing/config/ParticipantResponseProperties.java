@@ -0,0 +1,18 @@
+package thomas.com.EventPing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "eventping.participants.responses")
+public class ParticipantResponseProperties {
+
+    private Storage storage = Storage.ROWS;
+
+    public enum Storage {
+        ROWS,   // one registration_responses row per participant and custom field
+        JSONB   // one participants.custom_responses document per participant, keyed by field id
+    }
+}
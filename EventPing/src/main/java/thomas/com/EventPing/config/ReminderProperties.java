@@ -0,0 +1,59 @@
+package thomas.com.EventPing.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "eventping.reminder")
+public class ReminderProperties {
+
+    private Storage storage = Storage.PER_PARTICIPANT;
+    private int maxOffsets = 10;               // distinct reminder offsets kept per event or participant
+    private long maxOffsetMinutes = 43_200;    // offsets further ahead of the event than this are dropped
+    private int dispatchPageSize = 500;        // participants expanded and sent per transaction
+    private int dispatchMaxSchedules = 100;    // due event schedules picked up per run
+    private int dispatchLookbackHours = 48;    // unsent reminders older than this are no longer picked up
+    private int dispatchRetryMaxAttempts = 5;  // sends to one schedule recipient before giving up
+    private int dispatchRetryMinutes = 15;     // wait before retrying a failed schedule recipient
+    private Partitioning partitioning = new Partitioning();
+    private Cleanup cleanup = new Cleanup();
+    private Template template = new Template();
+
+    @Data
+    public static class Partitioning {
+        private int premakeMonths = 12;        // reminders are scheduled well ahead of their events
+    }
+
+    @Data
+    public static class Cleanup {
+        private int retentionDays = 30;        // sent reminders older than this are removed
+        private int batchSize = 1_000;         // reminders deleted per statement
+        private long pauseMs = 200;            // pause between batches so replicas can keep up
+        private boolean archive = false;       // move batches to reminder_history instead of dropping them
+    }
+
+    @Data
+    public static class Template {
+        private String emailSubject = "Reminder: {title}";
+        private String emailBody = "Hello,\n\n" +
+                "This is a reminder for the upcoming event:\n\n" +
+                "Event: {title}\n" +
+                "Date & Time: {dateTime}\n" +
+                "Description: {description}\n\n" +
+                "We look forward to seeing you there!\n\n" +
+                "---\n" +
+                "EventPing Reminder Service";
+        private String dateTimePattern = "MMMM dd, yyyy 'at' hh:mm a";
+        private String locale;                 // BCP 47 tag such as en-US; unset uses the JVM default
+        private String timeZone;               // zone event times are shown in; unset uses the JVM default
+        private int preparedCacheSize = 1_000; // events whose rendered reminder is kept
+        private long preparedTtlSeconds = 900; // rendered reminders are rebuilt after this
+    }
+
+    public enum Storage {
+        PER_PARTICIPANT,   // one reminders row per participant, channel and offset
+        EVENT_SCHEDULE     // one reminder_schedules row per event, channel and offset, expanded at fire time
+    }
+}
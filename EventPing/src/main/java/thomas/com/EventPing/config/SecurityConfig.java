@@ -83,6 +83,7 @@ public class SecurityConfig {
                 
                 // Admin endpoints
                 .requestMatchers("/actuator/**").hasRole("ADMIN")
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 
                 // All other requests require authentication
                 .anyRequest().authenticated()
@@ -16,6 +16,7 @@ public class SecurityProperties {
     private Session session = new Session();
     private Cors cors = new Cors();
     private Headers headers = new Headers();
+    private Detection detection = new Detection();
 
     @Data
     public static class Jwt {
@@ -63,4 +64,15 @@ public class SecurityProperties {
             private boolean includeSubdomains = true;
         }
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class Detection {
+        private boolean enabled = true;
+        private long windowSeconds = 300;
+        private int ipFailureThreshold = 10;       // auth, authz and rate-limit failures per IP
+        private int usernameFailureThreshold = 5;  // authentication failures per username
+        private long blockDurationSeconds = 900;
+        private int maxTrackedKeys = 100_000;      // LRU bound per counter map
+        private int maxEventsPerKey = 100;         // sliding log cap per key
+    }
+}
@@ -8,8 +8,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.common.service.DailyQuota;
 import thomas.com.EventPing.event.dtos.CreateEventRequest;
+import thomas.com.EventPing.event.dtos.EventPageDto;
 import thomas.com.EventPing.event.dtos.EventResponseDto;
+import thomas.com.EventPing.event.service.EventCreation;
 import thomas.com.EventPing.event.service.EventService;
 import thomas.com.EventPing.security.service.AuthorizationService;
 import thomas.com.EventPing.security.service.RateLimitingService;
@@ -43,8 +46,15 @@ public class EventController {
                     .build();
         }
         
-        EventResponseDto event = eventService.createEvent(user, request);
-        return ResponseEntity.ok(event);
+        EventCreation creation = eventService.createEvent(user, request);
+        DailyQuota quota = creation.quota();
+        if (quota.isUnlimited()) {
+            return ResponseEntity.ok(creation.event());
+        }
+        return ResponseEntity.ok()
+                .header("X-Daily-Event-Limit", String.valueOf(quota.limit()))
+                .header("X-Daily-Event-Remaining", String.valueOf(quota.remaining()))
+                .body(creation.event());
     }
 
     @GetMapping("/{slug}")
@@ -112,9 +122,13 @@ public class EventController {
 
     @GetMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<EventResponseDto>> getUserEvents(Authentication authentication) {
+    public ResponseEntity<EventPageDto> getUserEvents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        List<EventResponseDto> events = eventService.getUserEvents(user);
+        // Newest first; pass nextCursor back to fetch the following page
+        EventPageDto events = eventService.getUserEvents(user, cursor, limit);
         return ResponseEntity.ok(events);
     }
 
@@ -0,0 +1,18 @@
+package thomas.com.EventPing.event.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventPageDto {
+    private List<EventResponseDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
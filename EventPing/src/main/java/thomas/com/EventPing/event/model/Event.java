@@ -66,6 +66,20 @@ public class Event {
     @Max(value = 10000, message = "Maximum participants cannot exceed 10000")
     private Integer maxParticipants;
 
+    // Maintained only by the atomic counter queries in EventRepository, never by entity writes
+    @Column(name = "participant_count", nullable = false, insertable = false, updatable = false)
+    private Integer participantCount = 0;
+
+    // RSVP counts per status, maintained only by EventRepository.adjustRsvpCounts
+    @Column(name = "rsvp_attending_count", nullable = false, insertable = false, updatable = false)
+    private Integer rsvpAttendingCount = 0;
+
+    @Column(name = "rsvp_not_attending_count", nullable = false, insertable = false, updatable = false)
+    private Integer rsvpNotAttendingCount = 0;
+
+    @Column(name = "rsvp_tentative_count", nullable = false, insertable = false, updatable = false)
+    private Integer rsvpTentativeCount = 0;
+
     @Column(name = "is_public", nullable = false)
     private Boolean isPublic = true;
 
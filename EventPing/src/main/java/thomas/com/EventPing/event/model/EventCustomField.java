@@ -19,7 +19,8 @@ import java.time.LocalDateTime;
 @ToString(exclude = "event")
 public class EventCustomField {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_custom_fields_id_seq")
+    @SequenceGenerator(name = "event_custom_fields_id_seq", sequenceName = "event_custom_fields_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 @ToString(exclude = "event")
 public class EventIntegration {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_integrations_id_seq")
+    @SequenceGenerator(name = "event_integrations_id_seq", sequenceName = "event_integrations_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,10 +1,14 @@
 package thomas.com.EventPing.event.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import thomas.com.EventPing.User.model.User;
 import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.participant.model.Participant;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -12,14 +16,125 @@ import java.util.Optional;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
     Optional<Event> findBySlug(String slug);
+
+    @EntityGraph(attributePaths = "creator")
+    Optional<Event> findWithCreatorBySlug(String slug);
+
+    @EntityGraph(attributePaths = {"creator", "creator.plan", "reminderTimes"})
+    Optional<Event> findWithCreatorAndPlanBySlug(String slug);
     
     List<Event> findByCreator(User creator);
-    
-    @Query("SELECT COUNT(e) FROM Event e WHERE e.creator = :creator AND e.createdAt >= :since")
-    long countByCreatorAndCreatedAtAfter(@Param("creator") User creator, @Param("since") LocalDateTime since);
+
+    @Query("SELECT e FROM Event e WHERE e.creator = :creator ORDER BY e.createdAt DESC, e.id DESC")
+    List<Event> findPageByCreator(@Param("creator") User creator, Limit limit);
+
+    @Query("SELECT e FROM Event e WHERE e.creator = :creator " +
+            "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+            "ORDER BY e.createdAt DESC, e.id DESC")
+    List<Event> findPageByCreatorAfter(@Param("creator") User creator,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Limit limit);
     
     List<Event> findByStatusAndEventDateTimeBefore(Event.EventStatus status, LocalDateTime dateTime);
     
     @Query("SELECT DISTINCT e FROM Event e JOIN e.reminderTimes rt WHERE rt BETWEEN :start AND :end AND e.status = 'ACTIVE'")
     List<Event> findEventsWithRemindersBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT e.participantCount FROM Event e WHERE e.id = :id")
+    Optional<Integer> findParticipantCountById(@Param("id") Long id);
+
+    /**
+     * Take one participant slot if the event is below the cap, in a single statement.
+     * Returns the new count, or empty when the event is full.
+     */
+    @Query(value = "UPDATE events SET participant_count = participant_count + 1 " +
+            "WHERE id = :id AND participant_count < :cap RETURNING participant_count", nativeQuery = true)
+    Optional<Integer> reserveParticipantSlot(@Param("id") Long id, @Param("cap") int cap);
+
+    @Modifying
+    @Query(value = "UPDATE events SET participant_count = participant_count - 1 " +
+            "WHERE id = :id AND participant_count > 0", nativeQuery = true)
+    int releaseParticipantSlot(@Param("id") Long id);
+
+    /**
+     * Take up to the requested number of slots, as many as the cap still allows.
+     * Returns the number granted, or empty when the event is already full.
+     */
+    @Query(value = "WITH current AS (SELECT participant_count FROM events WHERE id = :id FOR UPDATE) " +
+            "UPDATE events e SET participant_count = LEAST(CAST(:cap AS bigint), e.participant_count + CAST(:requested AS bigint)) " +
+            "FROM current WHERE e.id = :id AND e.participant_count < :cap " +
+            "RETURNING e.participant_count - current.participant_count", nativeQuery = true)
+    Optional<Integer> reserveParticipantSlots(@Param("id") Long id, @Param("cap") int cap, @Param("requested") int requested);
+
+    @Modifying
+    @Query(value = "UPDATE events SET participant_count = GREATEST(participant_count - :released, 0) " +
+            "WHERE id = :id", nativeQuery = true)
+    int releaseParticipantSlots(@Param("id") Long id, @Param("released") int released);
+
+    /**
+     * Recount subscribed participants of active events and fix any drifted counters.
+     * Returns the number of events corrected.
+     */
+    @Modifying
+    @Query(value = "UPDATE events e SET participant_count = c.actual " +
+            "FROM (SELECT ev.id, COUNT(p.id) AS actual FROM events ev " +
+            "      LEFT JOIN participants p ON p.event_id = ev.id AND p.unsubscribed = false " +
+            "      WHERE ev.status = 'ACTIVE' GROUP BY ev.id) c " +
+            "WHERE e.id = c.id AND e.participant_count <> c.actual", nativeQuery = true)
+    int reconcileParticipantCounts();
+
+    interface RsvpCounts {
+        long getAttending();
+
+        long getNotAttending();
+
+        long getTentative();
+    }
+
+    @Query("SELECT e.rsvpAttendingCount AS attending, e.rsvpNotAttendingCount AS notAttending, " +
+            "e.rsvpTentativeCount AS tentative FROM Event e WHERE e.slug = :slug")
+    Optional<RsvpCounts> findRsvpCountsBySlug(@Param("slug") String slug);
+
+    @Modifying
+    @Query(value = "UPDATE events SET rsvp_attending_count = rsvp_attending_count + :attending, " +
+            "rsvp_not_attending_count = rsvp_not_attending_count + :notAttending, " +
+            "rsvp_tentative_count = rsvp_tentative_count + :tentative WHERE id = :id", nativeQuery = true)
+    int adjustRsvpCounts(@Param("id") Long id, @Param("attending") int attending,
+                         @Param("notAttending") int notAttending, @Param("tentative") int tentative);
+
+    /**
+     * Move {@code count} participants from one RSVP status to another in a single UPDATE;
+     * a null {@code from} adds new participants
+     */
+    default int moveRsvpCounts(Long id, Participant.RsvpStatus from, Participant.RsvpStatus to, int count) {
+        return adjustRsvpCounts(id,
+                rsvpDelta(Participant.RsvpStatus.ATTENDING, from, to, count),
+                rsvpDelta(Participant.RsvpStatus.NOT_ATTENDING, from, to, count),
+                rsvpDelta(Participant.RsvpStatus.TENTATIVE, from, to, count));
+    }
+
+    private static int rsvpDelta(Participant.RsvpStatus status, Participant.RsvpStatus from,
+                                 Participant.RsvpStatus to, int count) {
+        return (status == to ? count : 0) - (status == from ? count : 0);
+    }
+
+    /**
+     * Recount RSVPs of active events with GROUP BY rsvp_status and fix any drifted counters.
+     * Returns the number of events corrected.
+     */
+    @Modifying
+    @Query(value = "UPDATE events e SET rsvp_attending_count = c.attending, " +
+            "rsvp_not_attending_count = c.not_attending, rsvp_tentative_count = c.tentative " +
+            "FROM (SELECT ev.id, " +
+            "      COALESCE(SUM(s.total) FILTER (WHERE s.rsvp_status = 'ATTENDING'), 0) AS attending, " +
+            "      COALESCE(SUM(s.total) FILTER (WHERE s.rsvp_status = 'NOT_ATTENDING'), 0) AS not_attending, " +
+            "      COALESCE(SUM(s.total) FILTER (WHERE s.rsvp_status = 'TENTATIVE'), 0) AS tentative " +
+            "      FROM events ev LEFT JOIN (SELECT event_id, rsvp_status, COUNT(*) AS total FROM participants " +
+            "                                GROUP BY event_id, rsvp_status) s ON s.event_id = ev.id " +
+            "      WHERE ev.status = 'ACTIVE' GROUP BY ev.id) c " +
+            "WHERE e.id = c.id AND (e.rsvp_attending_count <> c.attending " +
+            "OR e.rsvp_not_attending_count <> c.not_attending OR e.rsvp_tentative_count <> c.tentative)",
+            nativeQuery = true)
+    int reconcileRsvpCounts();
 }
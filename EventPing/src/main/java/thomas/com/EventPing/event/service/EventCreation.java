@@ -0,0 +1,10 @@
+package thomas.com.EventPing.event.service;
+
+import thomas.com.EventPing.common.service.DailyQuota;
+import thomas.com.EventPing.event.dtos.EventResponseDto;
+
+/**
+ * A newly created event together with the creator's daily quota after creating it
+ */
+public record EventCreation(EventResponseDto event, DailyQuota quota) {
+}
@@ -0,0 +1,112 @@
+package thomas.com.EventPing.event.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import thomas.com.EventPing.config.EventCacheProperties;
+import thomas.com.EventPing.event.dtos.EventResponseDto;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for public event pages. Event details are cached by slug and
+ * evicted when the event changes; participant counts are cached by event id with a
+ * short TTL of their own, so joins only drop the count.
+ */
+@Component
+public class EventReadCache {
+
+    private final EventCacheProperties properties;
+    private final Cache<String, EventResponseDto> eventsBySlug;
+    private final Cache<Long, Long> participantCounts;
+
+    public EventReadCache(EventCacheProperties eventCacheProperties, MeterRegistry meterRegistry) {
+        this.properties = eventCacheProperties;
+        this.eventsBySlug = Caffeine.newBuilder()
+                .maximumSize(eventCacheProperties.getMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(eventCacheProperties.getTtlSeconds()))
+                .recordStats()
+                .build();
+        this.participantCounts = Caffeine.newBuilder()
+                .maximumSize(eventCacheProperties.getMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(eventCacheProperties.getParticipantCountTtlSeconds()))
+                .recordStats()
+                .build();
+        // Publishes cache.gets{result=hit|miss}, cache.evictions and cache.size
+        CaffeineCacheMetrics.monitor(meterRegistry, eventsBySlug, "eventsBySlug");
+        CaffeineCacheMetrics.monitor(meterRegistry, participantCounts, "eventParticipantCounts");
+    }
+
+    /**
+     * Event details for a slug, with a participant count no older than the count TTL.
+     * The loader returns null when the slug does not exist; misses are not cached.
+     */
+    public EventResponseDto getBySlug(String slug, Function<String, EventResponseDto> loader,
+                                      Function<Long, Long> countLoader) {
+        if (!properties.isEnabled()) {
+            EventResponseDto event = loader.apply(slug);
+            return event != null ? withCount(event, countLoader.apply(event.getId())) : null;
+        }
+
+        EventResponseDto event = eventsBySlug.get(slug, loader);
+        if (event == null) {
+            return null;
+        }
+        Long count = participantCounts.get(event.getId(), countLoader);
+        return withCount(event, count);
+    }
+
+    /**
+     * Drop a cached event, again after the surrounding transaction commits so a
+     * concurrent reader cannot re-cache the pre-commit state
+     */
+    public void evictEvent(String slug, Long eventId) {
+        runNowAndAfterCommit(() -> {
+            if (slug != null) {
+                eventsBySlug.invalidate(slug);
+            }
+            if (eventId != null) {
+                participantCounts.invalidate(eventId);
+            }
+        });
+    }
+
+    /**
+     * Drop the cached participant count of an event after a join or leave
+     */
+    public void evictParticipantCount(Long eventId) {
+        runNowAndAfterCommit(() -> participantCounts.invalidate(eventId));
+    }
+
+    /**
+     * Drop everything, e.g. after a bulk status change
+     */
+    public void evictAll() {
+        runNowAndAfterCommit(() -> {
+            eventsBySlug.invalidateAll();
+            participantCounts.invalidateAll();
+        });
+    }
+
+    private static EventResponseDto withCount(EventResponseDto event, Long count) {
+        // Cached instances are shared, so callers always get their own copy
+        return event.toBuilder().participantCount(count).build();
+    }
+
+    private static void runNowAndAfterCommit(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
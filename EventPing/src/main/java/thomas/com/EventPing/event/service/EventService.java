@@ -2,17 +2,19 @@ package thomas.com.EventPing.event.service;
 
 import thomas.com.EventPing.User.model.User;
 import thomas.com.EventPing.event.dtos.CreateEventRequest;
+import thomas.com.EventPing.event.dtos.EventPageDto;
 import thomas.com.EventPing.event.dtos.EventResponseDto;
 
 import java.util.List;
 
 public interface EventService {
-    EventResponseDto createEvent(User creator, CreateEventRequest request);
+    EventCreation createEvent(User creator, CreateEventRequest request);
     EventResponseDto getEventBySlug(String slug);
     EventResponseDto getEventById(Long id);
     EventResponseDto updateEvent(Long id, CreateEventRequest request);
     void deleteEvent(Long id);
-    List<EventResponseDto> getUserEvents(User user);
+    EventPageDto getUserEvents(User user, String cursor, int limit);
     void markExpiredEvents();
+    int reconcileParticipantCounts();
     List<thomas.com.EventPing.event.model.EventCustomField> getCustomFieldsByEventId(Long eventId);
 }
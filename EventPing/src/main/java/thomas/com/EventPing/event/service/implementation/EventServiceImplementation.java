@@ -2,38 +2,58 @@ package thomas.com.EventPing.event.service.implementation;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.common.service.DailyQuota;
 import thomas.com.EventPing.common.service.RateLimitService;
+import thomas.com.EventPing.config.ReminderProperties;
 import thomas.com.EventPing.event.dtos.CreateEventRequest;
+import thomas.com.EventPing.event.dtos.EventPageDto;
 import thomas.com.EventPing.event.dtos.EventResponseDto;
 import thomas.com.EventPing.event.mapper.EventMapper;
 import thomas.com.EventPing.event.model.Event;
 import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.event.service.EventCreation;
+import thomas.com.EventPing.event.service.EventCursor;
+import thomas.com.EventPing.event.service.EventReadCache;
 import thomas.com.EventPing.event.service.EventService;
-import thomas.com.EventPing.participant.repository.ParticipantRepository;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+import thomas.com.EventPing.plan.service.PlanEntitlements;
+import thomas.com.EventPing.reminder.repository.ReminderScheduleRepository;
+import thomas.com.EventPing.reminder.service.ReminderPlanner;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class EventServiceImplementation implements EventService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final EventRepository eventRepository;
-    private final ParticipantRepository participantRepository;
     private final EventMapper eventMapper;
     private final RateLimitService rateLimitService;
     private final thomas.com.EventPing.security.service.AuditLoggingService auditLoggingService;
     private final thomas.com.EventPing.event.repository.EventCustomFieldRepository customFieldRepository;
     private final thomas.com.EventPing.event.repository.EventIntegrationRepository integrationRepository;
+    private final EventReadCache eventReadCache;
+    private final PlanEntitlementCache planEntitlementCache;
+    private final ReminderPlanner reminderPlanner;
+    private final ReminderScheduleRepository reminderScheduleRepository;
+    private final ReminderProperties reminderProperties;
 
     @Override
-    public EventResponseDto createEvent(User creator, CreateEventRequest request) {
-        // Check rate limit
-        if (!rateLimitService.canCreateEvent(creator)) {
+    public EventCreation createEvent(User creator, CreateEventRequest request) {
+        // Take a unit of today's quota; rolled back with the event if creation fails
+        DailyQuota quota = rateLimitService.reserveDailyEvent(creator);
+        if (!quota.granted()) {
             throw new RuntimeException("Event creation limit reached for today");
         }
 
@@ -49,16 +69,14 @@ public class EventServiceImplementation implements EventService {
 
         // Calculate reminder times
         if (request.getReminderOffsetMinutes() != null && !request.getReminderOffsetMinutes().isEmpty()) {
-            List<LocalDateTime> reminderTimes = request.getReminderOffsetMinutes().stream()
-                .map(offset -> request.getEventDateTime().minusMinutes(offset))
-                .collect(Collectors.toList());
-            event.setReminderTimes(reminderTimes);
+            event.setReminderTimes(reminderTimes(request));
         }
 
         Event savedEvent = eventRepository.save(event);
         
-        // Save custom fields
+        // Save custom fields in one insert batch
         if (request.getCustomFields() != null && !request.getCustomFields().isEmpty()) {
+            List<thomas.com.EventPing.event.model.EventCustomField> fields = new ArrayList<>();
             for (thomas.com.EventPing.event.dtos.CustomFieldDto fieldDto : request.getCustomFields()) {
                 thomas.com.EventPing.event.model.EventCustomField field = new thomas.com.EventPing.event.model.EventCustomField();
                 field.setEvent(savedEvent);
@@ -68,8 +86,9 @@ public class EventServiceImplementation implements EventService {
                 field.setPlaceholderText(fieldDto.getPlaceholderText());
                 field.setFieldOptions(fieldDto.getFieldOptions());
                 field.setDisplayOrder(fieldDto.getDisplayOrder());
-                customFieldRepository.save(field);
+                fields.add(field);
             }
+            customFieldRepository.saveAll(fields);
         }
         
         // Save integrations with plan validation
@@ -87,14 +106,22 @@ public class EventServiceImplementation implements EventService {
                 savedEvent
         );
 
-        return toResponseDto(savedEvent);
+        return new EventCreation(toResponseDto(savedEvent), quota);
     }
 
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     public EventResponseDto getEventBySlug(String slug) {
-        Event event = eventRepository.findBySlug(slug)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
-        return toResponseDto(event);
+        // Served from the read cache; only misses and expired counts hit the database
+        EventResponseDto event = eventReadCache.getBySlug(
+                slug,
+                key -> eventRepository.findWithCreatorBySlug(key).map(eventMapper::toEventResponseDto).orElse(null),
+                id -> eventRepository.findParticipantCountById(id).map(Integer::longValue).orElse(0L)
+        );
+        if (event == null) {
+            throw new RuntimeException("Event not found");
+        }
+        return event;
     }
 
     @Override
@@ -110,18 +137,22 @@ public class EventServiceImplementation implements EventService {
                 .orElseThrow(() -> new RuntimeException("Event not found"));
 
         // Store old values for audit logging
-        Event oldEvent = new Event();
-        oldEvent.setId(event.getId());
-        oldEvent.setTitle(event.getTitle());
-        oldEvent.setDescription(event.getDescription());
-        oldEvent.setEventDateTime(event.getEventDateTime());
+        Object oldEvent = auditLoggingService.captureForAudit(event);
 
         // Update event fields
         event.setTitle(request.getTitle());
         event.setDescription(request.getDescription());
         event.setEventDateTime(request.getEventDateTime());
+        if (request.getReminderOffsetMinutes() != null) {
+            event.setReminderTimes(reminderTimes(request));
+        }
 
         Event savedEvent = eventRepository.save(event);
+        eventReadCache.evictEvent(savedEvent.getSlug(), savedEvent.getId());
+        if (reminderProperties.getStorage() == ReminderProperties.Storage.EVENT_SCHEDULE) {
+            // Schedules not yet started were built from the old times
+            reminderScheduleRepository.replacePending(reminderPlanner.eventPlan(savedEvent));
+        }
 
         // Log event modification
         auditLoggingService.logDataModification(
@@ -152,13 +183,32 @@ public class EventServiceImplementation implements EventService {
         );
 
         eventRepository.deleteById(id);
+        eventReadCache.evictEvent(event.getSlug(), event.getId());
     }
 
     @Override
-    public List<EventResponseDto> getUserEvents(User user) {
-        return eventRepository.findByCreator(user).stream()
-                .map(this::toResponseDto)
-                .collect(Collectors.toList());
+    public EventPageDto getUserEvents(User user, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells whether another page exists without a COUNT query
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<Event> events;
+        if (cursor == null || cursor.isBlank()) {
+            events = eventRepository.findPageByCreator(user, fetch);
+        } else {
+            EventCursor position = EventCursor.decode(cursor);
+            events = eventRepository.findPageByCreatorAfter(user, position.createdAt(), position.id(), fetch);
+        }
+
+        boolean hasMore = events.size() > pageSize;
+        List<Event> page = hasMore ? events.subList(0, pageSize) : events;
+        Event last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return EventPageDto.builder()
+                .items(page.stream().map(this::toResponseDto).collect(Collectors.toList()))
+                .nextCursor(hasMore ? new EventCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Override
@@ -173,6 +223,29 @@ public class EventServiceImplementation implements EventService {
         }
 
         eventRepository.saveAll(expiredEvents);
+        for (Event event : expiredEvents) {
+            eventReadCache.evictEvent(event.getSlug(), event.getId());
+        }
+    }
+
+    @Override
+    public int reconcileParticipantCounts() {
+        int corrected = eventRepository.reconcileParticipantCounts();
+        if (corrected > 0) {
+            log.warn("Corrected participant_count drift on {} events", corrected);
+            eventReadCache.evictAll();
+        }
+        int rsvpCorrected = eventRepository.reconcileRsvpCounts();
+        if (rsvpCorrected > 0) {
+            log.warn("Corrected RSVP counter drift on {} events", rsvpCorrected);
+        }
+        return corrected;
+    }
+
+    private static List<LocalDateTime> reminderTimes(CreateEventRequest request) {
+        return request.getReminderOffsetMinutes().stream()
+            .map(offset -> request.getEventDateTime().minusMinutes(offset))
+            .collect(Collectors.toList());
     }
 
     private String generateSlug() {
@@ -181,14 +254,12 @@ public class EventServiceImplementation implements EventService {
 
     private void validateAndSaveIntegrations(Event event, List<String> integrationTypes, User creator) {
         // Get user's plan allowed integration channels
-        String allowedChannels = creator.getPlan().getReminderChannels(); // e.g., "EMAIL,WHATSAPP"
-        List<String> allowed = allowedChannels != null ? 
-            List.of(allowedChannels.split(",")) : 
-            List.of("EMAIL");
-        
+        PlanEntitlements entitlements = planEntitlementCache.forUser(creator);
+
+        List<thomas.com.EventPing.event.model.EventIntegration> integrations = new ArrayList<>();
         for (String integrationType : integrationTypes) {
             // Validate integration is allowed by user's plan
-            if (!allowed.contains(integrationType.toUpperCase())) {
+            if (!entitlements.allowsChannel(integrationType.toUpperCase())) {
                 throw new RuntimeException("Integration " + integrationType + " is not available in your plan");
             }
             
@@ -204,8 +275,9 @@ public class EventServiceImplementation implements EventService {
             }
             integration.setActive(true);
             integration.setConfiguration(null); // No configuration needed for now
-            integrationRepository.save(integration);
+            integrations.add(integration);
         }
+        integrationRepository.saveAll(integrations);
     }
 
     @Override
@@ -215,7 +287,7 @@ public class EventServiceImplementation implements EventService {
 
     private EventResponseDto toResponseDto(Event event) {
         EventResponseDto dto = eventMapper.toEventResponseDto(event);
-        dto.setParticipantCount(participantRepository.countByEvent(event));
+        dto.setParticipantCount(event.getParticipantCount().longValue());
         return dto;
     }
 }
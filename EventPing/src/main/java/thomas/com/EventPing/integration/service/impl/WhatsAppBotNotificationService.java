@@ -13,7 +13,6 @@ import thomas.com.EventPing.User.model.User;
 import thomas.com.EventPing.event.model.Event;
 import thomas.com.EventPing.integration.service.NotificationService;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
@@ -23,27 +22,56 @@ public class WhatsAppBotNotificationService implements NotificationService {
     @Value("${whatsapp.bot.url:http://localhost:3000}")
     private String botUrl;
 
+    private static final HttpHeaders JSON_HEADERS;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        JSON_HEADERS = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
     private final RestTemplate restTemplate = new RestTemplate();
 
+    /**
+     * Request body of the bot's send-reminder endpoint. The event fields are the same for
+     * every recipient, so one instance per event is copied with each phone number.
+     */
+    public record ReminderPayload(String phoneNumber, String eventTitle, String eventDateTime, String description) {
+
+        public static ReminderPayload forEvent(Event event) {
+            return new ReminderPayload(null, event.getTitle(), event.getEventDateTime().toString(),
+                    event.getDescription() != null ? event.getDescription() : "");
+        }
+
+        public ReminderPayload to(String phoneNumber) {
+            return new ReminderPayload(phoneNumber, eventTitle, eventDateTime, description);
+        }
+    }
+
     @Override
     public boolean sendReminder(User user, Event event) {
         if (!user.getEnableWhatsApp() || user.getPhoneNumber() == null) {
             return false;
         }
+        return sendReminder(user.getPhoneNumber(), event);
+    }
 
+    /**
+     * Send an event reminder to any phone number, e.g. a participant's
+     */
+    public boolean sendReminder(String phoneNumber, Event event) {
+        return sendReminder(ReminderPayload.forEvent(event).to(phoneNumber));
+    }
+
+    /**
+     * Send a reminder whose event part was built once for all of the event's recipients
+     */
+    public boolean sendReminder(ReminderPayload payload) {
+        String phoneNumber = payload.phoneNumber();
         try {
             String endpoint = botUrl + "/send-reminder";
 
-            Map<String, String> requestBody = new HashMap<>();
-            requestBody.put("phoneNumber", user.getPhoneNumber());
-            requestBody.put("eventTitle", event.getTitle());
-            requestBody.put("eventDateTime", event.getEventDateTime().toString());
-            requestBody.put("description", event.getDescription() != null ? event.getDescription() : "");
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, String>> request = new HttpEntity<>(requestBody, headers);
+            HttpEntity<ReminderPayload> request = new HttpEntity<>(payload, JSON_HEADERS);
 
             ResponseEntity<Map> response = restTemplate.postForEntity(endpoint, request, Map.class);
 
@@ -51,7 +79,7 @@ public class WhatsAppBotNotificationService implements NotificationService {
                 boolean success = Boolean.TRUE.equals(response.getBody().get("success"));
 
                 if (success) {
-                    log.info("✅ WhatsApp reminder sent via bot to: {}", user.getPhoneNumber());
+                    log.info("✅ WhatsApp reminder sent via bot to: {}", phoneNumber);
                     return true;
                 } else {
                     log.error("❌ Bot failed to send WhatsApp: {}", response.getBody().get("message"));
@@ -1,18 +1,33 @@
 package thomas.com.EventPing.participant.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.config.ParticipantExportProperties;
+import thomas.com.EventPing.event.model.Event;
 import thomas.com.EventPing.participant.dtos.JoinEventRequest;
+import thomas.com.EventPing.participant.dtos.ParticipantImportResultDto;
+import thomas.com.EventPing.participant.dtos.ParticipantPageDto;
 import thomas.com.EventPing.participant.dtos.ParticipantResponseDto;
+import thomas.com.EventPing.participant.service.ParticipantExportService;
+import thomas.com.EventPing.participant.service.ParticipantImportService;
 import thomas.com.EventPing.participant.service.ParticipantService;
+import thomas.com.EventPing.participant.service.ResponseFilter;
 import thomas.com.EventPing.security.service.RateLimitingService;
 import thomas.com.EventPing.security.service.AuditLoggingService;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/participants")
@@ -22,6 +37,9 @@ public class ParticipantController {
     private final ParticipantService participantService;
     private final RateLimitingService rateLimitingService;
     private final AuditLoggingService auditLoggingService;
+    private final ParticipantImportService participantImportService;
+    private final ParticipantExportService participantExportService;
+    private final ParticipantExportProperties participantExportProperties;
 
     @PostMapping("/events/{slug}/join")
     public ResponseEntity<ParticipantResponseDto> joinEvent(
@@ -82,6 +100,43 @@ public class ParticipantController {
         return ResponseEntity.ok(participant);
     }
 
+    /**
+     * Bulk-add participants from a CSV (header with an email column) or NDJSON upload.
+     * The request body is streamed, not buffered; per-row errors are reported in the result.
+     */
+    @PostMapping(value = "/events/{slug}/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ParticipantImportResultDto> importParticipants(
+            @PathVariable String slug,
+            @RequestParam(required = false) List<Long> reminderOffsetMinutes,
+            Authentication authentication,
+            HttpServletRequest httpRequest) throws IOException {
+
+        User user = (User) authentication.getPrincipal();
+        ParticipantImportService.Format format = ParticipantImportService.Format.fromContentType(httpRequest.getContentType());
+
+        // Default reminder offsets: 1 hour and 1 day before
+        if (reminderOffsetMinutes == null || reminderOffsetMinutes.isEmpty()) {
+            reminderOffsetMinutes = List.of(60L, 1440L);
+        }
+
+        ParticipantImportResultDto result = participantImportService.importParticipants(
+                user, slug, httpRequest.getInputStream(), format, reminderOffsetMinutes);
+
+        auditLoggingService.logCustomEvent(
+                thomas.com.EventPing.security.entity.AuditEvent.AuditEventType.DATA_CREATE,
+                user.getEmail(),
+                "IMPORT_PARTICIPANTS",
+                "Event",
+                slug,
+                Map.of("totalRows", result.getTotalRows(), "imported", result.getImported(),
+                        "duplicates", result.getDuplicates(), "failed", result.getFailed()),
+                thomas.com.EventPing.security.entity.AuditEvent.AuditSeverity.LOW
+        );
+
+        return ResponseEntity.ok(result);
+    }
+
     @PostMapping("/{id}/unsubscribe")
     public ResponseEntity<Void> unsubscribe(
             @PathVariable Long id,
@@ -114,12 +169,55 @@ public class ParticipantController {
 
     @GetMapping("/events/{slug}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<ParticipantResponseDto>> getEventParticipants(@PathVariable String slug) {
-        // Only authenticated users can view participant lists
-        List<ParticipantResponseDto> participants = participantService.getEventParticipants(slug);
+    public ResponseEntity<ParticipantPageDto> getEventParticipants(
+            @PathVariable String slug,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) Long fieldId,
+            @RequestParam(required = false) String value) {
+        // Only authenticated users can view participant lists; pass nextCursor back for the next page.
+        // fieldId and value narrow the list to participants who gave that answer.
+        ParticipantPageDto participants = participantService.getEventParticipants(
+                slug, cursor, limit, ResponseFilter.of(fieldId, value));
         return ResponseEntity.ok(participants);
     }
 
+    /**
+     * Stream every participant of the organizer's event straight to the response as CSV,
+     * CSV with one column per custom field, or NDJSON
+     */
+    @GetMapping("/events/{slug}/export")
+    @PreAuthorize("hasRole('USER')")
+    public void exportParticipants(
+            @PathVariable String slug,
+            @RequestParam(defaultValue = "CSV") ParticipantExportService.Format format,
+            @RequestParam(required = false) Long fieldId,
+            @RequestParam(required = false) String value,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        User user = (User) authentication.getPrincipal();
+        Event event = participantExportService.findExportableEvent(user, slug);
+
+        auditLoggingService.logCustomEvent(
+                thomas.com.EventPing.security.entity.AuditEvent.AuditEventType.DATA_EXPORT,
+                user.getEmail(),
+                "EXPORT_PARTICIPANTS",
+                "Event",
+                slug,
+                Map.of("format", format.name(), "filtered", fieldId != null && value != null),
+                thomas.com.EventPing.security.entity.AuditEvent.AuditSeverity.MEDIUM
+        );
+
+        String filename = "participants-" + slug + "." + format.getExtension();
+        response.setContentType(format.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        try (OutputStream out = new BufferedOutputStream(response.getOutputStream(),
+                participantExportProperties.getBufferSize())) {
+            participantExportService.export(event, format, ResponseFilter.of(fieldId, value), out);
+        }
+    }
+
     @PostMapping("/{id}/rsvp")
     public ResponseEntity<Void> updateRsvp(
             @PathVariable Long id,
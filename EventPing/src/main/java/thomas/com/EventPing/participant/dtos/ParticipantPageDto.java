@@ -0,0 +1,18 @@
+package thomas.com.EventPing.participant.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ParticipantPageDto {
+    private List<ParticipantResponseDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
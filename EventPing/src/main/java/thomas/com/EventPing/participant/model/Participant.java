@@ -14,6 +14,7 @@ import thomas.com.EventPing.security.validation.NoXss;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @Table(name = "participants")
@@ -23,7 +24,8 @@ import java.util.List;
 @ToString(exclude = {"event", "reminders"})
 public class Participant {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participants_id_seq")
+    @SequenceGenerator(name = "participants_id_seq", sequenceName = "participants_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -52,6 +54,11 @@ public class Participant {
     @Column(name = "rsvp_status", nullable = false)
     private RsvpStatus rsvpStatus = RsvpStatus.TENTATIVE;
 
+    // Custom-field answers keyed by field id, when stored as JSONB instead of registration_responses rows
+    @org.hibernate.annotations.JdbcTypeCode(org.hibernate.type.SqlTypes.JSON)
+    @Column(name = "custom_responses")
+    private Map<String, String> customResponses;
+
     @OneToMany(mappedBy = "participant", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<thomas.com.EventPing.reminder.model.Reminder> reminders = new ArrayList<>();
 
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 @ToString(exclude = {"participant", "customField"})
 public class RegistrationResponse {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "registration_responses_id_seq")
+    @SequenceGenerator(name = "registration_responses_id_seq", sequenceName = "registration_responses_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
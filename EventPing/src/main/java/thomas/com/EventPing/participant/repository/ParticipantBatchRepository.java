@@ -0,0 +1,151 @@
+package thomas.com.EventPing.participant.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+import thomas.com.EventPing.participant.model.Participant;
+import thomas.com.EventPing.participant.model.RegistrationResponse;
+import thomas.com.EventPing.reminder.service.ReminderPlan;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Set-based JDBC writes for participants and the rows written alongside them, so a join with
+ * N reminders and M responses, or an import chunk of N participants, costs one round trip per
+ * table and the persistence context never tracks rows that are not read back. Runs inside the
+ * caller's transaction; participants must already be flushed so the foreign keys resolve.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ParticipantBatchRepository {
+
+    // WhatsApp reminders only go to participants with a phone number
+    private static final String INSERT_REMINDERS_SQL =
+            "INSERT INTO reminders (event_id, participant_id, send_at, channel, sent) " +
+            "SELECT ?, p.id, CAST(? AS timestamp) - o.minutes * interval '1 minute', c.channel, false " +
+            "FROM unnest(?::bigint[], ?::boolean[]) AS p(id, has_phone) " +
+            "CROSS JOIN unnest(?::bigint[]) AS o(minutes) " +
+            "CROSS JOIN unnest(?::text[]) AS c(channel) " +
+            "WHERE c.channel <> 'WHATSAPP' OR p.has_phone";
+
+    private static final String INSERT_RESPONSE_SQL =
+            "INSERT INTO registration_responses (participant_id, custom_field_id, response_value, created_at) " +
+            "VALUES (?, ?, ?, ?)";
+
+    private static final String FIND_EXISTING_EMAILS_SQL =
+            "SELECT email FROM participants WHERE event_id = ? AND email = ANY (?)";
+
+    private static final String INSERT_PARTICIPANTS_SQL =
+            "INSERT INTO participants (event_id, email, phone_number, joined_at, unsubscribed, rsvp_status) " +
+            "SELECT ?, t.email, t.phone_number, ?, false, 'TENTATIVE' " +
+            "FROM unnest(?::text[], ?::text[]) AS t(email, phone_number) " +
+            "ON CONFLICT (event_id, email) DO NOTHING " +
+            "RETURNING id, email";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Which of the given emails are already registered for the event, in one query
+     */
+    public Set<String> findExistingEmails(Long eventId, Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(FIND_EXISTING_EMAILS_SQL, ps -> {
+            ps.setLong(1, eventId);
+            ps.setArray(2, ps.getConnection().createArrayOf("text", emails.toArray()));
+        }, rs -> {
+            existing.add(rs.getString(1));
+        });
+        return existing;
+    }
+
+    /**
+     * Insert participants in a single statement, skipping emails already registered
+     * (including by a concurrent join). Inserted participants get their ids assigned;
+     * returns the inserted subset.
+     */
+    public List<Participant> insertParticipants(Long eventId, List<Participant> participants) {
+        if (participants.isEmpty()) {
+            return List.of();
+        }
+        String[] emails = new String[participants.size()];
+        String[] phoneNumbers = new String[participants.size()];
+        Map<String, Participant> byEmail = new HashMap<>();
+        for (int i = 0; i < participants.size(); i++) {
+            Participant participant = participants.get(i);
+            emails[i] = participant.getEmail();
+            phoneNumbers[i] = participant.getPhoneNumber();
+            byEmail.put(participant.getEmail(), participant);
+        }
+
+        List<Participant> inserted = new ArrayList<>(participants.size());
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        jdbcTemplate.query(INSERT_PARTICIPANTS_SQL, ps -> {
+            ps.setLong(1, eventId);
+            ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()), utc);
+            ps.setArray(3, ps.getConnection().createArrayOf("text", emails));
+            ps.setArray(4, ps.getConnection().createArrayOf("text", phoneNumbers));
+        }, rs -> {
+            Participant participant = byEmail.get(rs.getString("email"));
+            participant.setId(rs.getLong("id"));
+            inserted.add(participant);
+        });
+        return inserted;
+    }
+
+    /**
+     * Materialize a reminder plan for participants in a single INSERT ... SELECT over
+     * participants x offsets x channels, so the cost of a join or an import chunk does not
+     * grow with the number of offsets and channels. Returns the number of reminders written.
+     */
+    public int insertReminders(ReminderPlan plan, List<Participant> participants) {
+        if (plan.isEmpty() || participants.isEmpty()) {
+            return 0;
+        }
+        Long[] ids = new Long[participants.size()];
+        Boolean[] hasPhone = new Boolean[participants.size()];
+        for (int i = 0; i < participants.size(); i++) {
+            Participant participant = participants.get(i);
+            ids[i] = participant.getId();
+            hasPhone[i] = participant.getPhoneNumber() != null && !participant.getPhoneNumber().isBlank();
+        }
+        Object[] offsets = plan.offsetMinutes().toArray();
+        Object[] channels = plan.channels().stream().map(Enum::name).toArray();
+
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        return jdbcTemplate.update(INSERT_REMINDERS_SQL, ps -> {
+            ps.setLong(1, plan.eventId());
+            ps.setTimestamp(2, Timestamp.valueOf(plan.eventDateTime()), utc);
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", ids));
+            ps.setArray(4, ps.getConnection().createArrayOf("boolean", hasPhone));
+            ps.setArray(5, ps.getConnection().createArrayOf("bigint", offsets));
+            ps.setArray(6, ps.getConnection().createArrayOf("text", channels));
+        });
+    }
+
+    public void insertResponses(List<RegistrationResponse> responses) {
+        if (responses.isEmpty()) {
+            return;
+        }
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        jdbcTemplate.batchUpdate(INSERT_RESPONSE_SQL, responses, responses.size(), (ps, response) -> {
+            ps.setLong(1, response.getParticipant().getId());
+            ps.setLong(2, response.getCustomField().getId());
+            ps.setString(3, response.getResponseValue());
+            ps.setTimestamp(4, Timestamp.valueOf(response.getCreatedAt() != null
+                    ? response.getCreatedAt() : LocalDateTime.now()), utc);
+        });
+    }
+}
@@ -1,6 +1,9 @@
 package thomas.com.EventPing.participant.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import thomas.com.EventPing.event.model.Event;
 import thomas.com.EventPing.participant.model.Participant;
 
@@ -13,4 +16,35 @@ public interface ParticipantRepository extends JpaRepository<Participant, Long>
     Optional<Participant> findByEventAndEmail(Event event, String email);
     
     long countByEvent(Event event);
+
+    @Query("SELECT p FROM Participant p WHERE p.event = :event AND p.id > :afterId ORDER BY p.id")
+    List<Participant> findPageByEventAfter(@Param("event") Event event, @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT p FROM Participant p WHERE p.event = :event AND p.id > :afterId AND EXISTS (" +
+            "SELECT r.id FROM RegistrationResponse r WHERE r.participant = p " +
+            "AND r.customField.id = :fieldId AND r.responseValue = :value) ORDER BY p.id")
+    List<Participant> findPageByEventAndResponseAfter(@Param("event") Event event, @Param("afterId") Long afterId,
+                                                      @Param("fieldId") Long fieldId, @Param("value") String value,
+                                                      Limit limit);
+
+    /**
+     * Page of participants whose JSONB answers contain the given document; served by the
+     * GIN index on custom_responses
+     */
+    @Query(value = "SELECT * FROM participants WHERE event_id = :eventId AND id > :afterId " +
+            "AND custom_responses @> CAST(:document AS jsonb) ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Participant> findPageByEventAndCustomResponsesAfter(@Param("eventId") Long eventId,
+                                                             @Param("afterId") Long afterId,
+                                                             @Param("document") String document,
+                                                             @Param("limit") int limit);
+
+    /**
+     * Set a participant's RSVP under a row lock and return the previous status, or empty
+     * when it already had that status, so concurrent changes move each counter exactly once
+     */
+    @Query(value = "UPDATE participants p SET rsvp_status = :status " +
+            "FROM (SELECT id, rsvp_status FROM participants WHERE id = :id FOR UPDATE) previous " +
+            "WHERE p.id = previous.id AND previous.rsvp_status <> :status " +
+            "RETURNING previous.rsvp_status", nativeQuery = true)
+    Optional<String> updateRsvpStatus(@Param("id") Long id, @Param("status") String status);
 }
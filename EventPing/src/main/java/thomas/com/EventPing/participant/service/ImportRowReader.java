@@ -0,0 +1,250 @@
+package thomas.com.EventPing.participant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import thomas.com.EventPing.security.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Pull-based reader of uploaded participant rows. Records are read one at a time straight
+ * from the request stream, so an upload is never held in memory; a record longer than
+ * {@link #MAX_RECORD_CHARS} ends the upload with a row error instead of growing a buffer.
+ */
+public abstract class ImportRowReader implements Closeable {
+
+    static final int MAX_RECORD_CHARS = 16 * 1024;
+
+    /**
+     * One uploaded row; {@code error} is set when the row could not be parsed
+     */
+    public record ImportRow(long row, String email, String phoneNumber, String error) {
+        static ImportRow invalid(long row, String error) {
+            return new ImportRow(row, null, null, error);
+        }
+    }
+
+    protected final BufferedReader reader;
+    protected int recordLength;
+    private long rowNumber;
+    private boolean finished;
+
+    private ImportRowReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    public static ImportRowReader csv(Reader reader) throws IOException {
+        return new CsvRowReader(reader);
+    }
+
+    public static ImportRowReader ndjson(Reader reader, ObjectMapper objectMapper) {
+        return new NdjsonRowReader(reader, objectMapper);
+    }
+
+    /**
+     * The next row, or null at the end of the upload
+     */
+    public ImportRow next() throws IOException {
+        while (!finished) {
+            List<String> fields = readRecord();
+            if (fields == null) {
+                finished = true;
+                return null;
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            if (recordLength > MAX_RECORD_CHARS) {
+                finished = true;
+                return ImportRow.invalid(rowNumber, "Row exceeds " + MAX_RECORD_CHARS + " characters; import stopped");
+            }
+            return toRow(rowNumber, fields);
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    protected abstract ImportRow toRow(long row, List<String> fields);
+
+    /**
+     * Fields of the next physical record, or null at end of input
+     */
+    protected abstract List<String> readRecord() throws IOException;
+
+    /**
+     * Append one character to the current record, reporting whether there is still room for it
+     */
+    protected boolean append(StringBuilder field, int c) {
+        if (++recordLength > MAX_RECORD_CHARS) {
+            return false;
+        }
+        field.append((char) c);
+        return true;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * RFC 4180 CSV with a header row naming an email column and, optionally, a phone column
+     */
+    private static final class CsvRowReader extends ImportRowReader {
+        private final int emailColumn;
+        private final int phoneColumn;
+
+        private CsvRowReader(Reader reader) throws IOException {
+            super(reader);
+            List<String> header = readRecord();
+            while (header != null && header.size() == 1 && header.get(0).isBlank()) {
+                header = readRecord();
+            }
+            if (header == null) {
+                throw new ValidationException("CSV upload is empty");
+            }
+
+            int email = -1;
+            int phone = -1;
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT)
+                        .replace("_", "").replace(" ", "");
+                if (name.equals("email")) {
+                    email = i;
+                } else if (name.equals("phone") || name.equals("phonenumber")) {
+                    phone = i;
+                }
+            }
+            if (email < 0) {
+                throw new ValidationException("CSV header must contain an email column");
+            }
+            this.emailColumn = email;
+            this.phoneColumn = phone;
+        }
+
+        @Override
+        protected ImportRow toRow(long row, List<String> fields) {
+            String email = emailColumn < fields.size() ? trimToNull(fields.get(emailColumn)) : null;
+            String phone = phoneColumn >= 0 && phoneColumn < fields.size() ? trimToNull(fields.get(phoneColumn)) : null;
+            return new ImportRow(row, email, phone, null);
+        }
+
+        @Override
+        protected List<String> readRecord() throws IOException {
+            recordLength = 0;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+            boolean overflow = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1) {
+                if (inQuotes) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            overflow |= !append(field, '"');
+                        } else {
+                            inQuotes = false;
+                            reader.reset();
+                        }
+                    } else {
+                        overflow |= !append(field, c);
+                    }
+                } else if (c == '"') {
+                    inQuotes = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    break;
+                } else {
+                    overflow |= !append(field, c);
+                }
+                if (overflow) {
+                    break;
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /**
+     * One JSON object per line with an "email" and an optional "phoneNumber" property
+     */
+    private static final class NdjsonRowReader extends ImportRowReader {
+        private final ObjectMapper objectMapper;
+
+        private NdjsonRowReader(Reader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        protected ImportRow toRow(long row, List<String> fields) {
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(fields.get(0));
+            } catch (JsonProcessingException e) {
+                return ImportRow.invalid(row, "Malformed JSON");
+            }
+            if (node == null || !node.isObject()) {
+                return ImportRow.invalid(row, "Expected a JSON object");
+            }
+            return new ImportRow(row, text(node, "email"), text(node, "phoneNumber", "phone_number", "phone"), null);
+        }
+
+        @Override
+        protected List<String> readRecord() throws IOException {
+            recordLength = 0;
+            StringBuilder line = new StringBuilder();
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (c != '\r' && !append(line, c)) {
+                    break;
+                }
+                c = reader.read();
+            }
+            return List.of(line.toString());
+        }
+
+        private static String text(JsonNode node, String... names) {
+            for (String name : names) {
+                JsonNode value = node.get(name);
+                if (value != null && value.isValueNode() && !value.isNull()) {
+                    return trimToNull(value.asText());
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package thomas.com.EventPing.participant.service;
+
+import thomas.com.EventPing.security.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in an event's participant list, which is ordered by id ascending.
+ * Handed to clients as an opaque URL-safe token.
+ */
+public record ParticipantCursor(Long id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ParticipantCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new ParticipantCursor(Long.parseLong(raw));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid page cursor");
+        }
+    }
+}
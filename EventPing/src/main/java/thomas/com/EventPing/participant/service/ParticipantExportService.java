@@ -0,0 +1,236 @@
+package thomas.com.EventPing.participant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.common.export.ExportSink;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+import thomas.com.EventPing.config.ParticipantExportProperties;
+import thomas.com.EventPing.config.ParticipantResponseProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.event.model.EventCustomField;
+import thomas.com.EventPing.event.repository.EventCustomFieldRepository;
+import thomas.com.EventPing.event.repository.EventRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams an event's participants to an output stream as CSV or NDJSON, optionally with
+ * one column per custom field and narrowed to one custom-field answer. Rows are read
+ * through a forward-only cursor with a bounded fetch size and written as they arrive, so
+ * the export never holds more than one fetch of participants in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ParticipantExportService {
+
+    private static final String[] COLUMNS = {
+            "id", "email", "phone_number", "joined_at", "unsubscribed", "rsvp_status"
+    };
+
+    private static final String SELECT_SQL =
+            "SELECT p.id, p.email, p.phone_number, p.joined_at, p.unsubscribed, p.rsvp_status";
+
+    // Row-stored responses are collected per participant, so the outer scan keeps streaming in id order
+    private static final String FROM_WITH_RESPONSE_ROWS_SQL =
+            ", r.field_ids, r.field_values FROM participants p " +
+            "LEFT JOIN LATERAL (SELECT array_agg(rr.custom_field_id) AS field_ids, " +
+            "                          array_agg(rr.response_value) AS field_values " +
+            "                   FROM registration_responses rr WHERE rr.participant_id = p.id) r ON true";
+
+    private static final String FROM_WITH_RESPONSE_DOCUMENT_SQL =
+            ", CAST(p.custom_responses AS text) AS custom_responses FROM participants p";
+
+    private static final String FROM_SQL = " FROM participants p";
+
+    private static final String RESPONSE_ROW_FILTER_SQL =
+            " AND EXISTS (SELECT 1 FROM registration_responses rf WHERE rf.participant_id = p.id " +
+            "AND rf.custom_field_id = ? AND rf.response_value = ?)";
+
+    // Served by the GIN index on custom_responses
+    private static final String RESPONSE_DOCUMENT_FILTER_SQL = " AND p.custom_responses @> CAST(? AS jsonb)";
+
+    private static final TypeReference<Map<String, String>> RESPONSE_DOCUMENT = new TypeReference<>() {
+    };
+
+    private final EventRepository eventRepository;
+    private final EventCustomFieldRepository customFieldRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ParticipantExportProperties participantExportProperties;
+    private final ParticipantResponseProperties participantResponseProperties;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        CSV_WITH_FIELDS("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Check that the organizer owns the event before the response is committed
+     */
+    public Event findExportableEvent(User organizer, String eventSlug) {
+        Event event = eventRepository.findWithCreatorBySlug(eventSlug)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+        if (!event.getCreator().getId().equals(organizer.getId())) {
+            throw new AccessDeniedException("Only the event organizer can export participants");
+        }
+        return event;
+    }
+
+    /**
+     * Write every participant of the event in id order, or only those who gave the filtered
+     * answer. Returns the number of rows written.
+     */
+    public long export(Event event, Format format, ResponseFilter filter, OutputStream out) {
+        // NDJSON carries responses keyed by field name; plain CSV has fixed columns only
+        List<EventCustomField> fields = format != Format.CSV
+                ? customFieldRepository.findByEventIdOrderByDisplayOrder(event.getId())
+                : List.of();
+        boolean documents = participantResponseProperties.getStorage() == ParticipantResponseProperties.Storage.JSONB;
+        boolean readResponses = !fields.isEmpty();
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!readResponses) {
+            sql.append(FROM_SQL);
+        } else {
+            sql.append(documents ? FROM_WITH_RESPONSE_DOCUMENT_SQL : FROM_WITH_RESPONSE_ROWS_SQL);
+        }
+        sql.append(" WHERE p.event_id = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(event.getId());
+        if (filter != null) {
+            if (documents) {
+                sql.append(RESPONSE_DOCUMENT_FILTER_SQL);
+                params.add(toJson(filter.asDocument()));
+            } else {
+                sql.append(RESPONSE_ROW_FILTER_SQL);
+                params.add(filter.fieldId());
+                params.add(filter.value());
+            }
+        }
+        sql.append(" ORDER BY p.id");
+
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        try (ExportSink sink = format == Format.NDJSON
+                ? ExportSink.ndjson(out, objectMapper)
+                : ExportSink.csv(out, csvHeader(fields))) {
+            AtomicLong rows = new AtomicLong();
+            // PostgreSQL only honours the fetch size inside a transaction
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(participantExportProperties.getFetchSize());
+                for (int i = 0; i < params.size(); i++) {
+                    ps.setObject(i + 1, params.get(i));
+                }
+                return ps;
+            }, rs -> {
+                try {
+                    Map<String, String> responses = !readResponses ? Map.of()
+                            : documents ? responseDocument(rs) : responseRows(rs);
+                    write(sink, rs, utc, fields, responses);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+            }));
+            log.info("Exported {} participants of event {} as {}", rows.get(), event.getId(), format);
+            return rows.get();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write participant export", e);
+        }
+    }
+
+    private static Map<String, String> responseRows(ResultSet rs) throws SQLException {
+        Array ids = rs.getArray("field_ids");
+        if (ids == null) {
+            return Map.of();
+        }
+        Object[] fieldIds = (Object[]) ids.getArray();
+        Object[] values = (Object[]) rs.getArray("field_values").getArray();
+        Map<String, String> responses = new HashMap<>();
+        for (int i = 0; i < fieldIds.length; i++) {
+            responses.put(fieldIds[i].toString(), (String) values[i]);
+        }
+        return responses;
+    }
+
+    private Map<String, String> responseDocument(ResultSet rs) throws SQLException, IOException {
+        String document = rs.getString("custom_responses");
+        return document != null ? objectMapper.readValue(document, RESPONSE_DOCUMENT) : Map.of();
+    }
+
+    private String toJson(Map<String, String> document) {
+        try {
+            return objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response filter", e);
+        }
+    }
+
+    private static List<String> csvHeader(List<EventCustomField> fields) {
+        List<String> header = new ArrayList<>(List.of(COLUMNS));
+        fields.forEach(field -> header.add(field.getFieldName()));
+        return header;
+    }
+
+    private static void write(ExportSink sink, ResultSet rs, Calendar utc, List<EventCustomField> fields,
+                              Map<String, String> responses) throws SQLException, IOException {
+        sink.startRecord();
+        sink.field("id", rs.getLong("id"));
+        sink.field("email", rs.getString("email"));
+        sink.field("phoneNumber", rs.getString("phone_number"));
+        // Written by Hibernate in UTC
+        Timestamp joinedAt = rs.getTimestamp("joined_at", utc);
+        sink.field("joinedAt", joinedAt != null ? joinedAt.toLocalDateTime().toString() : null);
+        sink.field("unsubscribed", rs.getBoolean("unsubscribed"));
+        sink.field("rsvpStatus", rs.getString("rsvp_status"));
+        if (!fields.isEmpty()) {
+            sink.startObject("responses");
+            for (EventCustomField field : fields) {
+                sink.field(field.getFieldName(), responses.get(field.getId().toString()));
+            }
+            sink.endObject();
+        }
+        sink.endRecord();
+    }
+}
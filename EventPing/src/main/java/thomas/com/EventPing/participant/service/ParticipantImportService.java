@@ -0,0 +1,273 @@
+package thomas.com.EventPing.participant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.common.service.RateLimitService;
+import thomas.com.EventPing.config.ParticipantImportProperties;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.event.service.EventReadCache;
+import thomas.com.EventPing.participant.dtos.ParticipantImportResultDto;
+import thomas.com.EventPing.participant.model.Participant;
+import thomas.com.EventPing.participant.repository.ParticipantBatchRepository;
+import thomas.com.EventPing.reminder.repository.ReminderScheduleRepository;
+import thomas.com.EventPing.reminder.service.ReminderPlan;
+import thomas.com.EventPing.reminder.service.ReminderPlanner;
+import thomas.com.EventPing.security.exception.ValidationException;
+import thomas.com.EventPing.security.service.InputValidationService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk participant import for organizers. The upload is parsed row by row and processed
+ * in chunks: each chunk is deduplicated against existing participants with one query,
+ * reserves its capacity with one conditional UPDATE, and inserts participants and their
+ * reminders with one statement each, in its own transaction. Rows that fail are reported
+ * individually and do not affect the rest of the upload; a chunk the database rejects is
+ * reported row by row as failed while earlier chunks stay imported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ParticipantImportService {
+
+    private static final String ROWS_METRIC = "eventping.participants.import.rows";
+
+    private final EventRepository eventRepository;
+    private final RateLimitService rateLimitService;
+    private final ParticipantBatchRepository participantBatchRepository;
+    private final ReminderPlanner reminderPlanner;
+    private final ReminderScheduleRepository reminderScheduleRepository;
+    private final InputValidationService inputValidationService;
+    private final EventReadCache eventReadCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ParticipantImportProperties participantImportProperties;
+    private final ReminderProperties reminderProperties;
+    private final MeterRegistry meterRegistry;
+
+    public enum Format {
+        CSV,
+        NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            if (contentType != null) {
+                String type = contentType.toLowerCase(Locale.ROOT);
+                if (type.startsWith("text/csv")) {
+                    return CSV;
+                }
+                if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+                    return NDJSON;
+                }
+            }
+            throw new ValidationException("Upload must be text/csv or application/x-ndjson");
+        }
+    }
+
+    public ParticipantImportResultDto importParticipants(User organizer, String eventSlug, InputStream input,
+                                                         Format format, List<Long> reminderOffsetMinutes) throws IOException {
+        Event event = eventRepository.findWithCreatorAndPlanBySlug(eventSlug)
+                .orElseThrow(() -> new RuntimeException("Event not found"));
+        if (!event.getCreator().getId().equals(organizer.getId())) {
+            throw new AccessDeniedException("Only the event organizer can import participants");
+        }
+        if (event.getStatus() != Event.EventStatus.ACTIVE) {
+            throw new RuntimeException("Event is no longer active");
+        }
+
+        long started = System.nanoTime();
+        ReminderPlan reminderPlan;
+        if (reminderProperties.getStorage() == ReminderProperties.Storage.EVENT_SCHEDULE) {
+            // The whole upload shares the event's own schedules; the upload's offsets are
+            // ignored and chunks write no reminder rows
+            reminderPlan = reminderPlanner.eventPlan(event);
+            reminderScheduleRepository.insertSchedules(reminderPlan);
+            reminderPlan = reminderPlan.withoutReminders();
+        } else {
+            reminderPlan = reminderPlanner.plan(event, reminderOffsetMinutes);
+        }
+        ImportProgress progress = new ImportProgress(participantImportProperties.getMaxReportedErrors());
+        int chunkSize = Math.max(1, participantImportProperties.getChunkSize());
+        List<ImportRowReader.ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        InputStreamReader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+        try (ImportRowReader rows = format == Format.CSV
+                ? ImportRowReader.csv(reader)
+                : ImportRowReader.ndjson(reader, objectMapper)) {
+            ImportRowReader.ImportRow row;
+            while ((row = rows.next()) != null) {
+                if (progress.totalRows >= participantImportProperties.getMaxRows()) {
+                    progress.fail(row.row(), row.email(),
+                            "Upload exceeds " + participantImportProperties.getMaxRows() + " rows; import stopped");
+                    break;
+                }
+                progress.totalRows++;
+
+                String error = validate(row);
+                if (error != null) {
+                    progress.fail(row.row(), row.email(), error);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(event, chunk, reminderPlan, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(event, chunk, reminderPlan, progress);
+            }
+        } finally {
+            if (progress.imported > 0) {
+                eventReadCache.evictParticipantCount(event.getId());
+            }
+            meterRegistry.counter(ROWS_METRIC, "outcome", "imported").increment(progress.imported);
+            meterRegistry.counter(ROWS_METRIC, "outcome", "duplicate").increment(progress.duplicates);
+            meterRegistry.counter(ROWS_METRIC, "outcome", "failed").increment(progress.failed);
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} of {} rows into event {} in {} ms ({} duplicates, {} failed)",
+                progress.imported, progress.totalRows, event.getId(), elapsedMillis, progress.duplicates, progress.failed);
+
+        return ParticipantImportResultDto.builder()
+                .totalRows(progress.totalRows)
+                .imported(progress.imported)
+                .duplicates(progress.duplicates)
+                .failed(progress.failed)
+                .elapsedMillis(elapsedMillis)
+                .rowsPerSecond(progress.totalRows * 1000.0 / elapsedMillis)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+    }
+
+    private String validate(ImportRowReader.ImportRow row) {
+        if (row.error() != null) {
+            return row.error();
+        }
+        if (row.email() == null) {
+            return "Email is required";
+        }
+        if (row.email().length() > 255 || !inputValidationService.isValidEmail(row.email())) {
+            return "Invalid email format";
+        }
+        if (row.phoneNumber() != null && !inputValidationService.isValidPhoneNumber(row.phoneNumber())) {
+            return "Invalid phone number";
+        }
+        return null;
+    }
+
+    private void importChunk(Event event, List<ImportRowReader.ImportRow> chunk,
+                             ReminderPlan reminderPlan, ImportProgress progress) {
+        // Repeats inside the upload are duplicates of the first occurrence
+        Map<String, ImportRowReader.ImportRow> unique = new LinkedHashMap<>();
+        int repeats = 0;
+        for (ImportRowReader.ImportRow row : chunk) {
+            if (unique.putIfAbsent(row.email(), row) != null) {
+                repeats++;
+            }
+        }
+        progress.duplicates += repeats;
+
+        ChunkOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> saveChunk(event, unique, reminderPlan));
+        } catch (DataAccessException | TransactionException e) {
+            // The chunk rolled back as a whole; earlier chunks stay committed
+            log.warn("Import of {} rows into event {} failed: {}", unique.size(), event.getId(), e.getMessage());
+            for (ImportRowReader.ImportRow row : unique.values()) {
+                progress.fail(row.row(), row.email(), "Could not be saved; import this row again");
+            }
+            return;
+        }
+
+        // Counted only once the chunk has committed
+        progress.duplicates += outcome.duplicates();
+        for (ImportRowReader.ImportRow row : outcome.rejected()) {
+            progress.fail(row.row(), row.email(), "Event has reached maximum participant capacity");
+        }
+        progress.imported += outcome.imported();
+    }
+
+    private ChunkOutcome saveChunk(Event event, Map<String, ImportRowReader.ImportRow> unique,
+                                   ReminderPlan reminderPlan) {
+        Set<String> existing = participantBatchRepository.findExistingEmails(event.getId(), unique.keySet());
+        int duplicates = 0;
+        List<Participant> candidates = new ArrayList<>(unique.size());
+        for (ImportRowReader.ImportRow row : unique.values()) {
+            if (existing.contains(row.email())) {
+                duplicates++;
+                continue;
+            }
+            Participant participant = new Participant();
+            participant.setEvent(event);
+            participant.setEmail(row.email());
+            participant.setPhoneNumber(row.phoneNumber());
+            candidates.add(participant);
+        }
+
+        List<ImportRowReader.ImportRow> rejected = new ArrayList<>();
+        int granted = rateLimitService.reserveParticipantSlots(event, candidates.size());
+        if (granted < candidates.size()) {
+            for (Participant participant : candidates.subList(granted, candidates.size())) {
+                rejected.add(unique.get(participant.getEmail()));
+            }
+            candidates = candidates.subList(0, granted);
+        }
+
+        List<Participant> inserted = participantBatchRepository.insertParticipants(event.getId(), candidates);
+        // Rows a concurrent join registered first were skipped; hand their slots back
+        int skipped = candidates.size() - inserted.size();
+        rateLimitService.releaseParticipantSlots(event, skipped);
+        duplicates += skipped;
+
+        eventRepository.moveRsvpCounts(event.getId(), null, Participant.RsvpStatus.TENTATIVE, inserted.size());
+        participantBatchRepository.insertReminders(reminderPlan, inserted);
+        return new ChunkOutcome(inserted.size(), duplicates, rejected);
+    }
+
+    private record ChunkOutcome(int imported, int duplicates, List<ImportRowReader.ImportRow> rejected) {
+    }
+
+    /**
+     * Running totals of an import, with a bounded list of row errors
+     */
+    private static final class ImportProgress {
+        private final int maxReportedErrors;
+        private final List<ParticipantImportResultDto.RowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long duplicates;
+        private long failed;
+
+        private ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long row, String email, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ParticipantImportResultDto.RowError(row, email, message));
+            }
+        }
+    }
+}
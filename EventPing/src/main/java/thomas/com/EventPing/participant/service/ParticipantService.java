@@ -1,6 +1,7 @@
 package thomas.com.EventPing.participant.service;
 
 import thomas.com.EventPing.participant.dtos.JoinEventRequest;
+import thomas.com.EventPing.participant.dtos.ParticipantPageDto;
 import thomas.com.EventPing.participant.dtos.ParticipantResponseDto;
 
 import java.util.List;
@@ -8,7 +9,7 @@ import java.util.List;
 public interface ParticipantService {
     ParticipantResponseDto joinEvent(String eventSlug, JoinEventRequest request, List<Long> reminderOffsetMinutes);
     void unsubscribe(Long participantId);
-    List<ParticipantResponseDto> getEventParticipants(String eventSlug);
+    ParticipantPageDto getEventParticipants(String eventSlug, String cursor, int limit, ResponseFilter filter);
     void updateRsvp(Long participantId, thomas.com.EventPing.participant.model.Participant.RsvpStatus status);
     java.util.Map<thomas.com.EventPing.participant.model.Participant.RsvpStatus, Long> getRsvpSummary(String eventSlug);
 }
@@ -0,0 +1,23 @@
+package thomas.com.EventPing.participant.service;
+
+import java.util.Map;
+
+/**
+ * Organizer filter on one custom-field answer, e.g. every participant who chose "Option X"
+ */
+public record ResponseFilter(Long fieldId, String value) {
+
+    /**
+     * A filter from optional request parameters, or null when either is missing
+     */
+    public static ResponseFilter of(Long fieldId, String value) {
+        return fieldId != null && value != null ? new ResponseFilter(fieldId, value) : null;
+    }
+
+    /**
+     * The JSONB document a matching participant's custom_responses contains
+     */
+    public Map<String, String> asDocument() {
+        return Map.of(fieldId.toString(), value);
+    }
+}
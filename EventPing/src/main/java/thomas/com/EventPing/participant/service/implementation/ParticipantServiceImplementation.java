@@ -1,137 +1,188 @@
 package thomas.com.EventPing.participant.service.implementation;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import thomas.com.EventPing.User.model.User;
 import thomas.com.EventPing.common.service.RateLimitService;
+import thomas.com.EventPing.config.ParticipantResponseProperties;
+import thomas.com.EventPing.config.ReminderProperties;
 import thomas.com.EventPing.event.model.Event;
 import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.event.service.EventReadCache;
 import thomas.com.EventPing.participant.dtos.JoinEventRequest;
+import thomas.com.EventPing.participant.dtos.ParticipantPageDto;
 import thomas.com.EventPing.participant.dtos.ParticipantResponseDto;
 import thomas.com.EventPing.participant.mapper.ParticipantMapper;
 import thomas.com.EventPing.participant.model.Participant;
+import thomas.com.EventPing.participant.model.RegistrationResponse;
+import thomas.com.EventPing.participant.repository.ParticipantBatchRepository;
 import thomas.com.EventPing.participant.repository.ParticipantRepository;
+import thomas.com.EventPing.participant.service.ParticipantCursor;
 import thomas.com.EventPing.participant.service.ParticipantService;
-import thomas.com.EventPing.reminder.model.Reminder;
-import thomas.com.EventPing.reminder.repository.ReminderRepository;
+import thomas.com.EventPing.participant.service.ResponseFilter;
+import thomas.com.EventPing.reminder.repository.ReminderScheduleRepository;
+import thomas.com.EventPing.reminder.service.ReminderPlanner;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ParticipantServiceImplementation implements ParticipantService {
+    private static final String JOIN_METRIC = "eventping.participants.join";
+    private static final String JOIN_REJECTED_METRIC = "eventping.participants.join.rejected";
+    private static final String UNIQUE_EVENT_EMAIL = "uq_participants_event_email";
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ParticipantRepository participantRepository;
     private final EventRepository eventRepository;
-    private final ReminderRepository reminderRepository;
     private final ParticipantMapper participantMapper;
     private final RateLimitService rateLimitService;
-    private final thomas.com.EventPing.participant.repository.RegistrationResponseRepository responseRepository;
     private final thomas.com.EventPing.event.repository.EventCustomFieldRepository customFieldRepository;
+    private final EventReadCache eventReadCache;
+    private final ParticipantBatchRepository participantBatchRepository;
+    private final ReminderPlanner reminderPlanner;
+    private final ReminderScheduleRepository reminderScheduleRepository;
+    private final ReminderProperties reminderProperties;
+    private final ParticipantResponseProperties participantResponseProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public ParticipantResponseDto joinEvent(String eventSlug, JoinEventRequest request, List<Long> reminderOffsetMinutes) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
         // Find event
         Event event = eventRepository.findBySlug(eventSlug)
-                .orElseThrow(() -> new RuntimeException("Event not found"));
+                .orElseThrow(() -> rejected("not_found", "Event not found"));
 
         // Check if event is active
         if (event.getStatus() != Event.EventStatus.ACTIVE) {
-            throw new RuntimeException("Event is no longer active");
+            throw rejected("inactive", "Event is no longer active");
         }
 
-        // Check rate limit
+        // Cheap early exit from the denormalized counter; the reservation below is authoritative
         if (!rateLimitService.canAddParticipant(event)) {
-            throw new RuntimeException("Event has reached maximum participant capacity");
+            throw rejected("full", "Event has reached maximum participant capacity");
         }
 
         // Check if already joined
         if (participantRepository.findByEventAndEmail(event, request.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already registered for this event");
+            throw rejected("duplicate", "Email already registered for this event");
         }
 
+        // Validate custom field responses before writing anything
+        List<RegistrationResponse> responses = buildResponses(event, request);
+
         // Create participant
         Participant participant = new Participant();
         participant.setEvent(event);
         participant.setEmail(request.getEmail());
         participant.setPhoneNumber(request.getPhoneNumber());
         participant.setUnsubscribed(false);
+        boolean jsonbResponses = participantResponseProperties.getStorage() == ParticipantResponseProperties.Storage.JSONB;
+        if (jsonbResponses && !responses.isEmpty()) {
+            // Answers travel in the participant row itself: no second table, no second statement
+            Map<String, String> document = new LinkedHashMap<>();
+            responses.forEach(response -> document.put(response.getCustomField().getId().toString(),
+                    response.getResponseValue()));
+            participant.setCustomResponses(document);
+        }
+
+        Participant savedParticipant;
+        try {
+            // Flushed now so a concurrent duplicate fails here and the batch inserts can reference the id
+            savedParticipant = participantRepository.saveAndFlush(participant);
+        } catch (DataIntegrityViolationException e) {
+            if (isConstraintViolation(e, UNIQUE_EVENT_EMAIL)) {
+                throw rejected("duplicate", "Email already registered for this event");
+            }
+            throw e;
+        }
+
+        if (reminderProperties.getStorage() == ReminderProperties.Storage.EVENT_SCHEDULE) {
+            // Schedules reach every participant, so only the organizer's offsets count; the
+            // joiner's are ignored. No-op once the event has these schedules.
+            reminderScheduleRepository.insertSchedules(reminderPlanner.eventPlan(event));
+        } else {
+            participantBatchRepository.insertReminders(reminderPlanner.plan(event, reminderOffsetMinutes),
+                    List.of(savedParticipant));
+        }
+        if (!jsonbResponses) {
+            responses.forEach(response -> response.setParticipant(savedParticipant));
+            participantBatchRepository.insertResponses(responses);
+        }
 
-        Participant savedParticipant = participantRepository.save(participant);
+        // Reserve the slot last: the conditional UPDATE locks the event row until commit, so
+        // concurrent joins on a hot event only queue for the commit, not for each other's inserts
+        if (!rateLimitService.reserveParticipantSlot(event)) {
+            throw rejected("full", "Event has reached maximum participant capacity");
+        }
+        // Same event row the reservation just locked, so this adds no contention
+        eventRepository.moveRsvpCounts(event.getId(), null, savedParticipant.getRsvpStatus(), 1);
+        eventReadCache.evictParticipantCount(event.getId());
 
-        // Get creator's plan for feature validation
-        thomas.com.EventPing.plan.model.Plan plan = event.getCreator().getPlan();
+        sample.stop(meterRegistry.timer(JOIN_METRIC));
+        return participantMapper.toParticipantResponseDto(savedParticipant);
+    }
 
-        // Validate reminder intervals - only allowed if plan supports custom intervals
-        List<Long> finalOffsets = reminderOffsetMinutes;
-        if (finalOffsets != null && !finalOffsets.isEmpty() && (plan == null || !plan.isCustomIntervalsEnabled())) {
-            // Force default offsets for FREE users (or if plan missing) if they try to customize
-            finalOffsets = List.of(60L, 1440L);
+    private List<RegistrationResponse> buildResponses(Event event, JoinEventRequest request) {
+        List<RegistrationResponse> responses = new ArrayList<>();
+        if (request.getCustomFieldResponses() == null || request.getCustomFieldResponses().isEmpty()) {
+            return responses;
         }
 
-        // Create reminders for allowed channels
-        if (finalOffsets != null && !finalOffsets.isEmpty()) {
-            String[] allowedChannels = (plan != null ? plan.getReminderChannels() : "EMAIL").split(",");
-            
-            for (String channelStr : allowedChannels) {
-                try {
-                    Reminder.ReminderChannel channel = Reminder.ReminderChannel.valueOf(channelStr.trim());
-                    
-                    // Skip WhatsApp reminder if phone number is not provided or creator disabled it
-                    if (channel == Reminder.ReminderChannel.WHATSAPP) {
-                         if (participant.getPhoneNumber() == null || participant.getPhoneNumber().trim().isEmpty()) {
-                             continue;
-                         }
-                         if (!event.getCreator().getEnableWhatsApp()) {
-                             continue;
-                         }
-                    }
-
-                    for (Long offsetMinutes : finalOffsets) {
-                        Reminder reminder = new Reminder();
-                        reminder.setEvent(event);
-                        reminder.setParticipant(savedParticipant);
-                        reminder.setSendAt(event.getEventDateTime().minusMinutes(offsetMinutes));
-                        reminder.setChannel(channel);
-                        reminder.setSent(false);
-                        
-                        reminderRepository.save(reminder);
-                    }
-                } catch (IllegalArgumentException e) {
-                    // Log or ignore invalid channels in plan config
-                }
+        List<thomas.com.EventPing.event.model.EventCustomField> customFields =
+            customFieldRepository.findByEventIdOrderByDisplayOrder(event.getId());
+
+        for (thomas.com.EventPing.event.model.EventCustomField field : customFields) {
+            String responseValue = request.getCustomFieldResponses().get(field.getFieldName());
+
+            // Validate required fields
+            if (field.isRequired() && (responseValue == null || responseValue.trim().isEmpty())) {
+                throw rejected("invalid", "Required field '" + field.getFieldName() + "' is missing");
             }
-        }
-        
-        // Save custom field responses
-        if (request.getCustomFieldResponses() != null && !request.getCustomFieldResponses().isEmpty()) {
-            List<thomas.com.EventPing.event.model.EventCustomField> customFields = 
-                customFieldRepository.findByEventIdOrderByDisplayOrder(event.getId());
-            
-            for (thomas.com.EventPing.event.model.EventCustomField field : customFields) {
-                String responseValue = request.getCustomFieldResponses().get(field.getFieldName());
-                
-                // Validate required fields
-                if (field.isRequired() && (responseValue == null || responseValue.trim().isEmpty())) {
-                    throw new RuntimeException("Required field '" + field.getFieldName() + "' is missing");
-                }
-                
-                // Save response if provided
-                if (responseValue != null && !responseValue.trim().isEmpty()) {
-                    thomas.com.EventPing.participant.model.RegistrationResponse response = 
-                        new thomas.com.EventPing.participant.model.RegistrationResponse();
-                    response.setParticipant(savedParticipant);
-                    response.setCustomField(field);
-                    response.setResponseValue(responseValue);
-                    responseRepository.save(response);
-                }
+
+            // Save response if provided
+            if (responseValue != null && !responseValue.trim().isEmpty()) {
+                RegistrationResponse response = new RegistrationResponse();
+                response.setCustomField(field);
+                response.setResponseValue(responseValue);
+                responses.add(response);
             }
         }
+        return responses;
+    }
 
-        return participantMapper.toParticipantResponseDto(savedParticipant);
+    private String toJson(Map<String, String> document) {
+        try {
+            return objectMapper.writeValueAsString(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response filter", e);
+        }
+    }
+
+    private RuntimeException rejected(String reason, String message) {
+        meterRegistry.counter(JOIN_REJECTED_METRIC, "reason", reason).increment();
+        return new RuntimeException(message);
+    }
+
+    private static boolean isConstraintViolation(DataIntegrityViolationException e, String constraint) {
+        Throwable cause = e.getMostSpecificCause();
+        return cause.getMessage() != null && cause.getMessage().contains(constraint);
     }
 
     @Override
@@ -139,35 +190,63 @@ public class ParticipantServiceImplementation implements ParticipantService {
         Participant participant = participantRepository.findById(participantId)
                 .orElseThrow(() -> new RuntimeException("Participant not found"));
         
+        if (Boolean.TRUE.equals(participant.getUnsubscribed())) {
+            return;
+        }
         participant.setUnsubscribed(true);
         participantRepository.save(participant);
+        rateLimitService.releaseParticipantSlot(participant.getEvent());
+        eventReadCache.evictParticipantCount(participant.getEvent().getId());
     }
 
     @Override
-    public List<ParticipantResponseDto> getEventParticipants(String eventSlug) {
+    public ParticipantPageDto getEventParticipants(String eventSlug, String cursor, int limit, ResponseFilter filter) {
         Event event = eventRepository.findBySlug(eventSlug)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
-        
-        return participantRepository.findByEvent(event).stream()
-                .map(participantMapper::toParticipantResponseDto)
-                .collect(Collectors.toList());
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = cursor == null || cursor.isBlank() ? 0L : ParticipantCursor.decode(cursor).id();
+        // One extra row tells whether another page exists without a COUNT query
+        List<Participant> participants;
+        if (filter == null) {
+            participants = participantRepository.findPageByEventAfter(event, afterId, Limit.of(pageSize + 1));
+        } else if (participantResponseProperties.getStorage() == ParticipantResponseProperties.Storage.JSONB) {
+            participants = participantRepository.findPageByEventAndCustomResponsesAfter(
+                    event.getId(), afterId, toJson(filter.asDocument()), pageSize + 1);
+        } else {
+            participants = participantRepository.findPageByEventAndResponseAfter(
+                    event, afterId, filter.fieldId(), filter.value(), Limit.of(pageSize + 1));
+        }
+
+        boolean hasMore = participants.size() > pageSize;
+        List<Participant> page = hasMore ? participants.subList(0, pageSize) : participants;
+
+        return ParticipantPageDto.builder()
+                .items(page.stream().map(participantMapper::toParticipantResponseDto).collect(Collectors.toList()))
+                .nextCursor(hasMore ? new ParticipantCursor(page.get(page.size() - 1).getId()).encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     @Override
     public void updateRsvp(Long participantId, Participant.RsvpStatus status) {
         Participant participant = participantRepository.findById(participantId)
                 .orElseThrow(() -> new RuntimeException("Participant not found"));
-        participant.setRsvpStatus(status);
-        participantRepository.save(participant);
+        participantRepository.updateRsvpStatus(participantId, status.name())
+                .map(Participant.RsvpStatus::valueOf)
+                .ifPresent(previous -> eventRepository.moveRsvpCounts(
+                        participant.getEvent().getId(), previous, status, 1));
     }
 
     @Override
-    public java.util.Map<Participant.RsvpStatus, Long> getRsvpSummary(String eventSlug) {
-        Event event = eventRepository.findBySlug(eventSlug)
+    public Map<Participant.RsvpStatus, Long> getRsvpSummary(String eventSlug) {
+        EventRepository.RsvpCounts counts = eventRepository.findRsvpCountsBySlug(eventSlug)
                 .orElseThrow(() -> new RuntimeException("Event not found"));
-        
-        List<Participant> participants = participantRepository.findByEvent(event);
-        return participants.stream()
-                .collect(Collectors.groupingBy(Participant::getRsvpStatus, Collectors.counting()));
+
+        Map<Participant.RsvpStatus, Long> summary = new EnumMap<>(Participant.RsvpStatus.class);
+        summary.put(Participant.RsvpStatus.ATTENDING, counts.getAttending());
+        summary.put(Participant.RsvpStatus.NOT_ATTENDING, counts.getNotAttending());
+        summary.put(Participant.RsvpStatus.TENTATIVE, counts.getTentative());
+        return summary;
     }
 }
@@ -5,11 +5,13 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import thomas.com.EventPing.plan.service.PlanChangeListener;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "plans")
+@EntityListeners(PlanChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
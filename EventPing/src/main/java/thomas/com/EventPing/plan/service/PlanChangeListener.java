@@ -0,0 +1,33 @@
+package thomas.com.EventPing.plan.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.plan.model.Plan;
+
+/**
+ * JPA entity listener that keeps {@link PlanEntitlementCache} in step with plans saved or
+ * deleted through the application. Hibernate obtains it from the Spring context while the
+ * entity manager factory is still being built, so the cache, which needs a repository, is
+ * looked up on first use.
+ */
+@Component
+@RequiredArgsConstructor
+public class PlanChangeListener {
+
+    private final ObjectProvider<PlanEntitlementCache> planEntitlementCache;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Plan plan) {
+        planEntitlementCache.getObject().planChanged(plan);
+    }
+
+    @PostRemove
+    public void onRemove(Plan plan) {
+        planEntitlementCache.getObject().planRemoved(plan);
+    }
+}
@@ -0,0 +1,154 @@
+package thomas.com.EventPing.plan.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.plan.repository.PlanRepository;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory entitlements of every plan, loaded once the application is ready and replaced
+ * whenever a plan is saved through JPA. A periodic reload picks up plans changed directly
+ * in the database. Lookups read an immutable snapshot and never query.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlanEntitlementCache {
+
+    private final PlanRepository planRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private record Snapshot(Map<Long, PlanEntitlements> byId, Map<Plan.PlanName, PlanEntitlements> byName) {
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of());
+    }
+
+    /**
+     * Load after the seeders have run, so the free plan is there on a fresh database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Re-read all plans every five minutes
+     */
+    @Scheduled(cron = "0 */5 * * * *")
+    public synchronized void refresh() {
+        List<Plan> plans = planRepository.findAll();
+        Map<Long, PlanEntitlements> byId = new HashMap<>();
+        Map<Plan.PlanName, PlanEntitlements> byName = new EnumMap<>(Plan.PlanName.class);
+        for (Plan plan : plans) {
+            PlanEntitlements entitlements = PlanEntitlements.from(plan);
+            byId.put(plan.getId(), entitlements);
+            byName.put(plan.getName(), entitlements);
+        }
+        snapshot = new Snapshot(Map.copyOf(byId), byName);
+        log.debug("Loaded entitlements of {} plans", plans.size());
+    }
+
+    /**
+     * Entitlements of the given plan; users without a plan get the free plan's
+     */
+    public PlanEntitlements forPlan(Plan plan) {
+        if (plan == null) {
+            return free();
+        }
+        // Reading the id does not initialize a lazy plan proxy
+        PlanEntitlements cached = plan.getId() != null ? snapshot.byId().get(plan.getId()) : null;
+        return cached != null ? cached : PlanEntitlements.from(plan);
+    }
+
+    /**
+     * Entitlements of a plan known only by id, e.g. from a JDBC row; null means no plan
+     */
+    public PlanEntitlements forPlanId(Long planId) {
+        if (planId == null) {
+            return free();
+        }
+        PlanEntitlements cached = snapshot.byId().get(planId);
+        if (cached == null) {
+            // A plan created outside the application since the last reload
+            refresh();
+            cached = snapshot.byId().get(planId);
+        }
+        return cached != null ? cached : free();
+    }
+
+    public PlanEntitlements forUser(User user) {
+        return forPlan(user.getPlan());
+    }
+
+    public PlanEntitlements free() {
+        PlanEntitlements free = snapshot.byName().get(Plan.PlanName.FREE);
+        if (free == null) {
+            // Only before the startup load, or if the free plan was never seeded
+            refresh();
+            free = snapshot.byName().get(Plan.PlanName.FREE);
+        }
+        if (free == null) {
+            throw new RuntimeException("FREE plan not found");
+        }
+        return free;
+    }
+
+    /**
+     * Swap in a plan's new entitlements once the change that produced them has committed
+     */
+    void planChanged(Plan plan) {
+        PlanEntitlements entitlements = PlanEntitlements.from(plan);
+        runAfterCommit(() -> put(entitlements));
+    }
+
+    void planRemoved(Plan plan) {
+        Long id = plan.getId();
+        runAfterCommit(() -> remove(id));
+    }
+
+    private synchronized void put(PlanEntitlements entitlements) {
+        if (entitlements.planId() == null || entitlements.name() == null) {
+            return;
+        }
+        Map<Long, PlanEntitlements> byId = new HashMap<>(snapshot.byId());
+        byId.put(entitlements.planId(), entitlements);
+        Map<Plan.PlanName, PlanEntitlements> byName = new EnumMap<>(Plan.PlanName.class);
+        byName.putAll(snapshot.byName());
+        byName.put(entitlements.name(), entitlements);
+        snapshot = new Snapshot(Map.copyOf(byId), byName);
+    }
+
+    private synchronized void remove(Long id) {
+        Map<Long, PlanEntitlements> byId = new HashMap<>(snapshot.byId());
+        byId.remove(id);
+        Map<Plan.PlanName, PlanEntitlements> byName = new EnumMap<>(Plan.PlanName.class);
+        byName.putAll(snapshot.byName());
+        byName.values().removeIf(entitlements -> entitlements.planId().equals(id));
+        snapshot = new Snapshot(Map.copyOf(byId), byName);
+    }
+
+    private static void runAfterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
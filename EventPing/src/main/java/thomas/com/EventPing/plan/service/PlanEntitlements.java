@@ -0,0 +1,94 @@
+package thomas.com.EventPing.plan.service;
+
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.reminder.model.Reminder;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What a plan allows, compiled once from its row: reminder channels as an enum set, the
+ * numeric limits (null means unlimited) and the feature flags. Instances are immutable and
+ * shared, so entitlement checks neither parse the channel list nor touch the database.
+ */
+public record PlanEntitlements(
+        Long planId,
+        Plan.PlanName name,
+        Set<Reminder.ReminderChannel> reminderChannels,
+        Integer maxEventsPerDay,
+        Integer maxParticipantsPerEvent,
+        Integer monthlyCreditLimit,
+        int maxTeamMembers,
+        boolean customIntervalsEnabled,
+        boolean analyticsEnabled,
+        boolean customBrandingEnabled,
+        boolean customTemplatesEnabled,
+        boolean advancedRsvpEnabled,
+        boolean apiAccessEnabled) {
+
+    private static final Map<String, Reminder.ReminderChannel> CHANNELS_BY_NAME = new HashMap<>();
+
+    static {
+        for (Reminder.ReminderChannel channel : Reminder.ReminderChannel.values()) {
+            CHANNELS_BY_NAME.put(channel.name(), channel);
+        }
+    }
+
+    public static PlanEntitlements from(Plan plan) {
+        return new PlanEntitlements(
+                plan.getId(),
+                plan.getName(),
+                Collections.unmodifiableSet(parseChannels(plan.getReminderChannels())),
+                plan.getMaxEventsPerDay(),
+                plan.getMaxParticipantsPerEvent(),
+                plan.getMonthlyCreditLimit(),
+                plan.getMaxTeamMembers() != null ? plan.getMaxTeamMembers() : 0,
+                plan.isCustomIntervalsEnabled(),
+                plan.isAnalyticsEnabled(),
+                plan.isCustomBrandingEnabled(),
+                plan.isCustomTemplatesEnabled(),
+                plan.isAdvancedRsvpEnabled(),
+                plan.isApiAccessEnabled());
+    }
+
+    public boolean allowsChannel(Reminder.ReminderChannel channel) {
+        return reminderChannels.contains(channel);
+    }
+
+    /**
+     * Whether a channel given by name, e.g. an integration type, is allowed. Names that are
+     * not reminder channels are never allowed.
+     */
+    public boolean allowsChannel(String channelName) {
+        Reminder.ReminderChannel channel = CHANNELS_BY_NAME.get(channelName);
+        return channel != null && reminderChannels.contains(channel);
+    }
+
+    /**
+     * A mutable copy of the allowed channels for callers that narrow them further
+     */
+    public EnumSet<Reminder.ReminderChannel> reminderChannelSet() {
+        return reminderChannels.isEmpty()
+                ? EnumSet.noneOf(Reminder.ReminderChannel.class)
+                : EnumSet.copyOf(reminderChannels);
+    }
+
+    private static EnumSet<Reminder.ReminderChannel> parseChannels(String configured) {
+        EnumSet<Reminder.ReminderChannel> channels = EnumSet.noneOf(Reminder.ReminderChannel.class);
+        if (configured == null) {
+            channels.add(Reminder.ReminderChannel.EMAIL);
+            return channels;
+        }
+        for (String channelStr : configured.split(",")) {
+            // Unknown names in the plan config are ignored
+            Reminder.ReminderChannel channel = CHANNELS_BY_NAME.get(channelStr.trim());
+            if (channel != null) {
+                channels.add(channel);
+            }
+        }
+        return channels;
+    }
+}
@@ -0,0 +1,83 @@
+package thomas.com.EventPing.reminder.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Set-based removal of old sent reminders, one bounded batch per statement. Nothing is
+ * loaded into the persistence context, and each statement is atomic on its own, so a batch
+ * is either fully removed (and archived) or left in place.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReminderCleanupRepository {
+
+    private static final String OLD_BATCH_SQL =
+            "SELECT id FROM reminders WHERE sent = true AND sent_at < ? ORDER BY sent_at LIMIT ?";
+
+    private static final String DELETE_BATCH_SQL =
+            "DELETE FROM reminders WHERE id IN (" + OLD_BATCH_SQL + ")";
+
+    // One history row per batch; the JSONB array is compressed by TOAST
+    private static final String ARCHIVE_BATCH_SQL =
+            "WITH moved AS (DELETE FROM reminders WHERE id IN (" + OLD_BATCH_SQL + ") " +
+            "RETURNING id, event_id, participant_id, channel, send_at, sent_at) " +
+            "INSERT INTO reminder_history (first_reminder_id, last_reminder_id, reminder_count, reminders) " +
+            "SELECT MIN(id), MAX(id), COUNT(*), " +
+            "jsonb_agg(jsonb_build_object('id', id, 'eventId', event_id, 'participantId', participant_id, " +
+            "'channel', channel, 'sendAt', send_at, 'sentAt', sent_at) ORDER BY id) " +
+            "FROM moved HAVING COUNT(*) > 0 " +
+            "RETURNING reminder_count";
+
+    // Whole partitions are archived in groups of adjacent ids, one history row per group
+    private static final String ARCHIVE_PARTITION_SQL =
+            "INSERT INTO reminder_history (first_reminder_id, last_reminder_id, reminder_count, reminders) " +
+            "SELECT MIN(id), MAX(id), COUNT(*), " +
+            "jsonb_agg(jsonb_build_object('id', id, 'eventId', event_id, 'participantId', participant_id, " +
+            "'channel', channel, 'sendAt', send_at, 'sentAt', sent_at) ORDER BY id) " +
+            "FROM %s GROUP BY id / ? " +
+            "RETURNING reminder_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Delete up to {@code limit} reminders sent before the cutoff. Returns how many went.
+     */
+    public int deleteBatch(LocalDateTime cutoff, int limit) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        return jdbcTemplate.update(DELETE_BATCH_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(cutoff), utc);
+            ps.setInt(2, limit);
+        });
+    }
+
+    /**
+     * Move up to {@code limit} reminders sent before the cutoff into one history row.
+     * Returns how many were moved.
+     */
+    public int archiveBatch(LocalDateTime cutoff, int limit) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        List<Integer> moved = jdbcTemplate.query(ARCHIVE_BATCH_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(cutoff), utc);
+            ps.setInt(2, limit);
+        }, (rs, rowNum) -> rs.getInt(1));
+        return moved.isEmpty() ? 0 : moved.get(0);
+    }
+
+    /**
+     * Copy every reminder of a detached or about-to-be-dropped partition into history rows
+     * of at most {@code groupSize} ids each. Returns how many reminders were copied.
+     */
+    public long archivePartition(String partition, int groupSize) {
+        List<Integer> counts = jdbcTemplate.query(String.format(ARCHIVE_PARTITION_SQL, partition),
+                ps -> ps.setLong(1, groupSize), (rs, rowNum) -> rs.getInt(1));
+        return counts.stream().mapToLong(Integer::longValue).sum();
+    }
+}
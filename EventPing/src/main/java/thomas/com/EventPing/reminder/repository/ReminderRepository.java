@@ -1,13 +1,18 @@
 package thomas.com.EventPing.reminder.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import thomas.com.EventPing.reminder.model.Reminder;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ReminderRepository extends JpaRepository<Reminder, Long> {
-    List<Reminder> findBySendAtBeforeAndSentFalse(LocalDateTime dateTime);
-    
-    List<Reminder> findBySentTrueAndSentAtBefore(LocalDateTime dateTime);
+    /**
+     * Unsent reminders due in [from, to). The lower bound lets PostgreSQL prune the scan to
+     * the send_at partitions around now instead of every past month.
+     */
+    @Query("SELECT r FROM Reminder r WHERE r.sendAt >= :from AND r.sendAt < :to AND r.sent = false")
+    List<Reminder> findDueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,210 @@
+package thomas.com.EventPing.reminder.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+import thomas.com.EventPing.reminder.model.Reminder;
+import thomas.com.EventPing.reminder.service.ReminderPlan;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to event-level reminder schedules. A schedule is written once per event,
+ * channel and send time however many participants join, and is expanded into per-recipient
+ * sends only when it fires, one keyset page of participants at a time.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReminderScheduleRepository {
+
+    private static final String INSERT_SCHEDULES_SQL =
+            "INSERT INTO reminder_schedules (event_id, send_at, channel) " +
+            "SELECT ?, CAST(? AS timestamp) - o.minutes * interval '1 minute', c.channel " +
+            "FROM unnest(?::bigint[]) AS o(minutes) " +
+            "CROSS JOIN unnest(?::text[]) AS c(channel) " +
+            "ON CONFLICT (event_id, send_at, channel) DO NOTHING";
+
+    // A schedule that has started sending finishes at its old time
+    private static final String DELETE_PENDING_SQL =
+            "DELETE FROM reminder_schedules WHERE event_id = ? AND completed_at IS NULL AND last_participant_id = 0";
+
+    private static final String FIND_DUE_SQL =
+            "SELECT id, event_id, send_at, channel, last_participant_id FROM reminder_schedules " +
+            "WHERE completed_at IS NULL AND send_at <= ? ORDER BY send_at, id LIMIT ?";
+
+    // WhatsApp reminders only go to participants with a phone number
+    private static final String FIND_RECIPIENTS_SQL =
+            "SELECT id, email, phone_number FROM participants " +
+            "WHERE event_id = ? AND id > ? AND unsubscribed = false " +
+            "AND (? = false OR (phone_number IS NOT NULL AND phone_number <> '')) " +
+            "ORDER BY id LIMIT ?";
+
+    private static final String ADVANCE_SQL =
+            "UPDATE reminder_schedules SET last_participant_id = ?, completed_at = ? WHERE id = ?";
+
+    private static final String RECORD_FAILURE_SQL =
+            "INSERT INTO reminder_schedule_failures (schedule_id, participant_id, last_error, next_attempt_at) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (schedule_id, participant_id) DO UPDATE SET " +
+            "attempts = reminder_schedule_failures.attempts + 1, " +
+            "last_error = EXCLUDED.last_error, next_attempt_at = EXCLUDED.next_attempt_at";
+
+    // Participants who unsubscribed since the failed send are not retried
+    private static final String FIND_RETRIES_SQL =
+            "SELECT s.id, s.event_id, s.send_at, s.channel, s.last_participant_id, " +
+            "p.id AS participant_id, p.email, p.phone_number " +
+            "FROM reminder_schedule_failures f " +
+            "JOIN reminder_schedules s ON s.id = f.schedule_id " +
+            "JOIN participants p ON p.id = f.participant_id " +
+            "WHERE f.next_attempt_at <= ? AND f.attempts < ? AND p.unsubscribed = false " +
+            "ORDER BY f.schedule_id, f.participant_id LIMIT ?";
+
+    private static final String DELETE_FAILURES_SQL =
+            "DELETE FROM reminder_schedule_failures WHERE schedule_id = ? AND participant_id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Schedule(Long id, Long eventId, LocalDateTime sendAt,
+                           Reminder.ReminderChannel channel, long lastParticipantId) {
+    }
+
+    public record Recipient(Long participantId, String email, String phoneNumber) {
+    }
+
+    public record Retry(Schedule schedule, Recipient recipient) {
+    }
+
+    /**
+     * Record the plan's channels and offsets for its event in one statement. Schedules the
+     * event already has are left alone, so repeated joins do not write anything.
+     */
+    public int insertSchedules(ReminderPlan plan) {
+        if (plan.isEmpty()) {
+            return 0;
+        }
+        Object[] offsets = plan.offsetMinutes().toArray();
+        Object[] channels = plan.channels().stream().map(Enum::name).toArray();
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        return jdbcTemplate.update(INSERT_SCHEDULES_SQL, ps -> {
+            ps.setLong(1, plan.eventId());
+            ps.setTimestamp(2, Timestamp.valueOf(plan.eventDateTime()), utc);
+            ps.setArray(3, ps.getConnection().createArrayOf("bigint", offsets));
+            ps.setArray(4, ps.getConnection().createArrayOf("text", channels));
+        });
+    }
+
+    /**
+     * Replace the event's schedules that have not started sending with the plan's, after
+     * the organizer changed the event's time or reminder offsets
+     */
+    public int replacePending(ReminderPlan plan) {
+        jdbcTemplate.update(DELETE_PENDING_SQL, plan.eventId());
+        return insertSchedules(plan);
+    }
+
+    /**
+     * Schedules due at the given time that have not been fully expanded yet, oldest first
+     */
+    public List<Schedule> findDue(LocalDateTime now, int limit) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        return jdbcTemplate.query(FIND_DUE_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(now), utc);
+            ps.setInt(2, limit);
+        }, (rs, rowNum) -> new Schedule(
+                rs.getLong("id"),
+                rs.getLong("event_id"),
+                rs.getTimestamp("send_at", utc).toLocalDateTime(),
+                Reminder.ReminderChannel.valueOf(rs.getString("channel")),
+                rs.getLong("last_participant_id")));
+    }
+
+    /**
+     * The next page of subscribed participants after the schedule's cursor, in id order
+     */
+    public List<Recipient> findRecipients(Schedule schedule, long afterParticipantId, int limit) {
+        boolean needsPhone = schedule.channel() == Reminder.ReminderChannel.WHATSAPP;
+        return jdbcTemplate.query(FIND_RECIPIENTS_SQL, ps -> {
+            ps.setLong(1, schedule.eventId());
+            ps.setLong(2, afterParticipantId);
+            ps.setBoolean(3, needsPhone);
+            ps.setInt(4, limit);
+        }, (rs, rowNum) -> new Recipient(rs.getLong("id"), rs.getString("email"), rs.getString("phone_number")));
+    }
+
+    /**
+     * Move the schedule's cursor past the participants just sent to, and mark it completed
+     * once the last page has gone out
+     */
+    public void advance(Long scheduleId, long lastParticipantId, LocalDateTime completedAt) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        jdbcTemplate.update(ADVANCE_SQL, ps -> {
+            ps.setLong(1, lastParticipantId);
+            ps.setTimestamp(2, completedAt != null ? Timestamp.valueOf(completedAt) : null, utc);
+            ps.setLong(3, scheduleId);
+        });
+    }
+
+    /**
+     * Record recipients of the schedule whose send failed, keyed by participant id with the
+     * error, to be retried from the given time. Recipients already recorded count one more
+     * attempt.
+     */
+    public void recordFailures(Long scheduleId, Map<Long, String> errorsByParticipant, LocalDateTime retryAt) {
+        if (errorsByParticipant.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, String>> failures = List.copyOf(errorsByParticipant.entrySet());
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        Timestamp retryTimestamp = Timestamp.valueOf(retryAt);
+        jdbcTemplate.batchUpdate(RECORD_FAILURE_SQL, failures, failures.size(), (ps, failure) -> {
+            ps.setLong(1, scheduleId);
+            ps.setLong(2, failure.getKey());
+            ps.setString(3, truncate(failure.getValue()));
+            ps.setTimestamp(4, retryTimestamp, utc);
+        });
+    }
+
+    /**
+     * Failed sends due for another attempt, with the recipient's current details, grouped
+     * by schedule
+     */
+    public List<Retry> findRetries(LocalDateTime now, int maxAttempts, int limit) {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        return jdbcTemplate.query(FIND_RETRIES_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(now), utc);
+            ps.setInt(2, maxAttempts);
+            ps.setInt(3, limit);
+        }, (rs, rowNum) -> new Retry(
+                new Schedule(
+                        rs.getLong("id"),
+                        rs.getLong("event_id"),
+                        rs.getTimestamp("send_at", utc).toLocalDateTime(),
+                        Reminder.ReminderChannel.valueOf(rs.getString("channel")),
+                        rs.getLong("last_participant_id")),
+                new Recipient(rs.getLong("participant_id"), rs.getString("email"), rs.getString("phone_number"))));
+    }
+
+    /**
+     * Forget failures that were retried successfully or no longer need sending
+     */
+    public void deleteFailures(Long scheduleId, Collection<Long> participantIds) {
+        if (participantIds.isEmpty()) {
+            return;
+        }
+        Object[] ids = participantIds.toArray();
+        jdbcTemplate.update(DELETE_FAILURES_SQL, ps -> {
+            ps.setLong(1, scheduleId);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids));
+        });
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
@@ -0,0 +1,80 @@
+package thomas.com.EventPing.reminder.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.reminder.repository.ReminderCleanupRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Removes old sent reminders. On a partitioned reminders table whole expired months are
+ * dropped; otherwise rows are deleted in bounded batches, pausing between batches so the
+ * write volume of a large cleanup is spread out instead of arriving at replicas all at
+ * once. Either way reminders are optionally archived to reminder_history first.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderCleanupJob {
+
+    private static final String REMOVED_METRIC = "eventping.reminders.cleanup.removed";
+    private static final String PARTITIONS_DROPPED_METRIC = "eventping.reminders.cleanup.partitions.dropped";
+
+    private final ReminderCleanupRepository reminderCleanupRepository;
+    private final ReminderPartitionManager reminderPartitionManager;
+    private final ReminderProperties reminderProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Remove reminders past the retention window. Returns how many were deleted row by row;
+     * dropped partitions are counted separately.
+     */
+    public long run() {
+        ReminderProperties.Cleanup cleanup = reminderProperties.getCleanup();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(cleanup.getRetentionDays());
+        int batchSize = Math.max(1, cleanup.getBatchSize());
+
+        if (reminderPartitionManager.isPartitioned()) {
+            int dropped = reminderPartitionManager.dropExpiredPartitions(cutoff, cleanup.isArchive(), batchSize);
+            meterRegistry.counter(PARTITIONS_DROPPED_METRIC).increment(dropped);
+            log.info("Reminder cleanup dropped {} partitions ending before {}", dropped, cutoff);
+            return 0;
+        }
+
+        String mode = cleanup.isArchive() ? "archive" : "delete";
+
+        long removed = 0;
+        while (true) {
+            int batch = cleanup.isArchive()
+                    ? reminderCleanupRepository.archiveBatch(cutoff, batchSize)
+                    : reminderCleanupRepository.deleteBatch(cutoff, batchSize);
+            removed += batch;
+            meterRegistry.counter(REMOVED_METRIC, "mode", mode).increment(batch);
+            if (batch < batchSize) {
+                break;
+            }
+            if (!pause(cleanup.getPauseMs())) {
+                log.info("Reminder cleanup interrupted after {} reminders", removed);
+                break;
+            }
+        }
+        log.info("Reminder cleanup removed {} reminders sent before {} ({})", removed, cutoff, mode);
+        return removed;
+    }
+
+    private static boolean pause(long pauseMs) {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package thomas.com.EventPing.reminder.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.common.service.CreditLedger;
+import thomas.com.EventPing.common.service.MailTransport;
+import thomas.com.EventPing.config.CreditProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.integration.service.impl.WhatsAppBotNotificationService;
+import thomas.com.EventPing.reminder.model.Reminder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends one participant reminder over one channel. Shared by the per-participant reminder
+ * rows and the event-level schedules expanded at fire time. Each reminder sent costs the
+ * event creator one credit, checked and debited in memory through the {@link CreditLedger}.
+ * Message content comes from the {@link ReminderMessageRenderer}, rendered once per event;
+ * email goes out through the {@link MailTransport}, in batches where the caller has many.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReminderDelivery {
+
+    private final MailTransport mailTransport;
+    private final WhatsAppBotNotificationService whatsAppBotService;
+    private final CreditLedger creditLedger;
+    private final CreditProperties creditProperties;
+    private final ReminderMessageRenderer messageRenderer;
+
+    /**
+     * Whether reminders on the channel are sent to participants at all
+     */
+    public static boolean delivers(Reminder.ReminderChannel channel) {
+        return channel == Reminder.ReminderChannel.EMAIL || channel == Reminder.ReminderChannel.WHATSAPP;
+    }
+
+    /**
+     * Whether the event's creator has credits left, or credits are not enforced
+     */
+    public boolean canSend(Event event) {
+        // Reading the id does not initialize a lazy creator
+        return !creditProperties.isEnforce() || creditLedger.hasCredits(event.getCreator().getId());
+    }
+
+    /**
+     * Returns whether the reminder went out; channels without participant delivery, and
+     * creators out of credits, return false
+     */
+    public boolean send(Event event, Reminder.ReminderChannel channel, String email, String phoneNumber) {
+        if (!canSend(event)) {
+            log.debug("Creator of event {} is out of credits, {} reminder skipped", event.getId(), channel);
+            return false;
+        }
+        Long creatorId = event.getCreator().getId();
+
+        boolean sent = switch (channel) {
+            case EMAIL -> {
+                sendEmail(messageRenderer.prepare(event), email);
+                yield true;
+            }
+            case WHATSAPP -> whatsAppBotService.sendReminder(messageRenderer.prepare(event).whatsAppFor(phoneNumber));
+            default -> {
+                log.debug("No participant delivery for channel {}", channel);
+                yield false;
+            }
+        };
+        if (sent) {
+            creditLedger.debit(creatorId, 1);
+        }
+        return sent;
+    }
+
+    /**
+     * Send one event's email reminder to many recipients over pooled SMTP connections.
+     * Bit i of the result is set when emails.get(i) was sent. Credits are checked once per
+     * call, so a creator may go over the limit by at most one call's recipients.
+     */
+    public BitSet sendEmails(Event event, List<String> emails) {
+        BitSet sent = new BitSet(emails.size());
+        if (emails.isEmpty()) {
+            return sent;
+        }
+        if (!canSend(event)) {
+            log.debug("Creator of event {} is out of credits, {} email reminders skipped",
+                    event.getId(), emails.size());
+            return sent;
+        }
+        Long creatorId = event.getCreator().getId();
+
+        ReminderMessageRenderer.PreparedReminder reminder = messageRenderer.prepare(event);
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        int[] positions = new int[emails.size()];
+        for (int i = 0; i < emails.size(); i++) {
+            try {
+                messages.add(createEmail(reminder, emails.get(i)));
+                positions[messages.size() - 1] = i;
+            } catch (MessagingException e) {
+                log.warn("Email reminder for event {} not built: {}", event.getId(), e.getMessage());
+            }
+        }
+
+        Map<MimeMessage, Exception> failures = mailTransport.send(messages);
+        for (int m = 0; m < messages.size(); m++) {
+            if (!failures.containsKey(messages.get(m))) {
+                sent.set(positions[m]);
+            }
+        }
+        if (!sent.isEmpty()) {
+            creditLedger.debit(creatorId, sent.cardinality());
+        }
+        return sent;
+    }
+
+    private void sendEmail(ReminderMessageRenderer.PreparedReminder reminder, String email) {
+        try {
+            MimeMessage message = createEmail(reminder, email);
+            Map<MimeMessage, Exception> failures = mailTransport.send(List.of(message));
+            if (!failures.isEmpty()) {
+                throw new MailSendException("Email reminder not sent", failures.get(message));
+            }
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Email reminder not built", e);
+        } catch (Exception e) {
+            log.error("Failed to send email: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    private MimeMessage createEmail(ReminderMessageRenderer.PreparedReminder reminder, String email)
+            throws MessagingException {
+        MimeMessage message = mailTransport.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setTo(email);
+        helper.setSubject(reminder.subjectFor(email));
+        helper.setText(reminder.bodyFor(email));
+        return message;
+    }
+}
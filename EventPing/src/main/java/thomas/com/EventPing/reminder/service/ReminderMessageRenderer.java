@@ -0,0 +1,119 @@
+package thomas.com.EventPing.reminder.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.integration.service.impl.WhatsAppBotNotificationService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders reminder messages from templates compiled once at startup. The parts that depend
+ * only on the event are rendered once per event and time and shared by all its recipients;
+ * date formatters are built once per locale and time zone.
+ */
+@Component
+public class ReminderMessageRenderer {
+
+    private static final String NO_DESCRIPTION = "No description";
+
+    private final ReminderTemplate subjectTemplate;
+    private final ReminderTemplate bodyTemplate;
+    private final String dateTimePattern;
+    private final Locale defaultLocale;
+    private final ZoneId defaultZone;
+    private final Map<FormatterKey, DateTimeFormatter> formatters = new ConcurrentHashMap<>();
+    private final Cache<PreparedKey, PreparedReminder> prepared;
+
+    private record FormatterKey(Locale locale, ZoneId zone) {
+    }
+
+    // Title and description are part of the key, so an edited event is rendered afresh
+    private record PreparedKey(Long eventId, LocalDateTime eventDateTime, String title, String description) {
+    }
+
+    /**
+     * An event's reminder with everything but the recipient already rendered
+     */
+    public record PreparedReminder(ReminderTemplate subject, ReminderTemplate body,
+                                   WhatsAppBotNotificationService.ReminderPayload whatsApp) {
+
+        public String subjectFor(String recipient) {
+            return subject.render(recipient);
+        }
+
+        public String bodyFor(String recipient) {
+            return body.render(recipient);
+        }
+
+        public WhatsAppBotNotificationService.ReminderPayload whatsAppFor(String phoneNumber) {
+            return whatsApp.to(phoneNumber);
+        }
+    }
+
+    public ReminderMessageRenderer(ReminderProperties reminderProperties, MeterRegistry meterRegistry) {
+        ReminderProperties.Template template = reminderProperties.getTemplate();
+        this.subjectTemplate = ReminderTemplate.compile(template.getEmailSubject());
+        this.bodyTemplate = ReminderTemplate.compile(template.getEmailBody());
+        this.dateTimePattern = template.getDateTimePattern();
+        this.defaultLocale = hasText(template.getLocale())
+                ? Locale.forLanguageTag(template.getLocale()) : Locale.getDefault();
+        this.defaultZone = hasText(template.getTimeZone())
+                ? ZoneId.of(template.getTimeZone()) : ZoneId.systemDefault();
+        // Fail at startup on a pattern the formatter cannot parse
+        formatter(defaultLocale, defaultZone);
+        this.prepared = Caffeine.newBuilder()
+                .maximumSize(template.getPreparedCacheSize())
+                .expireAfterWrite(Duration.ofSeconds(template.getPreparedTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, prepared, "preparedReminders");
+    }
+
+    /**
+     * The event's reminder, rendered on the first call for this event and time
+     */
+    public PreparedReminder prepare(Event event) {
+        if (event.getId() == null) {
+            return render(event);
+        }
+        PreparedKey key = new PreparedKey(event.getId(), event.getEventDateTime(),
+                event.getTitle(), event.getDescription());
+        return prepared.get(key, k -> render(event));
+    }
+
+    /**
+     * Formatter for the configured pattern in the given locale, showing times in the zone
+     */
+    public DateTimeFormatter formatter(Locale locale, ZoneId zone) {
+        return formatters.computeIfAbsent(new FormatterKey(locale, zone),
+                key -> DateTimeFormatter.ofPattern(dateTimePattern, key.locale()).withZone(key.zone()));
+    }
+
+    private PreparedReminder render(Event event) {
+        Map<ReminderTemplate.Field, String> values = new EnumMap<>(ReminderTemplate.Field.class);
+        values.put(ReminderTemplate.Field.TITLE, event.getTitle());
+        // Event times are stored in the server's zone; the formatter converts them
+        values.put(ReminderTemplate.Field.DATE_TIME, formatter(defaultLocale, defaultZone)
+                .format(event.getEventDateTime().atZone(ZoneId.systemDefault())));
+        values.put(ReminderTemplate.Field.DESCRIPTION,
+                event.getDescription() != null ? event.getDescription() : NO_DESCRIPTION);
+        return new PreparedReminder(subjectTemplate.bind(values), bodyTemplate.bind(values),
+                WhatsAppBotNotificationService.ReminderPayload.forEvent(event));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
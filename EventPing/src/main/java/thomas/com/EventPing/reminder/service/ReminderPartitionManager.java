@@ -0,0 +1,120 @@
+package thomas.com.EventPing.reminder.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.common.repository.PartitionRepository;
+import thomas.com.EventPing.common.repository.PartitionRepository.PartitionRange;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.reminder.repository.ReminderCleanupRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains the monthly send_at partitions of the reminders table: pre-creates upcoming
+ * months, moving in any reminders that landed in the default partition first, and drops
+ * partitions whose whole month is past retention, optionally archiving them on the way out.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderPartitionManager {
+
+    private static final String PARENT_TABLE = "reminders";
+    private static final String DEFAULT_PARTITION = "reminders_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionRepository partitionRepository;
+    private final ReminderCleanupRepository reminderCleanupRepository;
+    private final ReminderProperties reminderProperties;
+
+    private volatile Boolean partitioned;
+
+    /**
+     * Whether reminders is a partitioned table (false on non-PostgreSQL databases)
+     */
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = partitionRepository.isPartitioned(PARENT_TABLE);
+            partitioned = result;
+        }
+        return result;
+    }
+
+    /**
+     * Create partitions for the current month and the configured number of months ahead
+     */
+    public int ensureFuturePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+
+        List<PartitionRange> existing = partitionRepository.listPartitions(PARENT_TABLE);
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1);
+        int created = 0;
+
+        for (LocalDate month : PartitionRepository.monthsToCover(firstMonth,
+                reminderProperties.getPartitioning().getPremakeMonths())) {
+            LocalDateTime from = month.atStartOfDay();
+            LocalDateTime to = month.plusMonths(1).atStartOfDay();
+            if (existing.stream().anyMatch(range -> range.overlaps(from, to))) {
+                continue;
+            }
+
+            String name = PARENT_TABLE + "_p" + month.format(PARTITION_SUFFIX);
+            transactionTemplate.executeWithoutResult(status -> createPartition(name, from, to));
+            created++;
+            log.info("Created reminder partition {} for [{}, {})", name, from, to);
+        }
+        return created;
+    }
+
+    /**
+     * Detach and drop every partition whose upper bound is at or before the cutoff, one
+     * transaction per partition. Reminders in the partition that straddles the cutoff are
+     * kept until the whole month expires.
+     */
+    public int dropExpiredPartitions(LocalDateTime cutoff, boolean archive, int archiveGroupSize) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+
+        int dropped = 0;
+        for (PartitionRange range : partitionRepository.listPartitions(PARENT_TABLE)) {
+            if (!range.endsBy(cutoff)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (archive) {
+                    long archived = reminderCleanupRepository.archivePartition(range.name(), archiveGroupSize);
+                    log.info("Archived {} reminders of partition {}", archived, range.name());
+                }
+                jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + range.name());
+                jdbcTemplate.execute("DROP TABLE " + range.name());
+            });
+            dropped++;
+            log.info("Dropped reminder partition {} (upper bound {})", range.name(), range.upperBound());
+        }
+        return dropped;
+    }
+
+    /**
+     * Reminders scheduled beyond the pre-made months sit in the default partition; they
+     * are moved into the new month as it is attached
+     */
+    private void createPartition(String name, LocalDateTime from, LocalDateTime to) {
+        int moved = partitionRepository.createPartitionFromDefault(PARENT_TABLE, DEFAULT_PARTITION, "send_at",
+                name, from, to);
+        if (moved > 0) {
+            log.info("Moved {} reminders from {} into {}", moved, DEFAULT_PARTITION, name);
+        }
+    }
+}
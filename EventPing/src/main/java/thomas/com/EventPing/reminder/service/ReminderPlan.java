@@ -0,0 +1,34 @@
+package thomas.com.EventPing.reminder.service;
+
+import thomas.com.EventPing.reminder.model.Reminder;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The reminders every participant of an event gets, resolved once per join or import:
+ * one reminder per allowed channel and offset before the event starts.
+ */
+public record ReminderPlan(Long eventId, LocalDateTime eventDateTime,
+                           Set<Reminder.ReminderChannel> channels, List<Long> offsetMinutes) {
+
+    public ReminderPlan {
+        channels = channels.isEmpty() ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(channels));
+        offsetMinutes = List.copyOf(offsetMinutes);
+    }
+
+    public boolean isEmpty() {
+        return channels.isEmpty() || offsetMinutes.isEmpty();
+    }
+
+    /**
+     * The same event with nothing to materialize per participant, for when its reminders
+     * are kept as event-level schedules instead
+     */
+    public ReminderPlan withoutReminders() {
+        return new ReminderPlan(eventId, eventDateTime, Set.of(), List.of());
+    }
+}
@@ -0,0 +1,86 @@
+package thomas.com.EventPing.reminder.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+import thomas.com.EventPing.plan.service.PlanEntitlements;
+import thomas.com.EventPing.reminder.model.Reminder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Works out which reminders an event's participants get from the event creator's plan:
+ * the allowed channels and, if the plan permits, the requested offsets. Offsets are
+ * deduplicated, limited to the configured range and capped in number.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReminderPlanner {
+
+    private static final List<Long> DEFAULT_OFFSETS = List.of(60L, 1440L);
+
+    private final PlanEntitlementCache planEntitlementCache;
+    private final ReminderProperties reminderProperties;
+
+    /**
+     * The reminders one participant asked for, for per-participant storage where they reach
+     * only that participant
+     */
+    public ReminderPlan plan(Event event, List<Long> reminderOffsetMinutes) {
+        // Get creator's plan for feature validation
+        PlanEntitlements entitlements = planEntitlementCache.forUser(event.getCreator());
+
+        // Validate reminder intervals - only allowed if plan supports custom intervals
+        List<Long> finalOffsets = reminderOffsetMinutes;
+        if (finalOffsets != null && !finalOffsets.isEmpty() && !entitlements.customIntervalsEnabled()) {
+            // Force default offsets for FREE users if they try to customize
+            finalOffsets = DEFAULT_OFFSETS;
+        }
+        if (finalOffsets == null) {
+            finalOffsets = List.of();
+        }
+
+        return new ReminderPlan(event.getId(), event.getEventDateTime(),
+                allowedChannels(event, entitlements), bounded(finalOffsets));
+    }
+
+    /**
+     * The reminders the organizer configured on the event. Event-level schedules go to every
+     * participant, so they are built only from this plan, never from offsets a joiner sends.
+     */
+    public ReminderPlan eventPlan(Event event) {
+        PlanEntitlements entitlements = planEntitlementCache.forUser(event.getCreator());
+        List<Long> offsets = new ArrayList<>();
+        for (LocalDateTime reminderTime : event.getReminderTimes()) {
+            offsets.add(Duration.between(reminderTime, event.getEventDateTime()).toMinutes());
+        }
+        return new ReminderPlan(event.getId(), event.getEventDateTime(),
+                allowedChannels(event, entitlements), bounded(offsets));
+    }
+
+    // Offsets outside 1..maxOffsetMinutes are dropped, the rest deduplicated and capped
+    private List<Long> bounded(List<Long> offsets) {
+        return offsets.stream()
+                .filter(offset -> offset != null && offset > 0 && offset <= reminderProperties.getMaxOffsetMinutes())
+                .distinct()
+                .sorted()
+                .limit(Math.max(0, reminderProperties.getMaxOffsets()))
+                .toList();
+    }
+
+    private static EnumSet<Reminder.ReminderChannel> allowedChannels(Event event, PlanEntitlements entitlements) {
+        EnumSet<Reminder.ReminderChannel> channels = entitlements.reminderChannelSet();
+
+        // Skip WhatsApp reminders if the creator disabled them
+        if (!Boolean.TRUE.equals(event.getCreator().getEnableWhatsApp())) {
+            channels.remove(Reminder.ReminderChannel.WHATSAPP);
+        }
+        return channels;
+    }
+}
@@ -0,0 +1,227 @@
+package thomas.com.EventPing.reminder.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.reminder.model.Reminder;
+import thomas.com.EventPing.reminder.repository.ReminderScheduleRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Fires due event-level reminder schedules. Each schedule is expanded into per-recipient
+ * sends by streaming the event's subscribed participants in keyset pages; every page is
+ * sent and its cursor committed in its own transaction, so memory stays bounded by the
+ * page size and an interrupted run resumes after the last committed page. Recipients a
+ * page fails to reach are recorded with the page and retried on later runs.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderScheduleDispatcher {
+
+    private static final String SENT_METRIC = "eventping.reminders.schedule.sent";
+
+    private final ReminderScheduleRepository reminderScheduleRepository;
+    private final EventRepository eventRepository;
+    private final ReminderDelivery reminderDelivery;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderProperties reminderProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Expand every schedule due now, then retry recipients earlier runs failed to reach.
+     * Returns the number of reminders sent.
+     */
+    public long dispatchDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReminderScheduleRepository.Schedule> due =
+                reminderScheduleRepository.findDue(now, reminderProperties.getDispatchMaxSchedules());
+        long sent = 0;
+        if (!due.isEmpty()) {
+            log.info("Found {} due reminder schedules to expand", due.size());
+            for (ReminderScheduleRepository.Schedule schedule : due) {
+                sent += expand(schedule);
+            }
+        }
+        return sent + retryFailed();
+    }
+
+    private long expand(ReminderScheduleRepository.Schedule schedule) {
+        Optional<Event> event = eventRepository.findById(schedule.eventId());
+        if (event.isEmpty() || event.get().getStatus() != Event.EventStatus.ACTIVE) {
+            reminderScheduleRepository.advance(schedule.id(), schedule.lastParticipantId(), LocalDateTime.now());
+            return 0;
+        }
+
+        int pageSize = Math.max(1, reminderProperties.getDispatchPageSize());
+        long cursor = schedule.lastParticipantId();
+        long sent = 0;
+        while (true) {
+            long after = cursor;
+            PageResult page = transactionTemplate.execute(status ->
+                    sendPage(event.get(), schedule, after, pageSize));
+            sent += page.sent();
+            cursor = page.lastParticipantId();
+            if (page.completed()) {
+                break;
+            }
+        }
+        meterRegistry.counter(SENT_METRIC, "channel", schedule.channel().name()).increment(sent);
+        log.debug("Expanded {} reminder schedule {} for event {} into {} sends",
+                schedule.channel(), schedule.id(), schedule.eventId(), sent);
+        return sent;
+    }
+
+    /**
+     * Send one page and move the cursor past it. Recipients that failed are recorded in the
+     * same transaction, so they are retried rather than lost with the page.
+     */
+    private PageResult sendPage(Event event, ReminderScheduleRepository.Schedule schedule,
+                                long afterParticipantId, int pageSize) {
+        List<ReminderScheduleRepository.Recipient> recipients =
+                reminderScheduleRepository.findRecipients(schedule, afterParticipantId, pageSize);
+        Delivery delivery = deliver(event, schedule, recipients);
+        reminderScheduleRepository.recordFailures(schedule.id(), delivery.failed(), retryAt());
+
+        long last = recipients.isEmpty() ? afterParticipantId
+                : recipients.get(recipients.size() - 1).participantId();
+        boolean completed = recipients.size() < pageSize;
+        reminderScheduleRepository.advance(schedule.id(), last, completed ? LocalDateTime.now() : null);
+        return new PageResult(delivery.sent(), last, completed);
+    }
+
+    /**
+     * Resend to recipients whose retry is due, one transaction per schedule. Recipients
+     * sent to are forgotten; the rest count another attempt until they run out.
+     */
+    private long retryFailed() {
+        List<ReminderScheduleRepository.Retry> retries = reminderScheduleRepository.findRetries(LocalDateTime.now(),
+                reminderProperties.getDispatchRetryMaxAttempts(), Math.max(1, reminderProperties.getDispatchPageSize()));
+        if (retries.isEmpty()) {
+            return 0;
+        }
+        log.info("Retrying {} failed scheduled reminder sends", retries.size());
+
+        Map<ReminderScheduleRepository.Schedule, List<ReminderScheduleRepository.Recipient>> bySchedule =
+                new LinkedHashMap<>();
+        for (ReminderScheduleRepository.Retry retry : retries) {
+            bySchedule.computeIfAbsent(retry.schedule(), s -> new ArrayList<>()).add(retry.recipient());
+        }
+        long sent = 0;
+        for (Map.Entry<ReminderScheduleRepository.Schedule, List<ReminderScheduleRepository.Recipient>> entry
+                : bySchedule.entrySet()) {
+            Integer retried = transactionTemplate.execute(status -> retry(entry.getKey(), entry.getValue()));
+            sent += retried;
+            meterRegistry.counter(SENT_METRIC, "channel", entry.getKey().channel().name()).increment(retried);
+        }
+        return sent;
+    }
+
+    private int retry(ReminderScheduleRepository.Schedule schedule,
+                      List<ReminderScheduleRepository.Recipient> recipients) {
+        List<Long> participantIds = new ArrayList<>(recipients.size());
+        for (ReminderScheduleRepository.Recipient recipient : recipients) {
+            participantIds.add(recipient.participantId());
+        }
+        Optional<Event> event = eventRepository.findById(schedule.eventId());
+        if (event.isEmpty() || event.get().getStatus() != Event.EventStatus.ACTIVE) {
+            // The event is over; a first attempt now would not send either
+            reminderScheduleRepository.deleteFailures(schedule.id(), participantIds);
+            return 0;
+        }
+
+        Delivery delivery = deliver(event.get(), schedule, recipients);
+        participantIds.removeAll(delivery.failed().keySet());
+        reminderScheduleRepository.deleteFailures(schedule.id(), participantIds);
+        reminderScheduleRepository.recordFailures(schedule.id(), delivery.failed(), retryAt());
+        return delivery.sent();
+    }
+
+    /**
+     * Send the schedule's reminder to the recipients. Nothing is sent, and nothing counts as
+     * failed, on channels without participant delivery or when the creator is out of credits.
+     */
+    private Delivery deliver(Event event, ReminderScheduleRepository.Schedule schedule,
+                             List<ReminderScheduleRepository.Recipient> recipients) {
+        if (recipients.isEmpty() || !ReminderDelivery.delivers(schedule.channel())
+                || !reminderDelivery.canSend(event)) {
+            return new Delivery(0, Map.of());
+        }
+        return schedule.channel() == Reminder.ReminderChannel.EMAIL
+                ? sendEmails(event, schedule, recipients)
+                : sendEach(event, schedule, recipients);
+    }
+
+    private Delivery sendEach(Event event, ReminderScheduleRepository.Schedule schedule,
+                              List<ReminderScheduleRepository.Recipient> recipients) {
+        int sent = 0;
+        Map<Long, String> failed = new LinkedHashMap<>();
+        for (ReminderScheduleRepository.Recipient recipient : recipients) {
+            try {
+                if (reminderDelivery.send(event, schedule.channel(), recipient.email(), recipient.phoneNumber())) {
+                    sent++;
+                } else {
+                    failed.put(recipient.participantId(), "Not delivered");
+                }
+            } catch (Exception e) {
+                // One bad address must not hold back the rest of the event's attendees
+                log.warn("Scheduled {} reminder for participant {} not sent: {}",
+                        schedule.channel(), recipient.participantId(), e.getMessage());
+                failed.put(recipient.participantId(), e.getMessage());
+            }
+        }
+        return new Delivery(sent, failed);
+    }
+
+    /**
+     * The page's emails go out as batches over pooled SMTP connections
+     */
+    private Delivery sendEmails(Event event, ReminderScheduleRepository.Schedule schedule,
+                                List<ReminderScheduleRepository.Recipient> recipients) {
+        List<String> emails = new ArrayList<>(recipients.size());
+        for (ReminderScheduleRepository.Recipient recipient : recipients) {
+            emails.add(recipient.email());
+        }
+        BitSet sent;
+        String error = "Not accepted by the mail server";
+        try {
+            sent = reminderDelivery.sendEmails(event, emails);
+        } catch (Exception e) {
+            sent = new BitSet();
+            error = e.getMessage();
+        }
+
+        Map<Long, String> failed = new LinkedHashMap<>();
+        for (int i = sent.nextClearBit(0); i < recipients.size(); i = sent.nextClearBit(i + 1)) {
+            failed.put(recipients.get(i).participantId(), error);
+        }
+        if (!failed.isEmpty()) {
+            log.warn("{} of {} scheduled email reminders of schedule {} not sent: {}",
+                    failed.size(), emails.size(), schedule.id(), error);
+        }
+        return new Delivery(sent.cardinality(), failed);
+    }
+
+    private LocalDateTime retryAt() {
+        return LocalDateTime.now().plusMinutes(reminderProperties.getDispatchRetryMinutes());
+    }
+
+    private record PageResult(int sent, long lastParticipantId, boolean completed) {
+    }
+
+    // Failed recipients map participant id to the error
+    private record Delivery(int sent, Map<Long, String> failed) {
+    }
+}
@@ -0,0 +1,171 @@
+package thomas.com.EventPing.reminder.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A reminder message template parsed once into segments: literal text and {@code {name}}
+ * placeholders. Binding the event's values yields a smaller template holding only the
+ * recipient placeholder, so the per-recipient render is a few appends into a reused
+ * builder, or no work at all when the message does not mention the recipient.
+ */
+public final class ReminderTemplate {
+
+    private static final int BUFFER_CAPACITY = 1_024;
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1_024;
+
+    // Reused per thread; a buffer grown by an unusually long message is dropped after use
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_CAPACITY));
+
+    public enum Field {
+        TITLE("title"),
+        DATE_TIME("dateTime"),
+        DESCRIPTION("description"),
+        RECIPIENT("recipient");
+
+        private final String placeholder;
+
+        Field(String placeholder) {
+            this.placeholder = placeholder;
+        }
+
+        static Field forPlaceholder(String name) {
+            for (Field field : values()) {
+                if (field.placeholder.equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown reminder template placeholder {" + name + "}");
+        }
+    }
+
+    // A segment is the literal at the same index when its field is null
+    private final String[] literals;
+    private final Field[] fields;
+    private final int length;
+
+    private ReminderTemplate(List<String> literals, List<Field> fields) {
+        this.literals = literals.toArray(String[]::new);
+        this.fields = fields.toArray(Field[]::new);
+        int total = 0;
+        for (String literal : this.literals) {
+            total += literal != null ? literal.length() : 0;
+        }
+        this.length = total;
+    }
+
+    /**
+     * Parse a template such as {@code "Reminder: {title}"}. Unknown placeholders and
+     * unclosed braces are rejected here rather than at send time.
+     */
+    public static ReminderTemplate compile(String source) {
+        Segments segments = new Segments();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf('{', position);
+            if (open < 0) {
+                segments.literal(source.substring(position));
+                break;
+            }
+            int close = source.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in reminder template at " + open);
+            }
+            segments.literal(source.substring(position, open));
+            segments.field(Field.forPlaceholder(source.substring(open + 1, close)));
+            position = close + 1;
+        }
+        return segments.build();
+    }
+
+    /**
+     * Substitute the given fields, merging them into the surrounding literals. Fields
+     * without a value stay as placeholders.
+     */
+    public ReminderTemplate bind(Map<Field, String> values) {
+        Segments segments = new Segments();
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            if (field == null) {
+                segments.literal(literals[i]);
+            } else if (values.containsKey(field)) {
+                segments.literal(values.get(field));
+            } else {
+                segments.field(field);
+            }
+        }
+        return segments.build();
+    }
+
+    /**
+     * Whether no placeholder is left, so every render returns the same string
+     */
+    public boolean isConstant() {
+        for (Field field : fields) {
+            if (field != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String render(String recipient) {
+        if (fields.length == 0) {
+            return "";
+        }
+        if (fields.length == 1 && fields[0] == null) {
+            return literals[0];
+        }
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        try {
+            renderTo(out, recipient);
+            return out.toString();
+        } finally {
+            if (out.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    public void renderTo(StringBuilder out, String recipient) {
+        out.ensureCapacity(out.length() + length + (recipient != null ? recipient.length() : 0));
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            if (field == null) {
+                out.append(literals[i]);
+            } else if (field == Field.RECIPIENT && recipient != null) {
+                out.append(recipient);
+            }
+        }
+    }
+
+    private static final class Segments {
+        private final List<String> literals = new ArrayList<>();
+        private final List<Field> fields = new ArrayList<>();
+
+        void literal(String text) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            int last = fields.size() - 1;
+            if (last >= 0 && fields.get(last) == null) {
+                literals.set(last, literals.get(last) + text);
+                return;
+            }
+            literals.add(text);
+            fields.add(null);
+        }
+
+        void field(Field field) {
+            literals.add(null);
+            fields.add(field);
+        }
+
+        ReminderTemplate build() {
+            return new ReminderTemplate(literals, fields);
+        }
+    }
+}
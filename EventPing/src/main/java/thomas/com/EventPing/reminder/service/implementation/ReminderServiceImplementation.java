@@ -3,12 +3,14 @@ package thomas.com.EventPing.reminder.service.implementation;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import thomas.com.EventPing.config.ReminderProperties;
 import thomas.com.EventPing.reminder.model.Reminder;
 import thomas.com.EventPing.reminder.repository.ReminderRepository;
+import thomas.com.EventPing.reminder.service.ReminderCleanupJob;
+import thomas.com.EventPing.reminder.service.ReminderDelivery;
 import thomas.com.EventPing.reminder.service.ReminderService;
+import thomas.com.EventPing.event.model.Event;
 import thomas.com.EventPing.event.repository.EventRepository; // Added import
 import thomas.com.EventPing.integration.service.impl.WhatsAppBotNotificationService;
 import thomas.com.EventPing.integration.service.impl.GmailNotificationService;
@@ -17,10 +19,14 @@ import thomas.com.EventPing.integration.service.impl.SlackNotificationService;
 import thomas.com.EventPing.User.model.User;
 import thomas.com.EventPing.User.repository.UserRepository;
 import thomas.com.EventPing.common.service.RateLimitService;
+import thomas.com.EventPing.participant.model.Participant;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -28,7 +34,9 @@ import java.util.List;
 @Transactional
 public class ReminderServiceImplementation implements ReminderService {
     private final ReminderRepository reminderRepository;
-    private final JavaMailSender mailSender;
+    private final ReminderDelivery reminderDelivery;
+    private final ReminderCleanupJob reminderCleanupJob;
+    private final ReminderProperties reminderProperties;
     private final RateLimitService rateLimitService;
     private final UserRepository userRepository;
     
@@ -43,29 +51,80 @@ public class ReminderServiceImplementation implements ReminderService {
     @Override
     public void sendDueReminders() {
         // 1. Participant Reminders (Existing Logic)
-        List<Reminder> dueReminders = reminderRepository.findBySendAtBeforeAndSentFalse(LocalDateTime.now());
+        LocalDateTime dueBy = LocalDateTime.now();
+        List<Reminder> dueReminders = reminderRepository.findDueBetween(
+                dueBy.minusHours(reminderProperties.getDispatchLookbackHours()), dueBy);
         
         log.info("Found {} due participant reminders to send", dueReminders.size());
         
+        // Emails are grouped per event and sent in batches over pooled SMTP connections
+        Map<Long, List<Reminder>> emailsByEvent = new LinkedHashMap<>();
         for (Reminder reminder : dueReminders) {
-            // ... existing loop ...
+            Participant participant = reminder.getParticipant();
+            if (Boolean.TRUE.equals(participant.getUnsubscribed())) {
+                markSent(reminder);
+            } else if (reminder.getChannel() == Reminder.ReminderChannel.EMAIL) {
+                emailsByEvent.computeIfAbsent(reminder.getEvent().getId(), id -> new ArrayList<>()).add(reminder);
+            } else {
+                try {
+                    reminderDelivery.send(reminder.getEvent(), reminder.getChannel(),
+                            participant.getEmail(), participant.getPhoneNumber());
+                } catch (Exception e) {
+                    log.warn("Reminder {} not sent, will retry: {}", reminder.getId(), e.getMessage());
+                    continue;
+                }
+                markSent(reminder);
+            }
         }
+        emailsByEvent.values().forEach(this::sendEmailReminders);
         
         // 2. Creator Reminders (New Logic)
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime oneMinuteLater = now.plusMinutes(1);
-        List<thomas.com.EventPing.event.model.Event> eventsWithReminders = eventRepository.findEventsWithRemindersBetween(now, oneMinuteLater);
+        List<Event> eventsWithReminders = eventRepository.findEventsWithRemindersBetween(now, oneMinuteLater);
         
         log.info("Found {} events with due creator reminders", eventsWithReminders.size());
         
-        for (thomas.com.EventPing.event.model.Event event : eventsWithReminders) {
+        for (Event event : eventsWithReminders) {
              sendCreatorReminder(event);
         }
         
         reminderRepository.saveAll(dueReminders);
     }
     
-    private void sendCreatorReminder(thomas.com.EventPing.event.model.Event event) {
+    private void sendEmailReminders(List<Reminder> reminders) {
+        Event event = reminders.get(0).getEvent();
+        if (!reminderDelivery.canSend(event)) {
+            // Creators out of credits have their reminders dropped, not retried
+            reminders.forEach(ReminderServiceImplementation::markSent);
+            return;
+        }
+        List<String> emails = new ArrayList<>(reminders.size());
+        for (Reminder reminder : reminders) {
+            emails.add(reminder.getParticipant().getEmail());
+        }
+        BitSet sent;
+        try {
+            sent = reminderDelivery.sendEmails(event, emails);
+        } catch (Exception e) {
+            log.warn("{} email reminders not sent, will retry: {}", reminders.size(), e.getMessage());
+            return;
+        }
+        for (int i = 0; i < reminders.size(); i++) {
+            if (sent.get(i)) {
+                markSent(reminders.get(i));
+            } else {
+                log.warn("Reminder {} not sent, will retry", reminders.get(i).getId());
+            }
+        }
+    }
+
+    private static void markSent(Reminder reminder) {
+        reminder.setSent(true);
+        reminder.setSentAt(LocalDateTime.now());
+    }
+
+    private void sendCreatorReminder(Event event) {
         User creator = event.getCreator();
         // Check enabled integrations for creator and send
         if (creator.getEnableWhatsApp()) {
@@ -78,42 +137,9 @@ public class ReminderServiceImplementation implements ReminderService {
     }
 
     @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public void cleanupOldReminders() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(30);
-        List<Reminder> oldReminders = reminderRepository.findBySentTrueAndSentAtBefore(cutoffDate);
-        log.info("Cleaning up {} old reminders", oldReminders.size());
-        reminderRepository.deleteAll(oldReminders);
-    }
-
-    private void sendEmail(Reminder reminder) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(reminder.getParticipant().getEmail());
-            message.setSubject("Reminder: " + reminder.getEvent().getTitle());
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' hh:mm a");
-            String eventTime = reminder.getEvent().getEventDateTime().format(formatter);
-            
-            String body = String.format(
-                "Hello,\n\n" +
-                "This is a reminder for the upcoming event:\n\n" +
-                "Event: %s\n" +
-                "Date & Time: %s\n" +
-                "Description: %s\n\n" +
-                "We look forward to seeing you there!\n\n" +
-                "---\n" +
-                "EventPing Reminder Service",
-                reminder.getEvent().getTitle(),
-                eventTime,
-                reminder.getEvent().getDescription() != null ? reminder.getEvent().getDescription() : "No description"
-            );
-            
-            message.setText(body);
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            log.error("Failed to send email: {}", e.getMessage());
-            throw e;
-        }
+        // Each bounded batch commits on its own; one transaction would hold every row lock
+        reminderCleanupJob.run();
     }
 }
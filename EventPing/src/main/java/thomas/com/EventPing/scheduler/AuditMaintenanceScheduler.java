@@ -0,0 +1,40 @@
+package thomas.com.EventPing.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.security.service.AuditLoggingService;
+import thomas.com.EventPing.security.service.AuditPartitionManager;
+import thomas.com.EventPing.security.service.AuditStatisticsRollup;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditMaintenanceScheduler {
+    private final AuditPartitionManager auditPartitionManager;
+    private final AuditLoggingService auditLoggingService;
+    private final AuditStatisticsRollup auditStatisticsRollup;
+
+    /**
+     * Make sure upcoming audit partitions exist before the first insert lands in them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preparePartitionsOnStartup() {
+        auditPartitionManager.ensureFuturePartitions();
+    }
+
+    /**
+     * Pre-create partitions and apply audit and rollup retention daily at 2:30 AM
+     */
+    @Scheduled(cron = "0 30 2 * * *")
+    public void maintainAuditEvents() {
+        log.info("Running audit maintenance cron job");
+        auditPartitionManager.ensureFuturePartitions();
+        auditLoggingService.cleanupOldEvents();
+        int purged = auditStatisticsRollup.purgeExpired();
+        log.info("Purged {} expired audit rollup rows", purged);
+    }
+}
@@ -4,13 +4,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import thomas.com.EventPing.User.repository.UserDailyUsageRepository;
 import thomas.com.EventPing.event.service.EventService;
 
+import java.time.LocalDate;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class EventExpiryScheduler {
     private final EventService eventService;
+    private final UserDailyUsageRepository userDailyUsageRepository;
 
     /**
      * Mark expired events every hour
@@ -20,4 +24,23 @@ public class EventExpiryScheduler {
         log.info("Running event expiry cron job");
         eventService.markExpiredEvents();
     }
+
+    /**
+     * Correct drift in the denormalized participant counters daily at 3:15 AM
+     */
+    @Scheduled(cron = "0 15 3 * * *")
+    public void reconcileParticipantCounts() {
+        log.info("Running participant count reconciliation cron job");
+        int corrected = eventService.reconcileParticipantCounts();
+        log.info("Participant count reconciliation corrected {} events", corrected);
+    }
+
+    /**
+     * Drop daily usage counters of past days at 3:45 AM; only today's row counts against a quota
+     */
+    @Scheduled(cron = "0 45 3 * * *")
+    public void purgeDailyUsage() {
+        int deleted = userDailyUsageRepository.deleteBefore(LocalDate.now().minusDays(1));
+        log.info("Purged {} daily usage counters", deleted);
+    }
 }
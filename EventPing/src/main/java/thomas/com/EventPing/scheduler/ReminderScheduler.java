@@ -2,8 +2,13 @@ package thomas.com.EventPing.scheduler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import thomas.com.EventPing.common.service.UsageResetJob;
+import thomas.com.EventPing.reminder.service.ReminderPartitionManager;
+import thomas.com.EventPing.reminder.service.ReminderScheduleDispatcher;
 import thomas.com.EventPing.reminder.service.ReminderService;
 
 @Slf4j
@@ -11,7 +16,9 @@ import thomas.com.EventPing.reminder.service.ReminderService;
 @RequiredArgsConstructor
 public class ReminderScheduler {
     private final ReminderService reminderService;
-    private final thomas.com.EventPing.User.repository.UserRepository userRepository;
+    private final ReminderScheduleDispatcher reminderScheduleDispatcher;
+    private final UsageResetJob usageResetJob;
+    private final ReminderPartitionManager reminderPartitionManager;
 
     /**
      * Send due reminders every minute
@@ -20,33 +27,35 @@ public class ReminderScheduler {
     public void sendReminders() {
         log.info("Running reminder sender cron job");
         reminderService.sendDueReminders();
+        // Event-level schedules commit page by page, outside the row-based sender's transaction
+        reminderScheduleDispatcher.dispatchDue();
     }
 
     /**
      * Reset user usage credits monthly (checked daily at 1 AM)
      */
     @Scheduled(cron = "0 0 1 * * *")
-    @jakarta.transaction.Transactional
     public void resetUserUsage() {
         log.info("Running user credit usage reset job");
-        java.time.LocalDateTime cutoff = java.time.LocalDateTime.now().minusDays(30);
-        java.util.List<thomas.com.EventPing.User.model.User> usersToReset = userRepository.findByLastUsageResetAtBefore(cutoff);
-        
-        for (thomas.com.EventPing.User.model.User user : usersToReset) {
-            user.setMonthlyCreditsUsed(0);
-            user.setLastUsageResetAt(java.time.LocalDateTime.now());
-        }
-        
-        userRepository.saveAll(usersToReset);
-        log.info("Reset credit usage for {} users", usersToReset.size());
+        long reset = usageResetJob.run();
+        log.info("Reset credit usage for {} users", reset);
     }
 
     /**
-     * Cleanup old reminders daily at midnight
+     * Make sure upcoming reminder partitions exist before the first insert lands in them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preparePartitionsOnStartup() {
+        reminderPartitionManager.ensureFuturePartitions();
+    }
+
+    /**
+     * Pre-create partitions and cleanup old reminders daily at midnight
      */
     @Scheduled(cron = "0 0 0 * * *")
     public void cleanupReminders() {
         log.info("Running reminder cleanup cron job");
+        reminderPartitionManager.ensureFuturePartitions();
         reminderService.cleanupOldReminders();
     }
 }
@@ -0,0 +1,78 @@
+package thomas.com.EventPing.security.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import thomas.com.EventPing.config.AuditProperties;
+import thomas.com.EventPing.security.entity.AuditEvent;
+import thomas.com.EventPing.security.service.AuditExportService;
+import thomas.com.EventPing.security.service.AuditLoggingService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin/audit")
+@RequiredArgsConstructor
+public class AuditExportController {
+
+    private final AuditExportService auditExportService;
+    private final AuditLoggingService auditLoggingService;
+    private final AuditProperties auditProperties;
+
+    /**
+     * Stream audit events in [from, to) straight to the response as NDJSON or CSV
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportAuditEvents(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<AuditEvent.AuditEventType> type,
+            @RequestParam(defaultValue = "NDJSON") AuditExportService.Format format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication authentication,
+            HttpServletResponse response) throws IOException {
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        if (!from.isBefore(until)) {
+            throw new RuntimeException("Export range is empty: 'from' must be before 'to'");
+        }
+
+        auditLoggingService.logCustomEvent(
+                AuditEvent.AuditEventType.DATA_EXPORT,
+                authentication != null ? authentication.getName() : null,
+                "AUDIT_EXPORT",
+                "AuditEvent",
+                null,
+                Map.of("from", from.toString(), "to", until.toString(), "format", format.name(),
+                        "types", type != null ? type.toString() : "ALL"),
+                AuditEvent.AuditSeverity.HIGH
+        );
+
+        String filename = "audit-events." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        int bufferSize = auditProperties.getExport().getBufferSize();
+        OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), bufferSize)
+                : new BufferedOutputStream(response.getOutputStream(), bufferSize);
+        try (out) {
+            auditExportService.export(from, until, type, format, out);
+        }
+    }
+}
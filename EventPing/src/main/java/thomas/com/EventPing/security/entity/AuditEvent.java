@@ -30,7 +30,8 @@ import java.util.Map;
 public class AuditEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_events_id_seq")
+    @SequenceGenerator(name = "audit_events_id_seq", sequenceName = "audit_events_id_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -74,14 +75,15 @@ public class AuditEvent {
     private String detailsJson;
 
     // Helper methods for details JSON handling
+    private static final ObjectMapper DETAILS_MAPPER = new ObjectMapper();
+
     @Transient
     public Map<String, Object> getDetails() {
         if (detailsJson == null || detailsJson.isEmpty()) {
             return new HashMap<>();
         }
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.readValue(detailsJson, Map.class);
+            return DETAILS_MAPPER.readValue(detailsJson, Map.class);
         } catch (Exception e) {
             return new HashMap<>();
         }
@@ -94,8 +96,7 @@ public class AuditEvent {
             return;
         }
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            this.detailsJson = mapper.writeValueAsString(details);
+            this.detailsJson = DETAILS_MAPPER.writeValueAsString(details);
         } catch (Exception e) {
             this.detailsJson = null;
         }
@@ -3,9 +3,11 @@ package thomas.com.EventPing.security.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import thomas.com.EventPing.security.entity.AuditEvent;
 
 import java.time.LocalDateTime;
@@ -111,8 +113,10 @@ public interface AuditEventRepository extends JpaRepository<AuditEvent, Long> {
     /**
      * Delete old audit events (for cleanup)
      */
+    @Modifying
+    @Transactional
     @Query("DELETE FROM AuditEvent a WHERE a.timestamp < :cutoffDate")
-    void deleteOldEvents(@Param("cutoffDate") LocalDateTime cutoffDate);
+    int deleteOldEvents(@Param("cutoffDate") LocalDateTime cutoffDate);
 
     /**
      * Find suspicious activity patterns
@@ -0,0 +1,237 @@
+package thomas.com.EventPing.security.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+import thomas.com.EventPing.config.AuditProperties;
+import thomas.com.EventPing.security.entity.AuditEvent;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit ingestion pipeline: producers publish into a bounded ring buffer and a
+ * dedicated writer thread flushes JDBC batch inserts when either the batch size
+ * or the flush interval is reached. Each batch also updates the statistics rollups
+ * in the same transaction. A full buffer is handled per severity using
+ * {@link AuditProperties.OverflowPolicy}, so audit volume cannot exhaust the heap
+ * or the connection pool.
+ */
+@Component
+@Slf4j
+public class AuditEventWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_events (event_type, username, ip_address, user_agent, request_uri, " +
+            "request_method, session_id, resource_type, resource_id, action, result, error_message, " +
+            "details, severity, timestamp, correlation_id, tenant_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditStatisticsRollup statisticsRollup;
+    private final AuditProperties.Writer config;
+    private final AuditRingBuffer buffer;
+
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+    private final Map<AuditEvent.AuditSeverity, Counter> droppedCounters = new EnumMap<>(AuditEvent.AuditSeverity.class);
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditEventWriter(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            AuditStatisticsRollup statisticsRollup,
+                            AuditProperties auditProperties,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.statisticsRollup = statisticsRollup;
+        this.config = auditProperties.getWriter();
+        this.buffer = new AuditRingBuffer(config.getBufferCapacity());
+
+        this.writtenCounter = meterRegistry.counter("eventping.audit.writer.events", "outcome", "written");
+        this.failedCounter = meterRegistry.counter("eventping.audit.writer.events", "outcome", "failed");
+        for (AuditEvent.AuditSeverity severity : AuditEvent.AuditSeverity.values()) {
+            droppedCounters.put(severity, meterRegistry.counter("eventping.audit.writer.events",
+                    "outcome", "dropped", "severity", severity.name()));
+        }
+        Gauge.builder("eventping.audit.writer.buffer.size", buffer, AuditRingBuffer::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hand an event to the writer. Returns false if the event was dropped.
+     */
+    public boolean submit(AuditEvent event) {
+        // The column is NOT NULL, and one bad row would fail the whole batch
+        if (event.getTimestamp() == null) {
+            event.setTimestamp(LocalDateTime.now());
+        }
+        AuditEvent.AuditSeverity severity = event.getSeverity() != null
+                ? event.getSeverity() : AuditEvent.AuditSeverity.MEDIUM;
+
+        // Keep headroom for the events that matter when the buffer starts filling up
+        if (severity == AuditEvent.AuditSeverity.LOW
+                && buffer.size() >= buffer.capacity() * config.getLowSeverityHighWatermark()) {
+            return drop(event, severity);
+        }
+
+        if (buffer.offer(event)) {
+            if (buffer.size() >= config.getBatchSize()) {
+                wakeWriter();
+            }
+            return true;
+        }
+
+        switch (config.policyFor(severity)) {
+            case WAIT:
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getOfferTimeoutMs());
+                while (System.nanoTime() < deadline) {
+                    wakeWriter();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    if (buffer.offer(event)) {
+                        return true;
+                    }
+                }
+                return drop(event, severity);
+            case CALLER_RUNS:
+                flush(List.of(event));
+                return true;
+            case DROP:
+            default:
+                return drop(event, severity);
+        }
+    }
+
+    /**
+     * Number of events waiting to be written
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        Thread thread = new Thread(this::runWriterLoop, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        log.info("Audit writer started (capacity={}, batchSize={}, flushInterval={}ms)",
+                buffer.capacity(), config.getBatchSize(), config.getFlushIntervalMs());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(SHUTDOWN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (buffer.size() > 0) {
+            log.warn("Audit writer stopped with {} events still buffered", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWriterLoop() {
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        List<AuditEvent> batch = new ArrayList<>(config.getBatchSize());
+        long batchStartedAt = 0;
+
+        while (running || buffer.size() > 0 || !batch.isEmpty()) {
+            boolean wasEmpty = batch.isEmpty();
+            buffer.drainTo(batch, config.getBatchSize() - batch.size());
+            if (wasEmpty && !batch.isEmpty()) {
+                batchStartedAt = System.nanoTime();
+            }
+
+            boolean full = batch.size() >= config.getBatchSize();
+            boolean due = !batch.isEmpty() && System.nanoTime() - batchStartedAt >= flushIntervalNanos;
+            if (full || due || (!running && !batch.isEmpty())) {
+                flush(batch);
+                batch.clear();
+                continue;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void flush(List<AuditEvent> events) {
+        try {
+            // UTC like Hibernate, so batched rows land in the same partitions JPA queries read
+            Calendar utc = JdbcTimestamps.utcCalendar();
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+                    ps.setString(1, event.getEventType().name());
+                    ps.setString(2, event.getUsername());
+                    ps.setString(3, event.getIpAddress());
+                    ps.setString(4, event.getUserAgent());
+                    ps.setString(5, event.getRequestUri());
+                    ps.setString(6, event.getRequestMethod());
+                    ps.setString(7, event.getSessionId());
+                    ps.setString(8, event.getResourceType());
+                    ps.setString(9, event.getResourceId());
+                    ps.setString(10, event.getAction());
+                    ps.setString(11, event.getResult());
+                    ps.setString(12, event.getErrorMessage());
+                    ps.setString(13, event.getDetailsJson());
+                    ps.setString(14, (event.getSeverity() != null
+                            ? event.getSeverity() : AuditEvent.AuditSeverity.MEDIUM).name());
+                    ps.setTimestamp(15, Timestamp.valueOf(event.getTimestamp() != null
+                            ? event.getTimestamp() : LocalDateTime.now()), utc);
+                    ps.setString(16, event.getCorrelationId());
+                    ps.setString(17, event.getTenantId());
+                });
+                statisticsRollup.record(events);
+            });
+            writtenCounter.increment(events.size());
+        } catch (Exception e) {
+            failedCounter.increment(events.size());
+            log.error("Failed to write batch of {} audit events", events.size(), e);
+        }
+    }
+
+    private boolean drop(AuditEvent event, AuditEvent.AuditSeverity severity) {
+        droppedCounters.get(severity).increment();
+        log.debug("Dropped {} audit event {} - buffer full", severity, event.getEventType());
+        return false;
+    }
+
+    private void wakeWriter() {
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
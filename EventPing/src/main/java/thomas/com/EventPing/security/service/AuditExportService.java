@@ -0,0 +1,128 @@
+package thomas.com.EventPing.security.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.common.export.ExportSink;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+import thomas.com.EventPing.config.AuditProperties;
+import thomas.com.EventPing.security.entity.AuditEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams audit_events to an output stream as NDJSON or CSV.
+ * Rows are read through a forward-only cursor with a bounded fetch size, so the
+ * export never holds more than one fetch of rows in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditExportService {
+
+    private static final String[] COLUMNS = {
+            "id", "timestamp", "event_type", "severity", "username", "ip_address", "user_agent",
+            "request_uri", "request_method", "session_id", "resource_type", "resource_id", "action",
+            "result", "error_message", "details", "correlation_id", "tenant_id"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditProperties auditProperties;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Write every audit event in [from, to), optionally limited to the given types, oldest first.
+     * Returns the number of rows written.
+     */
+    public long export(LocalDateTime from, LocalDateTime to, Collection<AuditEvent.AuditEventType> types,
+                       Format format, OutputStream out) {
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(String.join(", ", COLUMNS))
+                .append(" FROM audit_events WHERE timestamp >= ? AND timestamp < ?");
+        List<String> typeNames = new ArrayList<>();
+        if (types != null && !types.isEmpty()) {
+            sql.append(" AND event_type IN (").append(String.join(", ", Collections.nCopies(types.size(), "?"))).append(")");
+            types.forEach(type -> typeNames.add(type.name()));
+        }
+        sql.append(" ORDER BY timestamp, id");
+
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        try (ExportSink sink = format == Format.CSV
+                ? ExportSink.csv(out, List.of(COLUMNS))
+                : ExportSink.ndjson(out, objectMapper)) {
+            AtomicLong rows = new AtomicLong();
+            // PostgreSQL only honours the fetch size inside a transaction
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql.toString(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(auditProperties.getExport().getFetchSize());
+                ps.setTimestamp(1, Timestamp.valueOf(from), utc);
+                ps.setTimestamp(2, Timestamp.valueOf(to), utc);
+                for (int i = 0; i < typeNames.size(); i++) {
+                    ps.setString(i + 3, typeNames.get(i));
+                }
+                return ps;
+            }, rs -> {
+                try {
+                    write(sink, rs, utc);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows.incrementAndGet();
+            }));
+            log.info("Exported {} audit events as {} for [{}, {})", rows.get(), format, from, to);
+            return rows.get();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write audit export", e);
+        }
+    }
+
+    private static void write(ExportSink sink, ResultSet rs, Calendar utc) throws SQLException, IOException {
+        sink.startRecord();
+        sink.field("id", rs.getLong("id"));
+        Timestamp timestamp = rs.getTimestamp("timestamp", utc);
+        sink.field("timestamp", timestamp != null ? timestamp.toLocalDateTime().toString() : null);
+        for (int i = 2; i < COLUMNS.length; i++) {
+            sink.field(COLUMNS[i], rs.getString(COLUMNS[i]));
+        }
+        sink.endRecord();
+    }
+}
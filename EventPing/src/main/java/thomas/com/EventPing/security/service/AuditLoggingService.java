@@ -1,20 +1,16 @@
 package thomas.com.EventPing.security.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import thomas.com.EventPing.config.AuditProperties;
 import thomas.com.EventPing.security.entity.AuditEvent;
 import thomas.com.EventPing.security.repository.AuditEventRepository;
 
@@ -34,40 +30,25 @@ import java.util.UUID;
 public class AuditLoggingService {
 
     private final AuditEventRepository auditEventRepository;
-    private final ObjectMapper objectMapper;
-    private final SensitiveDataEncryptionService encryptionService;
-
-    @Value("${eventping.audit.enabled:true}")
-    private boolean auditEnabled;
-
-    @Value("${eventping.audit.log-authentication:true}")
-    private boolean logAuthentication;
-
-    @Value("${eventping.audit.log-authorization-failures:true}")
-    private boolean logAuthorizationFailures;
-
-    @Value("${eventping.audit.log-data-modifications:true}")
-    private boolean logDataModifications;
-
-    @Value("${eventping.audit.log-security-violations:true}")
-    private boolean logSecurityViolations;
-
-    @Value("${eventping.audit.retention-days:90}")
-    private int retentionDays;
+    private final AuditEventWriter auditEventWriter;
+    private final AuditPartitionManager auditPartitionManager;
+    private final AuditStatisticsRollup auditStatisticsRollup;
+    private final AuditProjectionRegistry auditProjectionRegistry;
+    private final SuspiciousActivityDetector suspiciousActivityDetector;
+    private final AuditProperties auditProperties;
 
     /**
      * Log authentication success event
      */
-    @Async
     public void logAuthenticationSuccess(String username, String ipAddress) {
-        if (!auditEnabled || !logAuthentication) {
+        if (!auditProperties.isEnabled() || !auditProperties.isLogAuthentication()) {
             return;
         }
 
         try {
             AuditEvent event = AuditEvent.authenticationSuccess(username, ipAddress);
             enrichEventWithRequestContext(event);
-            auditEventRepository.save(event);
+            auditEventWriter.submit(event);
             
             log.debug("Logged authentication success for user: {}", username);
         } catch (Exception e) {
@@ -78,16 +59,16 @@ public class AuditLoggingService {
     /**
      * Log authentication failure event
      */
-    @Async
     public void logAuthenticationFailure(String username, String ipAddress, String reason) {
-        if (!auditEnabled || !logAuthentication) {
+        suspiciousActivityDetector.recordAuthenticationFailure(username, resolveClientIp(ipAddress));
+        if (!auditProperties.isEnabled() || !auditProperties.isLogAuthentication()) {
             return;
         }
 
         try {
             AuditEvent event = AuditEvent.authenticationFailure(username, ipAddress, reason);
             enrichEventWithRequestContext(event);
-            auditEventRepository.save(event);
+            auditEventWriter.submit(event);
             
             log.debug("Logged authentication failure for user: {}", username);
         } catch (Exception e) {
@@ -98,16 +79,16 @@ public class AuditLoggingService {
     /**
      * Log authorization failure event
      */
-    @Async
     public void logAuthorizationFailure(String username, String ipAddress, String resource, String action) {
-        if (!auditEnabled || !logAuthorizationFailures) {
+        suspiciousActivityDetector.recordIpFailure(resolveClientIp(ipAddress), username);
+        if (!auditProperties.isEnabled() || !auditProperties.isLogAuthorizationFailures()) {
             return;
         }
 
         try {
             AuditEvent event = AuditEvent.authorizationFailure(username, ipAddress, resource, action);
             enrichEventWithRequestContext(event);
-            auditEventRepository.save(event);
+            auditEventWriter.submit(event);
             
             log.debug("Logged authorization failure for user: {} on resource: {}", username, resource);
         } catch (Exception e) {
@@ -116,31 +97,24 @@ public class AuditLoggingService {
     }
 
     /**
-     * Log data modification event (create, update, delete)
+     * Log data modification event (create, update, delete).
+     * Values are reduced to their audit projection; updates record only the changed fields.
      */
-    @Async
     public void logDataModification(String username, AuditEvent.AuditEventType eventType, 
                                   String resourceType, String resourceId, 
                                   Object oldValue, Object newValue) {
-        if (!auditEnabled || !logDataModifications) {
+        if (!auditProperties.isEnabled() || !auditProperties.isLogDataModifications()) {
             return;
         }
 
         try {
             AuditEvent event = AuditEvent.dataModification(username, eventType, resourceType, resourceId);
             
-            // Add old and new values to details (encrypted if sensitive)
-            Map<String, Object> details = new HashMap<>();
-            if (oldValue != null) {
-                details.put("oldValue", sanitizeForAudit(oldValue));
-            }
-            if (newValue != null) {
-                details.put("newValue", sanitizeForAudit(newValue));
-            }
-            event.setDetails(details);
+            // Whitelisted scalar fields only, sensitive values masked
+            event.setDetails(auditProjectionRegistry.describeChange(oldValue, newValue));
             
             enrichEventWithRequestContext(event);
-            auditEventRepository.save(event);
+            auditEventWriter.submit(event);
             
             log.debug("Logged data modification: {} for resource: {}/{}", eventType, resourceType, resourceId);
         } catch (Exception e) {
@@ -148,13 +122,20 @@ public class AuditLoggingService {
         }
     }
 
+    /**
+     * Capture an entity's audited fields before it is modified, to pass as the old value
+     * of {@link #logDataModification}
+     */
+    public Object captureForAudit(Object entity) {
+        return auditProjectionRegistry.capture(entity);
+    }
+
     /**
      * Log security violation event
      */
-    @Async
     public void logSecurityViolation(String username, String ipAddress, String violationType, 
                                    String details, AuditEvent.AuditSeverity severity) {
-        if (!auditEnabled || !logSecurityViolations) {
+        if (!auditProperties.isEnabled() || !auditProperties.isLogSecurityViolations()) {
             return;
         }
 
@@ -162,7 +143,7 @@ public class AuditLoggingService {
             AuditEvent event = AuditEvent.securityViolation(username, ipAddress, violationType, details);
             event.setSeverity(severity);
             enrichEventWithRequestContext(event);
-            auditEventRepository.save(event);
+            auditEventWriter.submit(event);
             
             log.warn("Logged security violation: {} from IP: {} for user: {}", violationType, ipAddress, username);
             
@@ -178,16 +159,16 @@ public class AuditLoggingService {
     /**
      * Log rate limit exceeded event
      */
-    @Async
     public void logRateLimitExceeded(String username, String ipAddress, String limitType) {
-        if (!auditEnabled) {
+        suspiciousActivityDetector.recordIpFailure(resolveClientIp(ipAddress), username);
+        if (!auditProperties.isEnabled()) {
             return;
         }
 
         try {
             AuditEvent event = AuditEvent.rateLimitExceeded(username, ipAddress, limitType);
             enrichEventWithRequestContext(event);
-            auditEventRepository.save(event);
+            auditEventWriter.submit(event);
             
             log.debug("Logged rate limit exceeded: {} for user: {} from IP: {}", limitType, username, ipAddress);
         } catch (Exception e) {
@@ -198,11 +179,10 @@ public class AuditLoggingService {
     /**
      * Log custom audit event
      */
-    @Async
     public void logCustomEvent(AuditEvent.AuditEventType eventType, String username, 
                              String action, String resourceType, String resourceId,
                              Map<String, Object> details, AuditEvent.AuditSeverity severity) {
-        if (!auditEnabled) {
+        if (!auditProperties.isEnabled()) {
             return;
         }
 
@@ -223,7 +203,7 @@ public class AuditLoggingService {
             }
             
             enrichEventWithRequestContext(event);
-            auditEventRepository.save(event);
+            auditEventWriter.submit(event);
             
             log.debug("Logged custom event: {} for user: {}", eventType, username);
         } catch (Exception e) {
@@ -234,10 +214,9 @@ public class AuditLoggingService {
     /**
      * Log session events
      */
-    @Async
     public void logSessionEvent(AuditEvent.AuditEventType eventType, String username, 
                               String sessionId, String ipAddress) {
-        if (!auditEnabled) {
+        if (!auditProperties.isEnabled()) {
             return;
         }
 
@@ -252,7 +231,7 @@ public class AuditLoggingService {
                     .build();
             
             enrichEventWithRequestContext(event);
-            auditEventRepository.save(event);
+            auditEventWriter.submit(event);
             
             log.debug("Logged session event: {} for user: {}", eventType, username);
         } catch (Exception e) {
@@ -296,9 +275,13 @@ public class AuditLoggingService {
     }
 
     /**
-     * Get audit statistics
+     * Get audit statistics, from the pre-aggregated rollups unless they are disabled
      */
     public Map<String, Object> getAuditStatistics(LocalDateTime since) {
+        if (auditProperties.getRollup().isEnabled()) {
+            return auditStatisticsRollup.getStatistics(since);
+        }
+
         Map<String, Object> stats = new HashMap<>();
         
         List<Object[]> eventTypeStats = auditEventRepository.getEventTypeStatistics(since);
@@ -312,24 +295,29 @@ public class AuditLoggingService {
     }
 
     /**
-     * Clean up old audit events
+     * Clean up old audit events. Drops whole partitions when audit_events is partitioned,
+     * otherwise falls back to a row-level delete. Not transactional: each partition is
+     * dropped in its own transaction, which an outer one would swallow.
      */
-    @Transactional
     public void cleanupOldEvents() {
+        int retentionDays = auditProperties.getRetentionDays();
         if (retentionDays > 0) {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-            auditEventRepository.deleteOldEvents(cutoffDate);
-            log.info("Cleaned up audit events older than {} days", retentionDays);
+            if (auditPartitionManager.isPartitioned()) {
+                int dropped = auditPartitionManager.dropExpiredPartitions(cutoffDate);
+                log.info("Dropped {} audit partitions older than {} days", dropped, retentionDays);
+            } else {
+                auditEventRepository.deleteOldEvents(cutoffDate);
+                log.info("Cleaned up audit events older than {} days", retentionDays);
+            }
         }
     }
 
     /**
-     * Check for suspicious activity patterns
+     * Check for suspicious activity patterns, answered from the in-memory detector windows
      */
     public boolean isSuspiciousActivity(String ipAddress, LocalDateTime since, int threshold) {
-        List<AuditEvent> suspiciousEvents = auditEventRepository.findSuspiciousActivityByIp(
-                ipAddress, since, (long) threshold);
-        return !suspiciousEvents.isEmpty();
+        return suspiciousActivityDetector.countRecentByIp(ipAddress, since) >= threshold;
     }
 
     /**
@@ -390,6 +378,17 @@ public class AuditLoggingService {
         }
     }
 
+    /**
+     * Use the given IP unless it is missing, falling back to the current request
+     */
+    private String resolveClientIp(String ipAddress) {
+        if (ipAddress != null && !ipAddress.isBlank() && !"UNKNOWN_IP".equals(ipAddress)) {
+            return ipAddress;
+        }
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes != null ? getClientIpAddress(attributes.getRequest()) : ipAddress;
+    }
+
     /**
      * Get client IP address from request
      */
@@ -423,30 +422,6 @@ public class AuditLoggingService {
         return request.getRemoteAddr();
     }
 
-    /**
-     * Sanitize sensitive data for audit logging
-     */
-    private Object sanitizeForAudit(Object value) {
-        if (value == null) {
-            return null;
-        }
-        
-        try {
-            String jsonValue = objectMapper.writeValueAsString(value);
-            
-            // Check if the value contains sensitive data
-            if (encryptionService.containsSensitiveData(jsonValue)) {
-                // Mask sensitive data for audit logs
-                return encryptionService.maskForLogging(jsonValue);
-            }
-            
-            return value;
-        } catch (JsonProcessingException e) {
-            log.debug("Could not serialize value for audit", e);
-            return value.toString();
-        }
-    }
-
     /**
      * Send security alert for high-severity events
      */
@@ -0,0 +1,104 @@
+package thomas.com.EventPing.security.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.common.repository.PartitionRepository;
+import thomas.com.EventPing.common.repository.PartitionRepository.PartitionRange;
+import thomas.com.EventPing.config.AuditProperties;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Maintains the monthly range partitions of the audit_events table:
+ * pre-creates upcoming months and drops partitions that fall entirely
+ * outside the retention window.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPartitionManager {
+
+    private static final String PARENT_TABLE = "audit_events";
+    private static final String DEFAULT_PARTITION = "audit_events_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionRepository partitionRepository;
+    private final AuditProperties auditProperties;
+
+    private volatile Boolean partitioned;
+
+    /**
+     * Whether audit_events is a partitioned table (false on non-PostgreSQL databases)
+     */
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            result = partitionRepository.isPartitioned(PARENT_TABLE);
+            partitioned = result;
+        }
+        return result;
+    }
+
+    /**
+     * Create partitions for the current month and the configured number of months ahead,
+     * one transaction per partition. Events that fell into the default partition because
+     * their month had no partition yet are moved into it.
+     */
+    public int ensureFuturePartitions() {
+        if (!isPartitioned()) {
+            return 0;
+        }
+
+        List<PartitionRange> existing = partitionRepository.listPartitions(PARENT_TABLE);
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1);
+        int created = 0;
+
+        for (LocalDate month : PartitionRepository.monthsToCover(firstMonth, auditProperties.getPartitioning().getPremakeMonths())) {
+            LocalDateTime from = month.atStartOfDay();
+            LocalDateTime to = month.plusMonths(1).atStartOfDay();
+            if (existing.stream().anyMatch(range -> range.overlaps(from, to))) {
+                continue;
+            }
+
+            String name = PARENT_TABLE + "_p" + month.format(PARTITION_SUFFIX);
+            Integer moved = transactionTemplate.execute(status -> partitionRepository.createPartitionFromDefault(
+                    PARENT_TABLE, DEFAULT_PARTITION, "timestamp", name, from, to));
+            created++;
+            log.info("Created audit partition {} for [{}, {}), moving {} events from {}",
+                    name, from, to, moved, DEFAULT_PARTITION);
+        }
+        return created;
+    }
+
+    /**
+     * Detach and drop every partition whose upper bound is at or before the cutoff.
+     * Rows in the partition that straddles the cutoff are kept until the whole month expires.
+     */
+    public int dropExpiredPartitions(LocalDateTime cutoff) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+
+        int dropped = 0;
+        for (PartitionRange range : partitionRepository.listPartitions(PARENT_TABLE)) {
+            if (!range.endsBy(cutoff)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + range.name());
+                jdbcTemplate.execute("DROP TABLE " + range.name());
+            });
+            dropped++;
+            log.info("Dropped audit partition {} (upper bound {})", range.name(), range.upperBound());
+        }
+        return dropped;
+    }
+}
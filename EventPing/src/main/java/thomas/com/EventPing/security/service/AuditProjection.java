@@ -0,0 +1,68 @@
+package thomas.com.EventPing.security.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Whitelist of scalar fields captured when an entity of type T is audited.
+ * Fields are read through accessor functions compiled into the projection,
+ * so auditing never serializes the entity graph or touches lazy associations.
+ */
+public final class AuditProjection<T> {
+
+    /**
+     * How a field value is treated before it is written to the audit log
+     */
+    public enum Disclosure {
+        PLAIN,   // Written as is
+        SCAN,    // Free text, masked only when it looks like personal data
+        MASKED   // Personal data, always masked
+    }
+
+    public record Field<T>(String name, Function<T, Object> accessor, Disclosure disclosure) {
+    }
+
+    private final Class<T> type;
+    private final List<Field<T>> fields;
+
+    private AuditProjection(Class<T> type, List<Field<T>> fields) {
+        this.type = type;
+        this.fields = Collections.unmodifiableList(fields);
+    }
+
+    public static <T> Builder<T> of(Class<T> type) {
+        return new Builder<>(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public List<Field<T>> getFields() {
+        return fields;
+    }
+
+    public static final class Builder<T> {
+        private final Class<T> type;
+        private final List<Field<T>> fields = new ArrayList<>();
+
+        private Builder(Class<T> type) {
+            this.type = type;
+        }
+
+        public Builder<T> field(String name, Function<T, Object> accessor) {
+            return field(name, accessor, Disclosure.PLAIN);
+        }
+
+        public Builder<T> field(String name, Function<T, Object> accessor, Disclosure disclosure) {
+            fields.add(new Field<>(name, accessor, disclosure));
+            return this;
+        }
+
+        public AuditProjection<T> build() {
+            return new AuditProjection<>(type, new ArrayList<>(fields));
+        }
+    }
+}
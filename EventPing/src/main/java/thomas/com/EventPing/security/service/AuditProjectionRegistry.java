@@ -0,0 +1,194 @@
+package thomas.com.EventPing.security.service;
+
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.participant.model.Participant;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns audited values into small maps of whitelisted scalar fields.
+ * Updates of a projected entity only record the fields that changed.
+ */
+@Component
+public class AuditProjectionRegistry {
+
+    private final SensitiveDataEncryptionService encryptionService;
+    private final Map<Class<?>, AuditProjection<?>> projections = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Optional<AuditProjection<?>>> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * Projected field values of an entity at a point in time, before masking
+     */
+    public record Snapshot(AuditProjection<?> projection, Map<String, Object> values) {
+    }
+
+    public AuditProjectionRegistry(SensitiveDataEncryptionService encryptionService) {
+        this.encryptionService = encryptionService;
+
+        register(AuditProjection.of(Event.class)
+                .field("id", Event::getId)
+                .field("title", Event::getTitle, AuditProjection.Disclosure.SCAN)
+                .field("description", Event::getDescription, AuditProjection.Disclosure.SCAN)
+                .field("eventDateTime", Event::getEventDateTime)
+                .field("status", Event::getStatus)
+                .field("slug", Event::getSlug)
+                .field("maxParticipants", Event::getMaxParticipants)
+                .field("isPublic", Event::getIsPublic)
+                .field("registrationEnabled", Event::getRegistrationEnabled)
+                // Reading the id of a lazy proxy does not initialize it
+                .field("creatorId", event -> event.getCreator() != null ? event.getCreator().getId() : null)
+                .build());
+
+        register(AuditProjection.of(User.class)
+                .field("id", User::getId)
+                .field("email", User::getEmail, AuditProjection.Disclosure.MASKED)
+                .field("fullName", User::getFullName, AuditProjection.Disclosure.MASKED)
+                .field("phoneNumber", User::getPhoneNumber, AuditProjection.Disclosure.MASKED)
+                .field("role", User::getRole)
+                .field("accountLocked", User::getAccountLocked)
+                .field("enableWhatsApp", User::getEnableWhatsApp)
+                .field("enableDiscord", User::getEnableDiscord)
+                .field("enableGmail", User::getEnableGmail)
+                .field("enableGoogleCalendar", User::getEnableGoogleCalendar)
+                .field("enableSlack", User::getEnableSlack)
+                .field("planId", user -> user.getPlan() != null ? user.getPlan().getId() : null)
+                .build());
+
+        register(AuditProjection.of(Participant.class)
+                .field("id", Participant::getId)
+                .field("eventId", participant -> participant.getEvent() != null ? participant.getEvent().getId() : null)
+                .field("email", Participant::getEmail, AuditProjection.Disclosure.MASKED)
+                .field("phoneNumber", Participant::getPhoneNumber, AuditProjection.Disclosure.MASKED)
+                .field("rsvpStatus", Participant::getRsvpStatus)
+                .field("unsubscribed", Participant::getUnsubscribed)
+                .field("joinedAt", Participant::getJoinedAt)
+                .build());
+    }
+
+    public void register(AuditProjection<?> projection) {
+        projections.put(projection.getType(), projection);
+        resolved.clear();
+    }
+
+    /**
+     * Raw projected values of an entity, taken before it is modified so an update can be diffed later
+     */
+    public Snapshot capture(Object entity) {
+        AuditProjection<?> projection = find(entity.getClass());
+        if (projection == null) {
+            throw new IllegalArgumentException("No audit projection registered for " + entity.getClass().getName());
+        }
+        return new Snapshot(projection, rawValues(projection, entity));
+    }
+
+    /**
+     * Audit details for a modification: the full projection on create or delete,
+     * only the changed fields on update
+     */
+    public Map<String, Object> describeChange(Object oldValue, Object newValue) {
+        Snapshot before = toSnapshot(oldValue);
+        Snapshot after = toSnapshot(newValue);
+        Map<String, Object> details = new LinkedHashMap<>();
+
+        if (before != null && after != null && before.projection() == after.projection()) {
+            Map<String, Object> oldFields = new LinkedHashMap<>();
+            Map<String, Object> newFields = new LinkedHashMap<>();
+            for (AuditProjection.Field<?> field : before.projection().getFields()) {
+                Object previous = before.values().get(field.name());
+                Object current = after.values().get(field.name());
+                if (!Objects.equals(previous, current)) {
+                    oldFields.put(field.name(), scalar(previous, field.disclosure()));
+                    newFields.put(field.name(), scalar(current, field.disclosure()));
+                }
+            }
+            details.put("oldValue", oldFields);
+            details.put("newValue", newFields);
+            details.put("changedFields", List.copyOf(newFields.keySet()));
+            return details;
+        }
+
+        if (oldValue != null) {
+            details.put("oldValue", before != null ? disclose(before) : scalar(oldValue, AuditProjection.Disclosure.SCAN));
+        }
+        if (newValue != null) {
+            details.put("newValue", after != null ? disclose(after) : scalar(newValue, AuditProjection.Disclosure.SCAN));
+        }
+        return details;
+    }
+
+    private Snapshot toSnapshot(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Snapshot snapshot) {
+            return snapshot;
+        }
+        AuditProjection<?> projection = find(value.getClass());
+        return projection != null ? new Snapshot(projection, rawValues(projection, value)) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<String, Object> rawValues(AuditProjection<T> projection, Object value) {
+        T entity = (T) value;
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (AuditProjection.Field<T> field : projection.getFields()) {
+            values.put(field.name(), field.accessor().apply(entity));
+        }
+        return values;
+    }
+
+    private Map<String, Object> disclose(Snapshot snapshot) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (AuditProjection.Field<?> field : snapshot.projection().getFields()) {
+            Object value = snapshot.values().get(field.name());
+            if (value != null) {
+                fields.put(field.name(), scalar(value, field.disclosure()));
+            }
+        }
+        return fields;
+    }
+
+    private Object scalar(Object value, AuditProjection.Disclosure disclosure) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Enum<?> || value instanceof TemporalAccessor) {
+            return value.toString();
+        }
+        if (value instanceof CharSequence text) {
+            return disclose(text.toString(), disclosure);
+        }
+        // Never walk an unknown object graph; record only what it was
+        return value.getClass().getSimpleName();
+    }
+
+    private String disclose(String text, AuditProjection.Disclosure disclosure) {
+        return switch (disclosure) {
+            case PLAIN -> text;
+            case MASKED -> encryptionService.maskForLogging(text);
+            case SCAN -> encryptionService.containsSensitiveData(text) ? encryptionService.maskForLogging(text) : text;
+        };
+    }
+
+    private AuditProjection<?> find(Class<?> type) {
+        // Hibernate proxies are subclasses of the entity, so fall back to an assignability check
+        return resolved.computeIfAbsent(type, key -> {
+            AuditProjection<?> exact = projections.get(key);
+            if (exact != null) {
+                return Optional.of(exact);
+            }
+            return projections.values().stream()
+                    .filter(projection -> projection.getType().isAssignableFrom(key))
+                    .findFirst()
+                    .map(projection -> (AuditProjection<?>) projection);
+        }).orElse(null);
+    }
+}
@@ -0,0 +1,250 @@
+package thomas.com.EventPing.security.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+import thomas.com.EventPing.config.AuditProperties;
+import thomas.com.EventPing.security.entity.AuditEvent;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-minute and per-hour audit counts by event type, severity, user and IP.
+ * The audit writer folds every flushed batch into the rollups inside the same
+ * transaction, so statistics never have to scan audit_events.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditStatisticsRollup {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO audit_stat_rollups (granularity, bucket_start, dimension, dimension_value, event_count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (granularity, bucket_start, dimension, dimension_value) " +
+            "DO UPDATE SET event_count = audit_stat_rollups.event_count + EXCLUDED.event_count";
+
+    private static final String WINDOW_PREDICATE =
+            "((granularity = 'HOUR' AND bucket_start >= ?) " +
+            "OR (granularity = 'MINUTE' AND bucket_start >= ? AND bucket_start < ?))";
+
+    private static final int MAX_VALUE_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditProperties auditProperties;
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        LocalDateTime bucketOf(LocalDateTime timestamp) {
+            return timestamp.truncatedTo(unit);
+        }
+    }
+
+    public enum Dimension {
+        EVENT_TYPE,
+        SEVERITY,
+        USERNAME,
+        IP_ADDRESS
+    }
+
+    /**
+     * Fold a batch of written events into the rollups. Must run inside the caller's transaction.
+     */
+    public void record(List<AuditEvent> events) {
+        if (!auditProperties.getRollup().isEnabled() || events.isEmpty()) {
+            return;
+        }
+
+        // Sorted keys keep concurrent flushes locking rollup rows in the same order
+        List<Map.Entry<RollupKey, Long>> rows = new ArrayList<>(aggregate(events, LocalDateTime.now()).entrySet());
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            RollupKey key = row.getKey();
+            ps.setString(1, key.granularity().name());
+            ps.setTimestamp(2, Timestamp.valueOf(key.bucketStart()), utc);
+            ps.setString(3, key.dimension().name());
+            ps.setString(4, key.value());
+            ps.setLong(5, row.getValue());
+        });
+    }
+
+    /**
+     * Statistics since the given time, read from the rollups
+     */
+    public Map<String, Object> getStatistics(LocalDateTime since) {
+        Window window = windowFor(since, LocalDateTime.now(), auditProperties.getRollup().getMinuteRetentionHours());
+
+        Map<AuditEvent.AuditEventType, Long> eventTypes = new EnumMap<>(AuditEvent.AuditEventType.class);
+        Map<AuditEvent.AuditSeverity, Long> severities = new EnumMap<>(AuditEvent.AuditSeverity.class);
+        jdbcTemplate.query(
+                "SELECT dimension, dimension_value, SUM(event_count) FROM audit_stat_rollups " +
+                "WHERE dimension IN ('EVENT_TYPE', 'SEVERITY') AND " + WINDOW_PREDICATE + " " +
+                "GROUP BY dimension, dimension_value",
+                ps -> bindWindow(ps, 1, window),
+                rs -> {
+                    String value = rs.getString(2);
+                    long count = rs.getLong(3);
+                    try {
+                        if (Dimension.EVENT_TYPE.name().equals(rs.getString(1))) {
+                            eventTypes.put(AuditEvent.AuditEventType.valueOf(value), count);
+                        } else {
+                            severities.put(AuditEvent.AuditSeverity.valueOf(value), count);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        log.debug("Ignoring rollup for unknown audit value {}", value);
+                    }
+                });
+
+        List<Object[]> eventTypeStats = new ArrayList<>();
+        eventTypes.entrySet().stream()
+                .sorted(Map.Entry.<AuditEvent.AuditEventType, Long>comparingByValue().reversed())
+                .forEach(entry -> eventTypeStats.add(new Object[]{entry.getKey(), entry.getValue()}));
+        List<Object[]> severityStats = new ArrayList<>();
+        severities.forEach((severity, count) -> severityStats.add(new Object[]{severity, count}));
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("eventTypeStatistics", eventTypeStats);
+        stats.put("severityStatistics", severityStats);
+        stats.put("topUsers", topValues(Dimension.USERNAME, window));
+        stats.put("topIpAddresses", topValues(Dimension.IP_ADDRESS, window));
+        stats.put("totalEvents", getTotalEvents());
+        return stats;
+    }
+
+    /**
+     * Total events still within retention, summed from the hourly severity rollups
+     */
+    public long getTotalEvents() {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(event_count), 0) FROM audit_stat_rollups " +
+                "WHERE granularity = 'HOUR' AND dimension = 'SEVERITY'", Long.class);
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Drop minute rollups past their short horizon and hour rollups past audit retention
+     */
+    @Transactional
+    public int purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        Timestamp minuteCutoff =
+                Timestamp.valueOf(now.minusHours(auditProperties.getRollup().getMinuteRetentionHours()));
+        int removed = jdbcTemplate.update(
+                "DELETE FROM audit_stat_rollups WHERE granularity = 'MINUTE' AND bucket_start < ?",
+                ps -> ps.setTimestamp(1, minuteCutoff, utc));
+        if (auditProperties.getRetentionDays() > 0) {
+            Timestamp hourCutoff = Timestamp.valueOf(now.minusDays(auditProperties.getRetentionDays()));
+            removed += jdbcTemplate.update(
+                    "DELETE FROM audit_stat_rollups WHERE granularity = 'HOUR' AND bucket_start < ?",
+                    ps -> ps.setTimestamp(1, hourCutoff, utc));
+        }
+        return removed;
+    }
+
+    private List<Object[]> topValues(Dimension dimension, Window window) {
+        return jdbcTemplate.query(
+                "SELECT dimension_value, SUM(event_count) AS total FROM audit_stat_rollups " +
+                "WHERE dimension = ? AND " + WINDOW_PREDICATE + " " +
+                "GROUP BY dimension_value ORDER BY total DESC LIMIT ?",
+                ps -> {
+                    ps.setString(1, dimension.name());
+                    ps.setInt(bindWindow(ps, 2, window), auditProperties.getRollup().getTopN());
+                },
+                (rs, rowNum) -> new Object[]{rs.getString(1), rs.getLong(2)});
+    }
+
+    /**
+     * Bind the window's bounds to WINDOW_PREDICATE from the given index, in UTC like the
+     * audit timestamps they were bucketed from. Returns the next free index.
+     */
+    private static int bindWindow(PreparedStatement ps, int index, Window window) throws SQLException {
+        Calendar utc = JdbcTimestamps.utcCalendar();
+        ps.setTimestamp(index, Timestamp.valueOf(window.hourFrom()), utc);
+        ps.setTimestamp(index + 1, Timestamp.valueOf(window.minuteFrom()), utc);
+        ps.setTimestamp(index + 2, Timestamp.valueOf(window.hourFrom()), utc);
+        return index + 3;
+    }
+
+    static Map<RollupKey, Long> aggregate(List<AuditEvent> events, LocalDateTime now) {
+        Map<RollupKey, Long> counts = new TreeMap<>();
+        for (AuditEvent event : events) {
+            LocalDateTime timestamp = event.getTimestamp() != null ? event.getTimestamp() : now;
+            AuditEvent.AuditSeverity severity = event.getSeverity() != null
+                    ? event.getSeverity() : AuditEvent.AuditSeverity.MEDIUM;
+            for (Granularity granularity : Granularity.values()) {
+                LocalDateTime bucket = granularity.bucketOf(timestamp);
+                increment(counts, granularity, bucket, Dimension.EVENT_TYPE, event.getEventType().name());
+                increment(counts, granularity, bucket, Dimension.SEVERITY, severity.name());
+                increment(counts, granularity, bucket, Dimension.USERNAME, event.getUsername());
+                increment(counts, granularity, bucket, Dimension.IP_ADDRESS, event.getIpAddress());
+            }
+        }
+        return counts;
+    }
+
+    private static void increment(Map<RollupKey, Long> counts, Granularity granularity, LocalDateTime bucket,
+                                  Dimension dimension, String value) {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String trimmed = value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value;
+        counts.merge(new RollupKey(granularity, bucket, dimension, trimmed), 1L, Long::sum);
+    }
+
+    /**
+     * Hour buckets cover every full hour from hourFrom on; minute buckets fill the partial hour before it.
+     * When since lies beyond the minute horizon the whole enclosing hour is counted instead.
+     */
+    static Window windowFor(LocalDateTime since, LocalDateTime now, int minuteRetentionHours) {
+        LocalDateTime minuteFrom = since.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime hourFrom = since.truncatedTo(ChronoUnit.HOURS);
+        if (hourFrom.isBefore(minuteFrom) && !minuteFrom.isBefore(now.minusHours(minuteRetentionHours))) {
+            hourFrom = hourFrom.plusHours(1);
+        } else {
+            minuteFrom = hourFrom;
+        }
+        return new Window(minuteFrom, hourFrom);
+    }
+
+    record Window(LocalDateTime minuteFrom, LocalDateTime hourFrom) {
+    }
+
+    record RollupKey(Granularity granularity, LocalDateTime bucketStart, Dimension dimension, String value)
+            implements Comparable<RollupKey> {
+
+        private static final Comparator<RollupKey> ORDER = Comparator
+                .comparing(RollupKey::granularity)
+                .thenComparing(RollupKey::bucketStart)
+                .thenComparing(RollupKey::dimension)
+                .thenComparing(RollupKey::value);
+
+        @Override
+        public int compareTo(RollupKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package thomas.com.EventPing.security.service;
+
+/**
+ * Published by {@link SuspiciousActivityDetector} when a failure threshold is crossed
+ */
+public record SuspiciousActivityDetectedEvent(Reason reason, String ipAddress, String username, int attemptCount) {
+
+    public enum Reason {
+        IP_FAILURES,        // Too many failures from one IP
+        USERNAME_FAILURES   // Too many failed logins against one account
+    }
+}
@@ -0,0 +1,188 @@
+package thomas.com.EventPing.security.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.config.SecurityProperties;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.function.LongSupplier;
+
+/**
+ * Streaming brute-force detector. Authentication, authorization and rate-limit
+ * failures are counted per IP and per username in in-memory sliding windows;
+ * crossing a threshold publishes a {@link SuspiciousActivityDetectedEvent}
+ * immediately, without reading the audit log.
+ */
+@Component
+@Slf4j
+public class SuspiciousActivityDetector {
+
+    private static final String UNKNOWN_IP = "UNKNOWN_IP";
+
+    private final SecurityProperties.Detection config;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LongSupplier clock;
+    private final Cache<String, SlidingWindow> ipWindows;
+    private final Cache<String, SlidingWindow> usernameWindows;
+
+    @Autowired
+    public SuspiciousActivityDetector(SecurityProperties securityProperties,
+                                      ApplicationEventPublisher eventPublisher) {
+        this(securityProperties, eventPublisher, System::currentTimeMillis);
+    }
+
+    SuspiciousActivityDetector(SecurityProperties securityProperties,
+                               ApplicationEventPublisher eventPublisher,
+                               LongSupplier clock) {
+        this.config = securityProperties.getDetection();
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        // Idle keys expire once their whole window has passed, so memory stays bounded
+        Duration idle = Duration.ofSeconds(Math.max(config.getWindowSeconds(), config.getBlockDurationSeconds()));
+        this.ipWindows = Caffeine.newBuilder()
+                .maximumSize(config.getMaxTrackedKeys())
+                .expireAfterAccess(idle)
+                .build();
+        this.usernameWindows = Caffeine.newBuilder()
+                .maximumSize(config.getMaxTrackedKeys())
+                .expireAfterAccess(idle)
+                .build();
+    }
+
+    /**
+     * Count a failed login against both the source IP and the targeted username
+     */
+    public void recordAuthenticationFailure(String username, String ipAddress) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        recordIp(ipAddress, username, now);
+
+        if (username != null && !username.isBlank()) {
+            SlidingWindow window = usernameWindows.get(username.toLowerCase(), key -> newWindow());
+            int count = window.record(now, windowMillis());
+            if (count >= config.getUsernameFailureThreshold() && window.tryTrigger(now, blockMillis())) {
+                publish(SuspiciousActivityDetectedEvent.Reason.USERNAME_FAILURES, ipAddress, username, count);
+            }
+        }
+    }
+
+    /**
+     * Count a denied request or rate-limit hit against the source IP
+     */
+    public void recordIpFailure(String ipAddress, String username) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        recordIp(ipAddress, username, clock.getAsLong());
+    }
+
+    /**
+     * Failures seen from an IP since the given time, limited to the detection window
+     */
+    public int countRecentByIp(String ipAddress, LocalDateTime since) {
+        if (!isTrackable(ipAddress)) {
+            return 0;
+        }
+        SlidingWindow window = ipWindows.getIfPresent(ipAddress);
+        if (window == null) {
+            return 0;
+        }
+        long sinceMillis = since.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long now = clock.getAsLong();
+        return window.count(Math.max(sinceMillis, now - windowMillis()));
+    }
+
+    private void recordIp(String ipAddress, String username, long now) {
+        if (!isTrackable(ipAddress)) {
+            return;
+        }
+        SlidingWindow window = ipWindows.get(ipAddress, key -> newWindow());
+        int count = window.record(now, windowMillis());
+        if (count >= config.getIpFailureThreshold() && window.tryTrigger(now, blockMillis())) {
+            publish(SuspiciousActivityDetectedEvent.Reason.IP_FAILURES, ipAddress, username, count);
+        }
+    }
+
+    private void publish(SuspiciousActivityDetectedEvent.Reason reason, String ipAddress, String username, int count) {
+        log.warn("Suspicious activity detected ({}): ip={}, user={}, failures={}", reason, ipAddress, username, count);
+        eventPublisher.publishEvent(new SuspiciousActivityDetectedEvent(
+                reason, isTrackable(ipAddress) ? ipAddress : null, username, count));
+    }
+
+    private SlidingWindow newWindow() {
+        return new SlidingWindow(config.getMaxEventsPerKey());
+    }
+
+    private long windowMillis() {
+        return config.getWindowSeconds() * 1000;
+    }
+
+    private long blockMillis() {
+        return config.getBlockDurationSeconds() * 1000;
+    }
+
+    private static boolean isTrackable(String ipAddress) {
+        return ipAddress != null && !ipAddress.isBlank() && !UNKNOWN_IP.equals(ipAddress);
+    }
+
+    /**
+     * Sliding log of recent failure times, capped at a fixed number of entries
+     */
+    static final class SlidingWindow {
+        private final long[] times;
+        private int head;   // index of the oldest entry
+        private int size;
+        private long suppressedUntil;
+
+        SlidingWindow(int capacity) {
+            this.times = new long[Math.max(1, capacity)];
+        }
+
+        synchronized int record(long now, long windowMillis) {
+            evictBefore(now - windowMillis);
+            if (size == times.length) {
+                head = (head + 1) % times.length;
+                size--;
+            }
+            times[(head + size) % times.length] = now;
+            size++;
+            return size;
+        }
+
+        synchronized int count(long since) {
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (times[(head + i) % times.length] >= since) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Fire at most once per cooldown, which matches the block duration
+         */
+        synchronized boolean tryTrigger(long now, long cooldownMillis) {
+            if (now < suppressedUntil) {
+                return false;
+            }
+            suppressedUntil = now + cooldownMillis;
+            return true;
+        }
+
+        private void evictBefore(long cutoff) {
+            while (size > 0 && times[head] < cutoff) {
+                head = (head + 1) % times.length;
+                size--;
+            }
+        }
+    }
+}
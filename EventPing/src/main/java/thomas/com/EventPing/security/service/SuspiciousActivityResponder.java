@@ -0,0 +1,38 @@
+package thomas.com.EventPing.security.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import thomas.com.EventPing.config.SecurityProperties;
+
+import java.time.Duration;
+
+/**
+ * Alerts and blocks the source IP when the detector reports suspicious activity.
+ * Kept apart from the detector because RateLimitingService itself depends on audit logging.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SuspiciousActivityResponder {
+
+    private final SecurityAlertService securityAlertService;
+    private final RateLimitingService rateLimitingService;
+    private final SecurityProperties securityProperties;
+
+    @EventListener
+    public void onSuspiciousActivity(SuspiciousActivityDetectedEvent event) {
+        securityAlertService.sendBruteForceAlert(event.ipAddress(), event.username(), event.attemptCount());
+
+        if (event.ipAddress() == null) {
+            return;
+        }
+        try {
+            rateLimitingService.blockIpTemporarily(event.ipAddress(),
+                    Duration.ofSeconds(securityProperties.getDetection().getBlockDurationSeconds()));
+        } catch (Exception e) {
+            log.error("Failed to block suspicious IP {}", event.ipAddress(), e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+-- V12__Partition_Audit_Events.sql
+-- Convert audit_events to native monthly range partitioning on "timestamp".
+-- Retention then drops whole partitions instead of running large DELETEs.
+
+-- =====================================================
+-- Move the existing table out of the way
+-- =====================================================
+ALTER TABLE audit_events RENAME TO audit_events_legacy;
+-- A partition cannot keep its own primary key; the parent's (id, timestamp) key replaces it
+ALTER TABLE audit_events_legacy DROP CONSTRAINT audit_events_pkey;
+
+ALTER INDEX IF EXISTS idx_audit_event_type RENAME TO idx_audit_legacy_event_type;
+ALTER INDEX IF EXISTS idx_audit_username RENAME TO idx_audit_legacy_username;
+ALTER INDEX IF EXISTS idx_audit_timestamp RENAME TO idx_audit_legacy_timestamp;
+ALTER INDEX IF EXISTS idx_audit_severity RENAME TO idx_audit_legacy_severity;
+ALTER INDEX IF EXISTS idx_audit_ip_address RENAME TO idx_audit_legacy_ip_address;
+
+-- =====================================================
+-- Create the partitioned parent
+-- =====================================================
+CREATE TABLE audit_events (LIKE audit_events_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (timestamp);
+
+-- The partition key has to be part of the primary key
+ALTER TABLE audit_events ADD CONSTRAINT audit_events_pkey PRIMARY KEY (id, timestamp);
+
+-- Keep the id sequence alive when the legacy partition is eventually dropped
+ALTER SEQUENCE IF EXISTS audit_events_id_seq OWNED BY audit_events.id;
+
+CREATE INDEX idx_audit_event_type ON audit_events(event_type);
+CREATE INDEX idx_audit_username ON audit_events(username);
+CREATE INDEX idx_audit_timestamp ON audit_events(timestamp);
+CREATE INDEX idx_audit_severity ON audit_events(severity);
+CREATE INDEX idx_audit_ip_address ON audit_events(ip_address);
+
+-- =====================================================
+-- Attach existing rows as one partition and pre-create monthly partitions
+-- =====================================================
+DO $$
+DECLARE
+    next_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '1 month')::DATE;
+    month_start DATE;
+BEGIN
+    -- Validates the range up front so ATTACH does not need a second scan under lock
+    EXECUTE format(
+        'ALTER TABLE audit_events_legacy ADD CONSTRAINT audit_events_legacy_range CHECK (timestamp IS NOT NULL AND timestamp < %L)',
+        next_month);
+    EXECUTE format(
+        'ALTER TABLE audit_events ATTACH PARTITION audit_events_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+        next_month);
+
+    FOR i IN 0..2 LOOP
+        month_start := (next_month + make_interval(months => i))::DATE;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_events FOR VALUES FROM (%L) TO (%L)',
+            'audit_events_p' || to_char(month_start, 'YYYYMM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::DATE);
+    END LOOP;
+END $$;
+
+-- Catches rows outside every range if partition maintenance falls behind
+CREATE TABLE IF NOT EXISTS audit_events_default PARTITION OF audit_events DEFAULT;
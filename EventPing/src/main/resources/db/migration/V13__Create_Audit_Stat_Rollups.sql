@@ -0,0 +1,42 @@
+-- V13__Create_Audit_Stat_Rollups.sql
+-- Incremental per-minute and per-hour audit counts, maintained by the audit writer,
+-- so statistics read a few hundred rollup rows instead of scanning audit_events.
+
+CREATE TABLE audit_stat_rollups (
+    granularity VARCHAR(10) NOT NULL,      -- MINUTE or HOUR
+    bucket_start TIMESTAMP NOT NULL,
+    dimension VARCHAR(20) NOT NULL,        -- EVENT_TYPE, SEVERITY, USERNAME or IP_ADDRESS
+    dimension_value VARCHAR(255) NOT NULL,
+    event_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (granularity, bucket_start, dimension, dimension_value)
+);
+
+CREATE INDEX idx_audit_rollups_dimension ON audit_stat_rollups(dimension, granularity, bucket_start);
+
+-- =====================================================
+-- Backfill from the existing audit log
+-- =====================================================
+INSERT INTO audit_stat_rollups (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'HOUR', date_trunc('hour', timestamp), d.dimension, d.dimension_value, COUNT(*)
+FROM audit_events
+CROSS JOIN LATERAL (VALUES
+    ('EVENT_TYPE', event_type),
+    ('SEVERITY', severity),
+    ('USERNAME', username),
+    ('IP_ADDRESS', ip_address)
+) AS d(dimension, dimension_value)
+WHERE d.dimension_value IS NOT NULL
+GROUP BY 2, 3, 4;
+
+INSERT INTO audit_stat_rollups (granularity, bucket_start, dimension, dimension_value, event_count)
+SELECT 'MINUTE', date_trunc('minute', timestamp), d.dimension, d.dimension_value, COUNT(*)
+FROM audit_events
+CROSS JOIN LATERAL (VALUES
+    ('EVENT_TYPE', event_type),
+    ('SEVERITY', severity),
+    ('USERNAME', username),
+    ('IP_ADDRESS', ip_address)
+) AS d(dimension, dimension_value)
+WHERE d.dimension_value IS NOT NULL
+  AND timestamp >= CURRENT_TIMESTAMP - INTERVAL '48 hours'
+GROUP BY 2, 3, 4;
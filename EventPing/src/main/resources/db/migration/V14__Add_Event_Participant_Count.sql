@@ -0,0 +1,17 @@
+-- V14__Add_Event_Participant_Count.sql
+-- Denormalized count of subscribed participants per event. Joins reserve a slot with a
+-- conditional UPDATE ... RETURNING, so capacity checks no longer count participants.
+
+ALTER TABLE events ADD COLUMN participant_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE events e
+SET participant_count = c.participant_count
+FROM (
+    SELECT event_id, COUNT(*) AS participant_count
+    FROM participants
+    WHERE unsubscribed = false
+    GROUP BY event_id
+) c
+WHERE e.id = c.event_id;
+
+ALTER TABLE events ADD CONSTRAINT chk_events_participant_count CHECK (participant_count >= 0);
@@ -0,0 +1,7 @@
+-- V15__Index_Events_By_Creator_Keyset.sql
+-- Supports keyset pagination of a creator's events ordered by (created_at, id) descending.
+-- The leading creator_id column also covers the old single-column index.
+
+CREATE INDEX idx_events_creator_created ON events(creator_id, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_events_creator_id;
@@ -0,0 +1,24 @@
+-- V16__Unique_Participant_Email_Per_Event.sql
+-- One registration per email per event, enforced by the database so concurrent joins
+-- cannot both pass the application-level duplicate check.
+
+-- Keep the earliest registration of any duplicates; their reminders and responses cascade
+DELETE FROM participants p
+USING participants earlier
+WHERE p.event_id = earlier.event_id
+  AND p.email = earlier.email
+  AND p.id > earlier.id;
+
+ALTER TABLE participants ADD CONSTRAINT uq_participants_event_email UNIQUE (event_id, email);
+
+-- Covered by the unique constraint's index
+DROP INDEX IF EXISTS idx_participants_event_email;
+
+-- Removed duplicates were counted in the denormalized counter
+UPDATE events e
+SET participant_count = (
+    SELECT COUNT(*) FROM participants p WHERE p.event_id = e.id AND p.unsubscribed = false
+)
+WHERE e.participant_count <> (
+    SELECT COUNT(*) FROM participants p WHERE p.event_id = e.id AND p.unsubscribed = false
+);
@@ -0,0 +1,15 @@
+-- V17__Pooled_Id_Sequences.sql
+-- High-volume entities now take ids from their sequences through Hibernate's pooled
+-- optimizer (allocationSize = 50), which lets Hibernate batch their inserts. A pooled
+-- sequence must advance by the allocation size: each nextval reserves the 50 ids
+-- ending at the returned value.
+--
+-- The columns keep their nextval defaults, so plain SQL inserts still work; they
+-- simply consume a whole block per row and never collide with Hibernate's blocks.
+
+ALTER SEQUENCE participants_id_seq INCREMENT BY 50;
+ALTER SEQUENCE reminders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE registration_responses_id_seq INCREMENT BY 50;
+ALTER SEQUENCE event_custom_fields_id_seq INCREMENT BY 50;
+ALTER SEQUENCE event_integrations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE audit_events_id_seq INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- V18__Add_Participant_Phone_Number.sql
+-- The column was only ever created by Hibernate's ddl-auto; bulk imports write it with plain SQL.
+
+ALTER TABLE participants ADD COLUMN IF NOT EXISTS phone_number VARCHAR(255);
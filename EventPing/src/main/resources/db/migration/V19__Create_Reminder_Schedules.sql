@@ -0,0 +1,21 @@
+-- V19__Create_Reminder_Schedules.sql
+-- Event-level reminder schedules: one row per event, channel and send time instead of one
+-- reminders row per participant. The dispatcher expands a due schedule into sends by paging
+-- through the event's participants by id; last_participant_id is its resume cursor.
+
+CREATE TABLE reminder_schedules (
+    id BIGSERIAL PRIMARY KEY,
+    event_id BIGINT NOT NULL,
+    send_at TIMESTAMP NOT NULL,
+    channel VARCHAR(255) NOT NULL,
+    last_participant_id BIGINT NOT NULL DEFAULT 0,
+    completed_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_reminder_schedules_event FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE,
+    CONSTRAINT uq_reminder_schedules_event_send_at_channel UNIQUE (event_id, send_at, channel)
+);
+
+CREATE INDEX idx_reminder_schedules_due ON reminder_schedules(send_at) WHERE completed_at IS NULL;
+
+-- Keyset pages of an event's participants in id order
+CREATE INDEX IF NOT EXISTS idx_participants_event_id_id ON participants(event_id, id);
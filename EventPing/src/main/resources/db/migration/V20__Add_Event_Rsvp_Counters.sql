@@ -0,0 +1,25 @@
+-- V20__Add_Event_Rsvp_Counters.sql
+-- Denormalized per-status RSVP counts per event, kept up to date by joins, imports and
+-- RSVP changes, so the RSVP summary no longer loads the event's participants.
+
+ALTER TABLE events ADD COLUMN rsvp_attending_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN rsvp_not_attending_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE events ADD COLUMN rsvp_tentative_count INTEGER NOT NULL DEFAULT 0;
+
+UPDATE events e
+SET rsvp_attending_count = c.attending,
+    rsvp_not_attending_count = c.not_attending,
+    rsvp_tentative_count = c.tentative
+FROM (
+    SELECT event_id,
+           COUNT(*) FILTER (WHERE rsvp_status = 'ATTENDING') AS attending,
+           COUNT(*) FILTER (WHERE rsvp_status = 'NOT_ATTENDING') AS not_attending,
+           COUNT(*) FILTER (WHERE rsvp_status = 'TENTATIVE') AS tentative
+    FROM participants
+    GROUP BY event_id
+) c
+WHERE e.id = c.event_id;
+
+ALTER TABLE events ADD CONSTRAINT chk_events_rsvp_counts CHECK (
+    rsvp_attending_count >= 0 AND rsvp_not_attending_count >= 0 AND rsvp_tentative_count >= 0
+);
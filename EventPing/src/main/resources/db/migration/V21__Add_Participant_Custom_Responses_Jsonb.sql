@@ -0,0 +1,17 @@
+-- V21__Add_Participant_Custom_Responses_Jsonb.sql
+-- Custom-field answers as one JSONB document per participant, keyed by custom field id,
+-- written with the participant row itself. jsonb_path_ops keeps the GIN index small and
+-- serves the containment filters organizers use (custom_responses @> '{"12": "Option X"}').
+
+ALTER TABLE participants ADD COLUMN custom_responses JSONB;
+
+UPDATE participants p
+SET custom_responses = r.responses
+FROM (
+    SELECT participant_id, jsonb_object_agg(custom_field_id::text, response_value) AS responses
+    FROM registration_responses
+    GROUP BY participant_id
+) r
+WHERE p.id = r.participant_id;
+
+CREATE INDEX idx_participants_custom_responses ON participants USING gin (custom_responses jsonb_path_ops);
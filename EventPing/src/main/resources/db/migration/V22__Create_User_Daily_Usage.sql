@@ -0,0 +1,20 @@
+-- V22__Create_User_Daily_Usage.sql
+-- Per-user, per-day usage counters. Event creation takes a unit of the daily quota with one
+-- conditional upsert, so the quota check no longer counts the user's events and concurrent
+-- requests cannot overshoot the plan's maxEventsPerDay.
+
+CREATE TABLE user_daily_usage (
+    user_id BIGINT NOT NULL,
+    usage_date DATE NOT NULL,
+    events_created INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT pk_user_daily_usage PRIMARY KEY (user_id, usage_date),
+    CONSTRAINT fk_user_daily_usage_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT chk_user_daily_usage_events_created CHECK (events_created >= 0)
+);
+
+-- Carry today's usage over so the deploy does not hand out a fresh quota
+INSERT INTO user_daily_usage (user_id, usage_date, events_created)
+SELECT creator_id, CURRENT_DATE, COUNT(*)
+FROM events
+WHERE created_at >= CURRENT_DATE
+GROUP BY creator_id;
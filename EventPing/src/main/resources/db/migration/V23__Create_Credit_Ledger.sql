@@ -0,0 +1,18 @@
+-- V23__Create_Credit_Ledger.sql
+-- Append-only ledger of credit debits. Debits are accumulated in memory per user and
+-- flushed in batches: each flush appends one row per user and adds the same amounts to
+-- users.monthly_credits_used, which stays the running total for the current month.
+
+CREATE TABLE credit_ledger (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    amount INTEGER NOT NULL,
+    reason VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_credit_ledger_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_credit_ledger_user_created_at ON credit_ledger(user_id, created_at);
+
+-- The monthly reset selects users by their last reset
+CREATE INDEX IF NOT EXISTS idx_users_last_usage_reset_at ON users(last_usage_reset_at);
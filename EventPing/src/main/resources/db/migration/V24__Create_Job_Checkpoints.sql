@@ -0,0 +1,11 @@
+-- V24__Create_Job_Checkpoints.sql
+-- Resume points for long-running batch jobs. A job advances its cursor after every chunk it
+-- commits, so a run cut short by a restart carries on from the last committed chunk.
+
+CREATE TABLE job_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    last_id BIGINT NOT NULL DEFAULT 0,
+    run_started_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
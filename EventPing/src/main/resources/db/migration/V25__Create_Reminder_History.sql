@@ -0,0 +1,18 @@
+-- V25__Create_Reminder_History.sql
+-- Optional archive for reminders removed by the cleanup job. Each cleanup batch is stored as
+-- one row whose reminders column holds the whole batch as a JSONB array; values that large
+-- are compressed by TOAST, so the archive takes a fraction of the space of the live rows.
+
+CREATE TABLE reminder_history (
+    id BIGSERIAL PRIMARY KEY,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    first_reminder_id BIGINT NOT NULL,
+    last_reminder_id BIGINT NOT NULL,
+    reminder_count INTEGER NOT NULL,
+    reminders JSONB NOT NULL
+);
+
+CREATE INDEX idx_reminder_history_archived_at ON reminder_history(archived_at);
+
+-- Cleanup batches pick the oldest sent reminders
+CREATE INDEX IF NOT EXISTS idx_reminders_sent_at ON reminders(sent_at) WHERE sent = true;
@@ -0,0 +1,74 @@
+-- V26__Partition_Reminders.sql
+-- Convert reminders to native monthly range partitioning on send_at. Dispatch then only
+-- touches the partitions around now, and cleanup drops whole expired partitions instead
+-- of deleting rows out of a table that also holds every future reminder.
+
+-- =====================================================
+-- Move the existing table out of the way
+-- =====================================================
+ALTER TABLE reminders RENAME TO reminders_legacy;
+-- A partition cannot keep its own primary key; the parent's (id, send_at) key replaces it
+ALTER TABLE reminders_legacy DROP CONSTRAINT reminders_pkey;
+-- Matching foreign keys are merged into the parent's on ATTACH
+ALTER TABLE reminders_legacy RENAME CONSTRAINT fk_reminders_event TO fk_reminders_legacy_event;
+ALTER TABLE reminders_legacy RENAME CONSTRAINT fk_reminders_participant TO fk_reminders_legacy_participant;
+
+ALTER INDEX IF EXISTS idx_reminders_event_id RENAME TO idx_reminders_legacy_event_id;
+ALTER INDEX IF EXISTS idx_reminders_participant_id RENAME TO idx_reminders_legacy_participant_id;
+ALTER INDEX IF EXISTS idx_reminders_send_at_sent RENAME TO idx_reminders_legacy_send_at_sent;
+ALTER INDEX IF EXISTS idx_reminders_sent_at RENAME TO idx_reminders_legacy_sent_at;
+
+-- =====================================================
+-- Create the partitioned parent
+-- =====================================================
+CREATE TABLE reminders (LIKE reminders_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (send_at);
+
+-- The partition key has to be part of the primary key
+ALTER TABLE reminders ADD CONSTRAINT reminders_pkey PRIMARY KEY (id, send_at);
+ALTER TABLE reminders ADD CONSTRAINT fk_reminders_event
+    FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE;
+ALTER TABLE reminders ADD CONSTRAINT fk_reminders_participant
+    FOREIGN KEY (participant_id) REFERENCES participants(id) ON DELETE CASCADE;
+
+-- Keep the id sequence alive when the legacy partition is eventually dropped
+ALTER SEQUENCE IF EXISTS reminders_id_seq OWNED BY reminders.id;
+
+CREATE INDEX idx_reminders_event_id ON reminders(event_id);
+CREATE INDEX idx_reminders_participant_id ON reminders(participant_id);
+CREATE INDEX idx_reminders_send_at_sent ON reminders(send_at, sent) WHERE sent = false;
+CREATE INDEX idx_reminders_sent_at ON reminders(sent_at) WHERE sent = true;
+
+-- =====================================================
+-- Attach existing rows as one partition and pre-create monthly partitions
+-- =====================================================
+DO $$
+DECLARE
+    -- Existing reminders may be scheduled months ahead; the legacy range covers all of them
+    legacy_end DATE := GREATEST(
+        (date_trunc('month', CURRENT_DATE) + INTERVAL '1 month')::DATE,
+        COALESCE((SELECT (date_trunc('month', MAX(send_at)) + INTERVAL '1 month')::DATE FROM reminders_legacy),
+                 '-infinity'::DATE));
+    month_start DATE;
+BEGIN
+    -- Validates the range up front so ATTACH does not need a second scan under lock
+    EXECUTE format(
+        'ALTER TABLE reminders_legacy ADD CONSTRAINT reminders_legacy_range CHECK (send_at IS NOT NULL AND send_at < %L)',
+        legacy_end);
+    EXECUTE format(
+        'ALTER TABLE reminders ATTACH PARTITION reminders_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+        legacy_end);
+
+    FOR i IN 0..11 LOOP
+        month_start := (legacy_end + make_interval(months => i))::DATE;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF reminders FOR VALUES FROM (%L) TO (%L)',
+            'reminders_p' || to_char(month_start, 'YYYYMM'),
+            month_start,
+            (month_start + INTERVAL '1 month')::DATE);
+    END LOOP;
+END $$;
+
+-- Catches reminders scheduled beyond the pre-made months; the partition manager moves them
+-- out when their month's partition is created
+CREATE TABLE IF NOT EXISTS reminders_default PARTITION OF reminders DEFAULT;
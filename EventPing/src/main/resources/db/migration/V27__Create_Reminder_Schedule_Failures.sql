@@ -0,0 +1,19 @@
+-- V27__Create_Reminder_Schedule_Failures.sql
+-- Recipients a schedule page failed to reach. The page's cursor still moves on so one bad
+-- recipient cannot stall the event; the failure is written in the same transaction and the
+-- dispatcher retries it until it is sent or runs out of attempts. Rows that ran out stay as
+-- the record of reminders that never went out.
+
+CREATE TABLE reminder_schedule_failures (
+    schedule_id BIGINT NOT NULL,
+    participant_id BIGINT NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 1,
+    last_error VARCHAR(500),
+    next_attempt_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_reminder_schedule_failures PRIMARY KEY (schedule_id, participant_id),
+    CONSTRAINT fk_reminder_schedule_failures_schedule FOREIGN KEY (schedule_id) REFERENCES reminder_schedules(id) ON DELETE CASCADE,
+    CONSTRAINT fk_reminder_schedule_failures_participant FOREIGN KEY (participant_id) REFERENCES participants(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_reminder_schedule_failures_next_attempt ON reminder_schedule_failures(next_attempt_at);
@@ -0,0 +1,77 @@
+package thomas.com.EventPing;
+
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.SequenceGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import thomas.com.EventPing.event.model.EventCustomField;
+import thomas.com.EventPing.event.model.EventIntegration;
+import thomas.com.EventPing.participant.model.Participant;
+import thomas.com.EventPing.participant.model.RegistrationResponse;
+import thomas.com.EventPing.reminder.model.Reminder;
+import thomas.com.EventPing.security.entity.AuditEvent;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests checking that pooled entity ids match the sequence increments set by the
+ * migrations. Hibernate's pooled optimizer reads each nextval as the end of a block of
+ * allocationSize ids, so a sequence that advances by less hands out ids twice.
+ */
+class PooledSequenceMappingTest {
+
+    private static final Pattern INCREMENT =
+            Pattern.compile("ALTER SEQUENCE (\\w+) INCREMENT BY (\\d+)", Pattern.CASE_INSENSITIVE);
+
+    @ParameterizedTest
+    @ValueSource(classes = {Reminder.class, Participant.class, RegistrationResponse.class,
+            EventCustomField.class, EventIntegration.class, AuditEvent.class})
+    @DisplayName("Should allocate ids in blocks the size of the sequence increment")
+    void shouldMatchSequenceIncrement(Class<?> entity) throws Exception {
+        Field id = entity.getDeclaredField("id");
+        GeneratedValue generatedValue = id.getAnnotation(GeneratedValue.class);
+        SequenceGenerator generator = id.getAnnotation(SequenceGenerator.class);
+
+        assertEquals(GenerationType.SEQUENCE, generatedValue.strategy());
+        assertNotNull(generator);
+        assertEquals(generator.name(), generatedValue.generator());
+        assertTrue(generator.allocationSize() > 1, "ids must be pooled so inserts can be batched");
+        assertEquals(generator.allocationSize(), sequenceIncrements().get(generator.sequenceName()),
+                generator.sequenceName() + " must advance by the allocation size");
+    }
+
+    // The last migration to set a sequence's increment wins
+    private static Map<String, Integer> sequenceIncrements() throws IOException {
+        Resource[] migrations = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:db/migration/V*__*.sql");
+        Arrays.sort(migrations, Comparator.comparingInt(PooledSequenceMappingTest::version));
+
+        Map<String, Integer> increments = new HashMap<>();
+        for (Resource migration : migrations) {
+            Matcher matcher = INCREMENT.matcher(migration.getContentAsString(StandardCharsets.UTF_8));
+            while (matcher.find()) {
+                increments.put(matcher.group(1), Integer.parseInt(matcher.group(2)));
+            }
+        }
+        return increments;
+    }
+
+    private static int version(Resource migration) {
+        String name = migration.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+}
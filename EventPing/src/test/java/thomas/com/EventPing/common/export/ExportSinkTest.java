@@ -0,0 +1,61 @@
+package thomas.com.EventPing.common.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the shared CSV and NDJSON export sinks
+ */
+class ExportSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should write nested fields as further CSV columns and escape every value")
+    void shouldFlattenCsv() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ExportSink sink = ExportSink.csv(out, List.of("id", "email", "+Diet"))) {
+            writeRecord(sink);
+        }
+
+        assertEquals("id,email,\"'+Diet\"\r\n-4,\"'-a@example.com\",\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line with nested objects")
+    void shouldNestNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ExportSink sink = ExportSink.ndjson(out, objectMapper)) {
+            writeRecord(sink);
+            writeRecord(sink);
+        }
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        JsonNode record = objectMapper.readTree(lines.get(0));
+        assertEquals(-4L, record.get("id").asLong());
+        assertEquals("-a@example.com", record.get("email").asText());
+        assertTrue(record.get("responses").get("+Diet").isNull());
+    }
+
+    private static void writeRecord(ExportSink sink) throws IOException {
+        sink.startRecord();
+        sink.field("id", -4L);
+        sink.field("email", "-a@example.com");
+        sink.startObject("responses");
+        sink.field("+Diet", (String) null);
+        sink.endObject();
+        sink.endRecord();
+    }
+}
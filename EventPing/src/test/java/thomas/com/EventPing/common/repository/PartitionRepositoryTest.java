@@ -0,0 +1,110 @@
+package thomas.com.EventPing.common.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for partition bound parsing, month planning and partition creation shared by the
+ * partition managers
+ */
+class PartitionRepositoryTest {
+
+    @Test
+    @DisplayName("Should move rows out of the default partition before attaching a new month")
+    void shouldMoveDefaultRowsBeforeAttach() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(anyString())).thenReturn(3);
+        PartitionRepository repository = new PartitionRepository(jdbcTemplate);
+
+        int moved = repository.createPartitionFromDefault("audit_events", "audit_events_default", "timestamp",
+                "audit_events_p203005", LocalDateTime.of(2030, 5, 1, 0, 0), LocalDateTime.of(2030, 6, 1, 0, 0));
+
+        assertEquals(3, moved);
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS audit_events_p203005 (LIKE"));
+        inOrder.verify(jdbcTemplate).update(and(contains("DELETE FROM audit_events_default"),
+                contains("INSERT INTO audit_events_p203005")));
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE audit_events ATTACH PARTITION audit_events_p203005 " +
+                "FOR VALUES FROM ('2030-05-01 00:00:00.0') TO ('2030-06-01 00:00:00.0')");
+        verify(jdbcTemplate, never()).execute(contains("PARTITION OF"));
+    }
+
+    @Test
+    @DisplayName("Should parse a bounded monthly range")
+    void shouldParseBoundedRange() {
+        PartitionRepository.PartitionRange range = PartitionRepository.PartitionRange.parse(
+                "audit_events_p202611",
+                "FOR VALUES FROM ('2026-11-01 00:00:00') TO ('2026-12-01 00:00:00')");
+
+        assertFalse(range.isDefault());
+        assertEquals(LocalDateTime.of(2026, 11, 1, 0, 0), range.lowerBound());
+        assertEquals(LocalDateTime.of(2026, 12, 1, 0, 0), range.upperBound());
+    }
+
+    @Test
+    @DisplayName("Should map MINVALUE and DEFAULT to open bounds")
+    void shouldParseOpenBounds() {
+        PartitionRepository.PartitionRange legacy = PartitionRepository.PartitionRange.parse(
+                "audit_events_legacy", "FOR VALUES FROM (MINVALUE) TO ('2026-11-01 00:00:00')");
+        PartitionRepository.PartitionRange fallback = PartitionRepository.PartitionRange.parse(
+                "audit_events_default", "DEFAULT");
+
+        assertNull(legacy.lowerBound());
+        assertEquals(LocalDateTime.of(2026, 11, 1, 0, 0), legacy.upperBound());
+        assertTrue(fallback.isDefault());
+        assertNull(fallback.upperBound());
+    }
+
+    @Test
+    @DisplayName("Should detect overlapping ranges but ignore the default partition")
+    void shouldDetectOverlaps() {
+        PartitionRepository.PartitionRange legacy = PartitionRepository.PartitionRange.parse(
+                "audit_events_legacy", "FOR VALUES FROM (MINVALUE) TO ('2026-11-01 00:00:00')");
+        PartitionRepository.PartitionRange fallback = PartitionRepository.PartitionRange.parse(
+                "audit_events_default", "DEFAULT");
+
+        LocalDateTime october = LocalDateTime.of(2026, 10, 1, 0, 0);
+        LocalDateTime november = LocalDateTime.of(2026, 11, 1, 0, 0);
+        LocalDateTime december = LocalDateTime.of(2026, 12, 1, 0, 0);
+
+        assertTrue(legacy.overlaps(october, november));
+        assertFalse(legacy.overlaps(november, december));
+        assertFalse(fallback.overlaps(october, november));
+    }
+
+    @Test
+    @DisplayName("Should only treat bounded ranges that end by the cutoff as expired")
+    void shouldDetectExpiredRanges() {
+        PartitionRepository.PartitionRange legacy = PartitionRepository.PartitionRange.parse(
+                "reminders_legacy", "FOR VALUES FROM (MINVALUE) TO ('2026-11-01 00:00:00')");
+        PartitionRepository.PartitionRange fallback = PartitionRepository.PartitionRange.parse(
+                "reminders_default", "DEFAULT");
+
+        assertTrue(legacy.endsBy(LocalDateTime.of(2026, 11, 1, 0, 0)));
+        assertFalse(legacy.endsBy(LocalDateTime.of(2026, 10, 31, 23, 59)));
+        assertFalse(fallback.endsBy(LocalDateTime.of(2099, 1, 1, 0, 0)));
+    }
+
+    @Test
+    @DisplayName("Should cover the current month plus the pre-made months")
+    void shouldPlanMonthsAhead() {
+        List<LocalDate> months = PartitionRepository.monthsToCover(LocalDate.of(2026, 11, 1), 3);
+
+        assertEquals(List.of(
+                LocalDate.of(2026, 11, 1),
+                LocalDate.of(2026, 12, 1),
+                LocalDate.of(2027, 1, 1),
+                LocalDate.of(2027, 2, 1)), months);
+    }
+}
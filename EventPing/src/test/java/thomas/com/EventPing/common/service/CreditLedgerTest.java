@@ -0,0 +1,191 @@
+package thomas.com.EventPing.common.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.repository.CreditLedgerRepository;
+import thomas.com.EventPing.config.CreditProperties;
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.plan.repository.PlanRepository;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for write-behind credit accounting
+ */
+class CreditLedgerTest {
+
+    private CreditLedgerRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private CreditLedger ledger;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CreditLedgerRepository.class);
+        PlanRepository planRepository = mock(PlanRepository.class);
+        Plan free = new Plan();
+        free.setId(1L);
+        free.setName(Plan.PlanName.FREE);
+        free.setReminderChannels("EMAIL");
+        free.setMonthlyCreditLimit(3);
+        when(planRepository.findAll()).thenReturn(List.of(free));
+        PlanEntitlementCache planEntitlementCache = new PlanEntitlementCache(planRepository);
+        planEntitlementCache.load();
+
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(i ->
+                i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        meterRegistry = new SimpleMeterRegistry();
+        ledger = new CreditLedger(repository, planEntitlementCache, transactionTemplate,
+                new CreditProperties(), meterRegistry);
+        when(repository.findUsage(7L)).thenReturn(Optional.of(new CreditLedgerRepository.Usage(7L, 1, 1L)));
+    }
+
+    @Test
+    @DisplayName("Should answer credit checks from the accumulator without writing")
+    void shouldCheckInMemory() {
+        assertTrue(ledger.hasCredits(7L));
+        ledger.debit(7L, 1);
+        assertTrue(ledger.hasCredits(7L));
+        ledger.debit(7L, 1);
+
+        assertFalse(ledger.hasCredits(7L));
+        verify(repository, times(1)).findUsage(7L);
+        verify(repository, never()).applyDebits(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should flush accumulated debits as one batch and keep the stored total")
+    void shouldFlushBatch() {
+        ledger.hasCredits(7L);
+        ledger.debit(7L, 1);
+        ledger.debit(7L, 1);
+        ledger.debit(8L, 1);
+        when(repository.applyDebits(any(), any(), eq(CreditLedger.REMINDER_REASON))).thenReturn(List.of(
+                new CreditLedgerRepository.Usage(7L, 3, 1L),
+                new CreditLedgerRepository.Usage(8L, 1, 1L)));
+
+        ledger.flush();
+
+        verify(repository).applyDebits(argThat(ids -> ids.length == 2), argThat(amounts ->
+                amounts[0] + amounts[1] == 3), eq(CreditLedger.REMINDER_REASON));
+        assertFalse(ledger.hasCredits(7L));
+    }
+
+    @Test
+    @DisplayName("Should put debits back when a flush fails")
+    void shouldRetryFailedFlush() {
+        ledger.debit(7L, 2);
+        when(repository.applyDebits(any(), any(), any()))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(List.of(new CreditLedgerRepository.Usage(7L, 3, 1L)));
+
+        ledger.flush();
+        ledger.flush();
+
+        verify(repository, times(2)).applyDebits(any(), argThat(amounts -> amounts[0] == 2), any());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch one user at a time and drop the row that cannot apply")
+    void shouldDropRowThatFailsAlone() {
+        ledger.debit(7L, 1);
+        ledger.debit(8L, 2);
+        ledger.debit(9L, 1);
+        // User 8 no longer exists, so the batch and then 8's own row fail
+        doAnswer(i -> {
+            Long[] ids = i.getArgument(0);
+            if (List.of(ids).contains(8L)) {
+                throw new DataIntegrityViolationException("violates foreign key constraint");
+            }
+            return List.of();
+        }).when(repository).applyDebits(any(), any(), any());
+
+        ledger.flush();
+        ledger.flush();
+
+        verify(repository, times(4)).applyDebits(any(), any(), any());
+        assertEquals(2.0, meterRegistry.counter("eventping.credits.dropped").count());
+        assertEquals(2.0, meterRegistry.counter("eventping.credits.flushed").count());
+    }
+
+    @Test
+    @DisplayName("Should put the rest of a batch back when the database is unavailable")
+    void shouldStopRetryingRowsWhenDatabaseIsDown() {
+        ledger.debit(7L, 1);
+        ledger.debit(8L, 2);
+        when(repository.applyDebits(any(), any(), any()))
+                .thenThrow(new CannotGetJdbcConnectionException("connection refused"));
+
+        ledger.flush();
+
+        // The batch, then the first user alone; the second is not tried
+        verify(repository, times(2)).applyDebits(any(), any(), any());
+        assertEquals(0.0, meterRegistry.counter("eventping.credits.dropped").count());
+
+        clearInvocations(repository);
+        doReturn(List.of()).when(repository).applyDebits(any(), any(), any());
+        ledger.flush();
+        verify(repository).applyDebits(argThat(ids -> ids.length == 2), argThat(amounts ->
+                amounts[0] + amounts[1] == 3), any());
+    }
+
+    @Test
+    @DisplayName("Should re-read the total after a reset and keep unflushed debits")
+    void shouldReloadUsageOnReset() {
+        when(repository.findUsage(7L)).thenReturn(
+                Optional.of(new CreditLedgerRepository.Usage(7L, 2, 1L)),
+                Optional.of(new CreditLedgerRepository.Usage(7L, 0, 1L)));
+        ledger.hasCredits(7L);
+        ledger.debit(7L, 1);
+        assertFalse(ledger.hasCredits(7L));
+
+        ledger.usageReset(List.of(7L));
+
+        // 0 stored after the reset plus the 1 debit still waiting for a flush
+        assertTrue(ledger.hasCredits(7L));
+        ledger.debit(7L, 2);
+        assertFalse(ledger.hasCredits(7L));
+
+        when(repository.applyDebits(any(), any(), any())).thenReturn(List.of());
+        ledger.flush();
+        verify(repository).applyDebits(any(), argThat(amounts -> amounts[0] == 3), any());
+    }
+
+    @Test
+    @DisplayName("Should write each debit once when flushes overlap")
+    void shouldNotDoubleWriteOnConcurrentFlush() throws Exception {
+        ledger.debit(7L, 2);
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.applyDebits(any(), any(), any())).thenAnswer(i -> {
+            applying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new CreditLedgerRepository.Usage(7L, 3, 1L));
+        });
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(ledger::flush);
+        assertTrue(applying.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(ledger::flush);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        verify(repository, times(1)).applyDebits(any(), any(), any());
+    }
+}
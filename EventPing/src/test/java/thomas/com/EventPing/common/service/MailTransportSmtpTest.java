@@ -0,0 +1,103 @@
+package thomas.com.EventPing.common.service;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import thomas.com.EventPing.config.MailDeliveryProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends through a local GreenMail SMTP server to check delivery and how many connections a
+ * send opens
+ */
+class MailTransportSmtpTest {
+
+    private static final int MESSAGES = 300;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("reminders", "secret"))
+            .withPerMethodLifecycle(true);
+
+    private JavaMailSenderImpl mailSender;
+    private AtomicInteger connections;
+
+    @BeforeEach
+    void setUp() {
+        connections = new AtomicInteger();
+        mailSender = new JavaMailSenderImpl() {
+            @Override
+            protected Transport connectTransport() throws MessagingException {
+                connections.incrementAndGet();
+                return super.connectTransport();
+            }
+        };
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setUsername("reminders");
+        mailSender.setPassword("secret");
+        mailSender.getJavaMailProperties().put("mail.smtp.auth", "true");
+    }
+
+    @Test
+    @DisplayName("Should deliver every message of a batched send")
+    void shouldDeliverBatches() throws Exception {
+        MailTransport transport = transport(100);
+
+        assertTrue(transport.send(messages(MESSAGES)).isEmpty());
+
+        assertTrue(greenMail.waitForIncomingEmail(10_000, MESSAGES));
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertEquals("Reminder 0", received.getSubject());
+    }
+
+    @Test
+    @DisplayName("Should open one SMTP connection per batch rather than per message")
+    void shouldReuseConnectionsWithinBatch() throws Exception {
+        assertTrue(transport(100).send(messages(MESSAGES)).isEmpty());
+        assertTrue(greenMail.waitForIncomingEmail(10_000, MESSAGES));
+        assertEquals(MESSAGES / 100, connections.get());
+
+        greenMail.purgeEmailFromAllMailboxes();
+        connections.set(0);
+
+        assertTrue(transport(1).send(messages(MESSAGES)).isEmpty());
+        assertTrue(greenMail.waitForIncomingEmail(10_000, MESSAGES));
+        assertEquals(MESSAGES, connections.get());
+    }
+
+    private MailTransport transport(int batchSize) {
+        MailDeliveryProperties properties = new MailDeliveryProperties();
+        properties.setBatchSize(batchSize);
+        return new MailTransport(mailSender, properties, new SimpleMeterRegistry());
+    }
+
+    private List<MimeMessage> messages(int count) throws MessagingException {
+        List<MimeMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+            helper.setFrom("reminders@eventping.app");
+            helper.setTo("participant" + i + "@example.com");
+            helper.setSubject("Reminder " + i);
+            helper.setText("Event starts soon");
+            messages.add(message);
+        }
+        return messages;
+    }
+}
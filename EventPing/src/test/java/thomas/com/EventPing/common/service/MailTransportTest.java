@@ -0,0 +1,115 @@
+package thomas.com.EventPing.common.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import thomas.com.EventPing.config.MailDeliveryProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for batched SMTP sends and the per-host connection cap
+ */
+class MailTransportTest {
+
+    private JavaMailSender mailSender;
+    private MailDeliveryProperties properties;
+    private MailTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = mock(JavaMailSender.class);
+        properties = new MailDeliveryProperties();
+        properties.setBatchSize(2);
+        transport = new MailTransport(mailSender, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should send messages in connection-sized batches")
+    void shouldSendInBatches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(i -> batchSizes.add(((MimeMessage[]) i.getRawArguments()[0]).length))
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        Map<MimeMessage, Exception> failures = transport.send(messages(5));
+
+        assertTrue(failures.isEmpty());
+        assertEquals(List.of(2, 2, 1), batchSizes);
+    }
+
+    @Test
+    @DisplayName("Should report only the messages the server rejected")
+    void shouldReportRejectedMessages() {
+        List<MimeMessage> messages = messages(2);
+        doThrow(new MailSendException(Map.of(messages.get(1), new RuntimeException("550"))))
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        Map<MimeMessage, Exception> failures = transport.send(messages);
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey(messages.get(1)));
+    }
+
+    @Test
+    @DisplayName("Should fail the whole batch when the connection cannot be authenticated")
+    void shouldFailBatchOnAuthentication() {
+        List<MimeMessage> messages = messages(3);
+        doThrow(new MailAuthenticationException("535")).doNothing()
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        Map<MimeMessage, Exception> failures = transport.send(messages);
+
+        assertEquals(2, failures.size());
+        assertFalse(failures.containsKey(messages.get(2)));
+    }
+
+    @Test
+    @DisplayName("Should not open more connections to a host than allowed")
+    void shouldCapConnectionsPerHost() throws Exception {
+        properties.setMaxConnectionsPerHost(1);
+        properties.setAcquireTimeoutMs(50);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(i -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        CompletableFuture<Map<MimeMessage, Exception>> first =
+                CompletableFuture.supplyAsync(() -> transport.send(messages(1)));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        // The only connection is busy, so this batch times out waiting for it
+        assertEquals(1, transport.send(messages(1)).size());
+
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).isEmpty());
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+    }
+
+    private static List<MimeMessage> messages(int count) {
+        Session session = Session.getInstance(new Properties());
+        List<MimeMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(new MimeMessage(session));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,115 @@
+package thomas.com.EventPing.common.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.User.repository.CreditLedgerRepository;
+import thomas.com.EventPing.User.repository.UserDailyUsageRepository;
+import thomas.com.EventPing.config.CreditProperties;
+import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.plan.repository.PlanRepository;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the daily event quota and the monthly credit check
+ */
+class RateLimitServiceTest {
+
+    private UserDailyUsageRepository usageRepository;
+    private PlanEntitlementCache planEntitlementCache;
+    private RateLimitService service;
+    private Plan plan;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        usageRepository = mock(UserDailyUsageRepository.class);
+        planEntitlementCache = new PlanEntitlementCache(mock(PlanRepository.class));
+        service = new RateLimitService(mock(EventRepository.class), planEntitlementCache, usageRepository,
+                mock(CreditLedger.class));
+        plan = new Plan();
+        plan.setReminderChannels("EMAIL");
+        plan.setMaxEventsPerDay(3);
+        user = new User();
+        user.setId(7L);
+        user.setPlan(plan);
+    }
+
+    @Test
+    @DisplayName("Should take a unit of today's quota and report what is left")
+    void shouldReserveWithinLimit() {
+        when(usageRepository.reserveEvent(7L, LocalDate.now(), 3)).thenReturn(Optional.of(2));
+
+        DailyQuota quota = service.reserveDailyEvent(user);
+
+        assertTrue(quota.granted());
+        assertEquals(1, quota.remaining());
+    }
+
+    @Test
+    @DisplayName("Should refuse once the conditional increment finds the cap reached")
+    void shouldRefuseAtLimit() {
+        when(usageRepository.reserveEvent(eq(7L), any(), eq(3))).thenReturn(Optional.empty());
+
+        DailyQuota quota = service.reserveDailyEvent(user);
+
+        assertFalse(quota.granted());
+        assertEquals(0, quota.remaining());
+    }
+
+    @Test
+    @DisplayName("Should not count events on unlimited plans")
+    void shouldSkipCounterWhenUnlimited() {
+        plan.setMaxEventsPerDay(null);
+
+        DailyQuota quota = service.reserveDailyEvent(user);
+
+        assertTrue(quota.granted());
+        assertTrue(quota.isUnlimited());
+        verifyNoInteractions(usageRepository);
+    }
+
+    @Test
+    @DisplayName("Should refuse reminders once the month's credits are used up")
+    void shouldRefuseWhenCreditsExhausted() {
+        plan.setMonthlyCreditLimit(5);
+        user.setMonthlyCreditsUsed(5);
+
+        assertFalse(serviceWith(creditLedger()).hasCredits(user));
+    }
+
+    @Test
+    @DisplayName("Should allow reminders while credits remain, counting unflushed debits")
+    void shouldAllowWhileCreditsRemain() {
+        plan.setMonthlyCreditLimit(5);
+        user.setMonthlyCreditsUsed(3);
+        CreditLedger ledger = creditLedger();
+        RateLimitService withLedger = serviceWith(ledger);
+
+        assertTrue(withLedger.hasCredits(user));
+        ledger.debit(7L, 1);
+        assertTrue(withLedger.hasCredits(user));
+        ledger.debit(7L, 1);
+        assertFalse(withLedger.hasCredits(user));
+    }
+
+    private RateLimitService serviceWith(CreditLedger ledger) {
+        return new RateLimitService(mock(EventRepository.class), planEntitlementCache, usageRepository, ledger);
+    }
+
+    private CreditLedger creditLedger() {
+        return new CreditLedger(mock(CreditLedgerRepository.class), planEntitlementCache,
+                mock(TransactionTemplate.class), new CreditProperties(), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,87 @@
+package thomas.com.EventPing.common.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.repository.CreditLedgerRepository;
+import thomas.com.EventPing.common.repository.JobCheckpointRepository;
+import thomas.com.EventPing.config.CreditProperties;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the chunked, resumable monthly usage reset
+ */
+class UsageResetJobTest {
+
+    private CreditLedgerRepository creditLedgerRepository;
+    private JobCheckpointRepository checkpointRepository;
+    private CreditLedger creditLedger;
+    private SimpleMeterRegistry meterRegistry;
+    private UsageResetJob job;
+
+    @BeforeEach
+    void setUp() {
+        creditLedgerRepository = mock(CreditLedgerRepository.class);
+        checkpointRepository = mock(JobCheckpointRepository.class);
+        creditLedger = mock(CreditLedger.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(i ->
+                i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        CreditProperties properties = new CreditProperties();
+        properties.setResetChunkSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+        job = new UsageResetJob(creditLedgerRepository, checkpointRepository, creditLedger,
+                transactionTemplate, properties, meterRegistry);
+        when(creditLedgerRepository.findMaxUserId()).thenReturn(25L);
+        when(creditLedgerRepository.resetUsageInRange(anyLong(), anyLong(), any(), any())).thenReturn(List.of());
+    }
+
+    @Test
+    @DisplayName("Should reset users in id ranges and advance the checkpoint with each range")
+    void shouldResetInRanges() {
+        LocalDateTime started = LocalDateTime.of(2030, 6, 1, 1, 0);
+        when(checkpointRepository.find(UsageResetJob.JOB_NAME)).thenReturn(Optional.empty());
+        when(checkpointRepository.start(eq(UsageResetJob.JOB_NAME), any()))
+                .thenReturn(new JobCheckpointRepository.Checkpoint(UsageResetJob.JOB_NAME, 0, started, null));
+        when(creditLedgerRepository.resetUsageInRange(eq(10L), eq(20L), any(), any())).thenReturn(List.of(12L, 15L));
+
+        assertEquals(2, job.run());
+
+        InOrder order = inOrder(creditLedger, creditLedgerRepository, checkpointRepository);
+        order.verify(creditLedger).flush();
+        order.verify(creditLedgerRepository).resetUsageInRange(eq(0L), eq(10L), eq(started.minusDays(30)), any());
+        order.verify(checkpointRepository).advance(UsageResetJob.JOB_NAME, 10L);
+        order.verify(checkpointRepository).advance(UsageResetJob.JOB_NAME, 20L);
+        order.verify(creditLedgerRepository).resetUsageInRange(eq(20L), eq(25L), any(), any());
+        order.verify(checkpointRepository).advance(UsageResetJob.JOB_NAME, 25L);
+        order.verify(checkpointRepository).complete(UsageResetJob.JOB_NAME);
+        verify(creditLedger).usageReset(List.of(12L, 15L));
+        assertEquals(2.0, meterRegistry.counter("eventping.usage.reset.users").count());
+        assertEquals(3.0, meterRegistry.counter("eventping.usage.reset.chunks").count());
+    }
+
+    @Test
+    @DisplayName("Should resume an interrupted run from its checkpoint with the original cutoff")
+    void shouldResumeFromCheckpoint() {
+        LocalDateTime started = LocalDateTime.of(2030, 6, 1, 1, 0);
+        when(checkpointRepository.find(UsageResetJob.JOB_NAME)).thenReturn(Optional.of(
+                new JobCheckpointRepository.Checkpoint(UsageResetJob.JOB_NAME, 20L, started, null)));
+
+        job.run();
+
+        verify(checkpointRepository, never()).start(any(), any());
+        verify(creditLedgerRepository).resetUsageInRange(eq(20L), eq(25L), eq(started.minusDays(30)), any());
+        verify(creditLedgerRepository, times(1)).resetUsageInRange(anyLong(), anyLong(), any(), any());
+    }
+}
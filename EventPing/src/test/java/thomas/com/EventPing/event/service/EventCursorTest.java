@@ -0,0 +1,35 @@
+package thomas.com.EventPing.event.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.security.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the opaque event list cursor
+ */
+class EventCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip the keyset position through an URL-safe token")
+    void shouldRoundTrip() {
+        EventCursor cursor = new EventCursor(LocalDateTime.of(2030, 5, 1, 18, 0, 0, 123_456_000), 42L);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, EventCursor.decode(token));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered cursors as validation errors")
+    void shouldRejectInvalidCursor() {
+        assertThrows(ValidationException.class, () -> EventCursor.decode("not a cursor!"));
+        assertThrows(ValidationException.class, () -> EventCursor.decode("bm8tc2VwYXJhdG9y"));
+        assertThrows(ValidationException.class, () -> EventCursor.decode(
+                new EventCursor(LocalDateTime.of(2030, 1, 1, 0, 0), 1L).encode().substring(3)));
+    }
+}
@@ -0,0 +1,123 @@
+package thomas.com.EventPing.event.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.config.EventCacheProperties;
+import thomas.com.EventPing.event.dtos.EventResponseDto;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the slug-keyed event read cache
+ */
+class EventReadCacheTest {
+
+    private EventCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger eventLoads;
+    private AtomicInteger countLoads;
+    private AtomicLong participants;
+
+    @BeforeEach
+    void setUp() {
+        properties = new EventCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        eventLoads = new AtomicInteger();
+        countLoads = new AtomicInteger();
+        participants = new AtomicLong(3);
+    }
+
+    @Test
+    @DisplayName("Should load an event once and serve later reads from the cache")
+    void shouldCacheEventBySlug() {
+        EventReadCache cache = new EventReadCache(properties, meterRegistry);
+
+        EventResponseDto first = cache.getBySlug("abc123", eventLoader(), countLoader());
+        EventResponseDto second = cache.getBySlug("abc123", eventLoader(), countLoader());
+
+        assertEquals(1, eventLoads.get());
+        assertEquals(1, countLoads.get());
+        assertEquals(3L, second.getParticipantCount());
+        assertNotSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "eventsBySlug").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "eventsBySlug").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should refresh only the participant count after a join")
+    void shouldEvictParticipantCountOnly() {
+        EventReadCache cache = new EventReadCache(properties, meterRegistry);
+        cache.getBySlug("abc123", eventLoader(), countLoader());
+
+        participants.set(4);
+        cache.evictParticipantCount(42L);
+        EventResponseDto event = cache.getBySlug("abc123", eventLoader(), countLoader());
+
+        assertEquals(4L, event.getParticipantCount());
+        assertEquals(1, eventLoads.get());
+        assertEquals(2, countLoads.get());
+    }
+
+    @Test
+    @DisplayName("Should reload an event after it is evicted")
+    void shouldReloadAfterEviction() {
+        EventReadCache cache = new EventReadCache(properties, meterRegistry);
+        cache.getBySlug("abc123", eventLoader(), countLoader());
+
+        cache.evictEvent("abc123", 42L);
+        cache.getBySlug("abc123", eventLoader(), countLoader());
+
+        assertEquals(2, eventLoads.get());
+        assertEquals(2, countLoads.get());
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown slugs")
+    void shouldNotCacheMisses() {
+        EventReadCache cache = new EventReadCache(properties, meterRegistry);
+        Function<String, EventResponseDto> missing = slug -> {
+            eventLoads.incrementAndGet();
+            return null;
+        };
+
+        assertNull(cache.getBySlug("nope", missing, countLoader()));
+        assertNull(cache.getBySlug("nope", missing, countLoader()));
+        assertEquals(2, eventLoads.get());
+        assertEquals(0, countLoads.get());
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache when disabled")
+    void shouldBypassWhenDisabled() {
+        properties.setEnabled(false);
+        EventReadCache cache = new EventReadCache(properties, meterRegistry);
+
+        cache.getBySlug("abc123", eventLoader(), countLoader());
+        cache.getBySlug("abc123", eventLoader(), countLoader());
+
+        assertEquals(2, eventLoads.get());
+        assertEquals(2, countLoads.get());
+    }
+
+    private Function<String, EventResponseDto> eventLoader() {
+        return slug -> {
+            eventLoads.incrementAndGet();
+            return EventResponseDto.builder().id(42L).slug(slug).title("Launch party").build();
+        };
+    }
+
+    private Function<Long, Long> countLoader() {
+        return eventId -> {
+            countLoads.incrementAndGet();
+            return participants.get();
+        };
+    }
+}
@@ -0,0 +1,201 @@
+package thomas.com.EventPing.event.service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.data.domain.Limit;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.common.service.DailyQuota;
+import thomas.com.EventPing.common.service.RateLimitService;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.dtos.CreateEventRequest;
+import thomas.com.EventPing.event.dtos.CustomFieldDto;
+import thomas.com.EventPing.event.dtos.EventPageDto;
+import thomas.com.EventPing.event.dtos.EventResponseDto;
+import thomas.com.EventPing.event.mapper.EventMapper;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.event.model.EventCustomField;
+import thomas.com.EventPing.event.repository.EventCustomFieldRepository;
+import thomas.com.EventPing.event.repository.EventIntegrationRepository;
+import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.event.service.EventCursor;
+import thomas.com.EventPing.event.service.EventReadCache;
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.plan.repository.PlanRepository;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+import thomas.com.EventPing.reminder.repository.ReminderScheduleRepository;
+import thomas.com.EventPing.reminder.service.ReminderPlanner;
+import thomas.com.EventPing.security.service.AuditLoggingService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for creating events and keyset paging of a user's events
+ */
+class EventServiceImplementationTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2030, 5, 1, 12, 0);
+
+    private EventRepository eventRepository;
+    private RateLimitService rateLimitService;
+    private EventCustomFieldRepository customFieldRepository;
+    private EventIntegrationRepository integrationRepository;
+    private ReminderScheduleRepository scheduleRepository;
+    private ReminderProperties reminderProperties;
+    private EventServiceImplementation service;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        EventMapper eventMapper = mock(EventMapper.class);
+        when(eventMapper.toEventResponseDto(any())).thenAnswer(i -> {
+            EventResponseDto dto = new EventResponseDto();
+            dto.setId(i.<Event>getArgument(0).getId());
+            return dto;
+        });
+        rateLimitService = mock(RateLimitService.class);
+        customFieldRepository = mock(EventCustomFieldRepository.class);
+        integrationRepository = mock(EventIntegrationRepository.class);
+        scheduleRepository = mock(ReminderScheduleRepository.class);
+        reminderProperties = new ReminderProperties();
+        PlanEntitlementCache planEntitlementCache = new PlanEntitlementCache(mock(PlanRepository.class));
+        service = new EventServiceImplementation(eventRepository, eventMapper, rateLimitService,
+                mock(AuditLoggingService.class), customFieldRepository, integrationRepository,
+                mock(EventReadCache.class), planEntitlementCache,
+                new ReminderPlanner(planEntitlementCache, reminderProperties), scheduleRepository, reminderProperties);
+        user = new User();
+        user.setId(7L);
+    }
+
+    @Test
+    @DisplayName("Should save an event's custom fields and integrations in one batch each")
+    void shouldBatchCustomFieldsAndIntegrations() {
+        Plan plan = new Plan();
+        plan.setName(Plan.PlanName.PRO);
+        plan.setReminderChannels("EMAIL,WHATSAPP");
+        user.setPlan(plan);
+        when(rateLimitService.reserveDailyEvent(user)).thenReturn(DailyQuota.UNLIMITED);
+        when(eventRepository.save(any())).thenAnswer(i -> {
+            Event event = i.getArgument(0);
+            event.setId(42L);
+            return event;
+        });
+
+        CreateEventRequest request = new CreateEventRequest();
+        request.setTitle("Launch party");
+        request.setEventDateTime(CREATED.plusDays(7));
+        request.setCustomFields(List.of(field("Company"), field("Role"), field("Dietary needs")));
+        request.setIntegrations(List.of("email", "whatsapp"));
+
+        service.createEvent(user, request);
+
+        verify(customFieldRepository).saveAll(argThat(batchOf(3)));
+        verify(customFieldRepository, never()).save(any());
+        verify(integrationRepository).saveAll(argThat(batchOf(2)));
+        verify(integrationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should rebuild pending reminder schedules from the updated event's offsets")
+    void shouldReplacePendingSchedulesOnUpdate() {
+        reminderProperties.setStorage(ReminderProperties.Storage.EVENT_SCHEDULE);
+        user.setPlan(new Plan());
+        user.getPlan().setReminderChannels("EMAIL");
+        Event event = event(42L, CREATED);
+        event.setCreator(user);
+        event.setEventDateTime(CREATED.plusDays(7));
+        event.setReminderTimes(List.of(CREATED.plusDays(6)));
+        when(eventRepository.findById(42L)).thenReturn(Optional.of(event));
+        when(eventRepository.save(event)).thenReturn(event);
+
+        CreateEventRequest request = new CreateEventRequest();
+        request.setTitle("Launch party");
+        request.setEventDateTime(CREATED.plusDays(8));
+        request.setReminderOffsetMinutes(List.of(60L, 1440L));
+
+        service.updateEvent(42L, request);
+
+        assertEquals(List.of(CREATED.plusDays(8).minusMinutes(60), CREATED.plusDays(7)), event.getReminderTimes());
+        verify(scheduleRepository).replacePending(argThat(plan -> plan.eventId() == 42L
+                && plan.eventDateTime().equals(CREATED.plusDays(8))
+                && plan.offsetMinutes().equals(List.of(60L, 1440L))));
+    }
+
+    @Test
+    @DisplayName("Should page across a cursor boundary without skipping or repeating events")
+    void shouldPageAcrossCursor() {
+        // Events 5 and 4 share a creation time, so the id breaks the tie at the boundary
+        Event e5 = event(5L, CREATED);
+        Event e4 = event(4L, CREATED);
+        Event e3 = event(3L, CREATED.minusMinutes(1));
+        when(eventRepository.findPageByCreator(eq(user), argThat(fetches(3)))).thenReturn(List.of(e5, e4, e3));
+        when(eventRepository.findPageByCreatorAfter(eq(user), eq(CREATED), eq(4L), argThat(fetches(3))))
+                .thenReturn(List.of(e3));
+
+        EventPageDto first = service.getUserEvents(user, null, 2);
+
+        assertEquals(List.of(5L, 4L), ids(first));
+        assertTrue(first.isHasMore());
+        assertEquals(new EventCursor(CREATED, 4L), EventCursor.decode(first.getNextCursor()));
+
+        EventPageDto second = service.getUserEvents(user, first.getNextCursor(), 2);
+
+        assertEquals(List.of(3L), ids(second));
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should report no further page when the last page is exactly full")
+    void shouldEndOnExactlyFullPage() {
+        when(eventRepository.findPageByCreator(eq(user), argThat(fetches(3))))
+                .thenReturn(List.of(event(2L, CREATED), event(1L, CREATED.minusMinutes(1))));
+
+        EventPageDto page = service.getUserEvents(user, null, 2);
+
+        assertEquals(List.of(2L, 1L), ids(page));
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    // One row past the page size is fetched to detect a further page
+    private static ArgumentMatcher<Limit> fetches(int rows) {
+        return limit -> limit.max() == rows;
+    }
+
+    private static <T> ArgumentMatcher<Iterable<T>> batchOf(int size) {
+        return entities -> {
+            int count = 0;
+            for (T ignored : entities) {
+                count++;
+            }
+            return count == size;
+        };
+    }
+
+    private static CustomFieldDto field(String name) {
+        CustomFieldDto field = new CustomFieldDto();
+        field.setFieldName(name);
+        field.setFieldType(EventCustomField.FieldType.TEXT);
+        return field;
+    }
+
+    private static Event event(Long id, LocalDateTime createdAt) {
+        Event event = new Event();
+        event.setId(id);
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+
+    private static List<Long> ids(EventPageDto page) {
+        return page.getItems().stream().map(EventResponseDto::getId).toList();
+    }
+}
@@ -0,0 +1,83 @@
+package thomas.com.EventPing.participant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.security.exception.ValidationException;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for streaming CSV and NDJSON participant uploads
+ */
+class ImportRowReaderTest {
+
+    @Test
+    @DisplayName("Should read CSV rows by header name with RFC 4180 quoting")
+    void shouldReadCsv() throws IOException {
+        String csv = "\uFEFFName,Phone Number,Email\r\n"
+                + "\"Doe, Jane\",+15551234567,jane@example.com\r\n"
+                + "\r\n"
+                + "\"Say \"\"hi\"\"\n Bob\",,bob@example.com\n"
+                + "Short row\n";
+
+        List<ImportRowReader.ImportRow> rows = readAll(ImportRowReader.csv(new StringReader(csv)));
+
+        assertEquals(3, rows.size());
+        assertEquals(new ImportRowReader.ImportRow(1, "jane@example.com", "+15551234567", null), rows.get(0));
+        assertEquals(new ImportRowReader.ImportRow(2, "bob@example.com", null, null), rows.get(1));
+        assertEquals(new ImportRowReader.ImportRow(3, null, null, null), rows.get(2));
+    }
+
+    @Test
+    @DisplayName("Should reject a CSV upload without an email column")
+    void shouldRequireEmailColumn() {
+        assertThrows(ValidationException.class,
+                () -> ImportRowReader.csv(new StringReader("name,phone\nJane,123\n")));
+    }
+
+    @Test
+    @DisplayName("Should report malformed NDJSON lines as row errors and keep reading")
+    void shouldReadNdjson() throws IOException {
+        String ndjson = "{\"email\":\"jane@example.com\",\"phoneNumber\":\"+15551234567\"}\n"
+                + "{not json\n"
+                + "\n"
+                + "[1,2]\n"
+                + "{\"email\":\" bob@example.com \"}";
+
+        List<ImportRowReader.ImportRow> rows = readAll(ImportRowReader.ndjson(new StringReader(ndjson), new ObjectMapper()));
+
+        assertEquals(4, rows.size());
+        assertEquals("+15551234567", rows.get(0).phoneNumber());
+        assertEquals("Malformed JSON", rows.get(1).error());
+        assertEquals("Expected a JSON object", rows.get(2).error());
+        assertEquals(new ImportRowReader.ImportRow(4, "bob@example.com", null, null), rows.get(3));
+    }
+
+    @Test
+    @DisplayName("Should stop at an oversized record instead of buffering it")
+    void shouldStopAtOversizedRecord() throws IOException {
+        String csv = "email\n\"" + "x".repeat(ImportRowReader.MAX_RECORD_CHARS + 10) + "\"\nlate@example.com\n";
+
+        List<ImportRowReader.ImportRow> rows = readAll(ImportRowReader.csv(new StringReader(csv)));
+
+        assertEquals(1, rows.size());
+        assertNotNull(rows.get(0).error());
+    }
+
+    private static List<ImportRowReader.ImportRow> readAll(ImportRowReader reader) throws IOException {
+        List<ImportRowReader.ImportRow> rows = new ArrayList<>();
+        try (reader) {
+            ImportRowReader.ImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
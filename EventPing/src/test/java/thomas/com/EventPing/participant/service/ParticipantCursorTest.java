@@ -0,0 +1,31 @@
+package thomas.com.EventPing.participant.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.security.exception.ValidationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the opaque participant list cursor
+ */
+class ParticipantCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip the keyset position through an URL-safe token")
+    void shouldRoundTrip() {
+        ParticipantCursor cursor = new ParticipantCursor(9_000_000_123L);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, ParticipantCursor.decode(token));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered cursors as validation errors")
+    void shouldRejectInvalidCursor() {
+        assertThrows(ValidationException.class, () -> ParticipantCursor.decode("not a cursor!"));
+        assertThrows(ValidationException.class, () -> ParticipantCursor.decode("bm8tbnVtYmVy"));
+    }
+}
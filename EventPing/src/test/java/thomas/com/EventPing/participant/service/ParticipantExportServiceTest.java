@@ -0,0 +1,162 @@
+package thomas.com.EventPing.participant.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.util.DateTimeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+import thomas.com.EventPing.config.ParticipantExportProperties;
+import thomas.com.EventPing.config.ParticipantResponseProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.event.repository.EventCustomFieldRepository;
+import thomas.com.EventPing.event.repository.EventRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the streaming participant export
+ */
+class ParticipantExportServiceTest {
+
+    private static final LocalDateTime JOINED_AT = LocalDateTime.of(2030, 4, 1, 9, 0);
+
+    private EventRepository eventRepository;
+    private JdbcTemplate jdbcTemplate;
+    private ParticipantExportService exportService;
+    private Event event;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:participant_export_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE participants (id BIGINT PRIMARY KEY, event_id BIGINT NOT NULL, " +
+                "email VARCHAR(255) NOT NULL, phone_number VARCHAR(255), joined_at TIMESTAMP NOT NULL, " +
+                "unsubscribed BOOLEAN NOT NULL, rsvp_status VARCHAR(20) NOT NULL)");
+
+        eventRepository = mock(EventRepository.class);
+        EventCustomFieldRepository customFieldRepository = mock(EventCustomFieldRepository.class);
+        when(customFieldRepository.findByEventIdOrderByDisplayOrder(42L)).thenReturn(List.of());
+        ParticipantExportProperties properties = new ParticipantExportProperties();
+        properties.setFetchSize(2);
+        exportService = new ParticipantExportService(eventRepository, customFieldRepository, jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), objectMapper, properties,
+                new ParticipantResponseProperties());
+
+        User organizer = new User();
+        organizer.setId(7L);
+        event = new Event();
+        event.setId(42L);
+        event.setCreator(organizer);
+
+        insert(3L, 42L, "b@example.com", "+2348000000000");
+        insert(1L, 42L, "a,\"quoted\"@example.com", null);
+        insert(2L, 99L, "other@example.com", null);
+    }
+
+    @Test
+    @DisplayName("Should stream one JSON object per participant of the event in id order")
+    void shouldExportNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(event, ParticipantExportService.Format.NDJSON, null, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, rows);
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("a,\"quoted\"@example.com", first.get("email").asText());
+        assertEquals("+2348000000000", objectMapper.readTree(lines.get(1)).get("phoneNumber").asText());
+    }
+
+    @Test
+    @DisplayName("Should quote CSV fields that need it")
+    void shouldExportCsv() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(event, ParticipantExportService.Format.CSV, null, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("id,email,phone_number,joined_at,unsubscribed,rsvp_status", lines.get(0));
+        assertTrue(lines.get(1).startsWith("1,\"a,\"\"quoted\"\"@example.com\",,"));
+        assertTrue(lines.get(2).endsWith(",false,TENTATIVE"));
+    }
+
+    @Test
+    @DisplayName("Should neutralize CSV fields that a spreadsheet would run as formulas")
+    void shouldEscapeFormulas() {
+        insert(4L, 42L, "=HYPERLINK(\"http://evil.example\",\"open\")", "-1");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(event, ParticipantExportService.Format.CSV, null, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertTrue(lines.get(2).startsWith("3,b@example.com,\"'+2348000000000\","));
+        assertTrue(lines.get(3).startsWith(
+                "4,\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"open\"\")\",\"'-1\","));
+    }
+
+    @Test
+    @DisplayName("Should only let the organizer export")
+    void shouldRejectOtherUsers() {
+        when(eventRepository.findWithCreatorBySlug("launch-party-1")).thenReturn(Optional.of(event));
+        User stranger = new User();
+        stranger.setId(8L);
+
+        assertThrows(AccessDeniedException.class, () -> exportService.findExportableEvent(stranger, "launch-party-1"));
+    }
+
+    @Test
+    @DisplayName("Should write join times in UTC whatever the JVM's time zone")
+    void shouldReadJoinTimesInUtc() throws Exception {
+        TimeZone jvmZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        // H2 caches the JVM zone on first use
+        DateTimeUtils.resetCalendar();
+        try {
+            jdbcTemplate.update("DELETE FROM participants");
+            insert(1L, 42L, "a@example.com", null);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            exportService.export(event, ParticipantExportService.Format.NDJSON, null, out);
+
+            JsonNode participant = objectMapper.readTree(out.toString(StandardCharsets.UTF_8));
+            assertEquals(JOINED_AT.toString(), participant.get("joinedAt").asText());
+        } finally {
+            TimeZone.setDefault(jvmZone);
+            DateTimeUtils.resetCalendar();
+        }
+    }
+
+    // Written in UTC like Hibernate writes them
+    private void insert(Long id, Long eventId, String email, String phoneNumber) {
+        jdbcTemplate.update("INSERT INTO participants (id, event_id, email, phone_number, joined_at, unsubscribed, " +
+                "rsvp_status) VALUES (?, ?, ?, ?, ?, false, 'TENTATIVE')", ps -> {
+            ps.setLong(1, id);
+            ps.setLong(2, eventId);
+            ps.setString(3, email);
+            ps.setString(4, phoneNumber);
+            ps.setTimestamp(5, Timestamp.valueOf(JOINED_AT), JdbcTimestamps.utcCalendar());
+        });
+    }
+}
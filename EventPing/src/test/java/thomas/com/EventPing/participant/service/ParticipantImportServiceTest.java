@@ -0,0 +1,173 @@
+package thomas.com.EventPing.participant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.common.service.RateLimitService;
+import thomas.com.EventPing.config.ParticipantImportProperties;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.event.service.EventReadCache;
+import thomas.com.EventPing.participant.dtos.ParticipantImportResultDto;
+import thomas.com.EventPing.participant.model.Participant;
+import thomas.com.EventPing.participant.repository.ParticipantBatchRepository;
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.plan.repository.PlanRepository;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+import thomas.com.EventPing.reminder.repository.ReminderScheduleRepository;
+import thomas.com.EventPing.reminder.service.ReminderPlanner;
+import thomas.com.EventPing.security.service.InputValidationService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for chunked bulk participant import
+ */
+class ParticipantImportServiceTest {
+
+    private EventRepository eventRepository;
+    private RateLimitService rateLimitService;
+    private ParticipantBatchRepository batchRepository;
+    private ParticipantImportProperties properties;
+    private ParticipantImportService service;
+    private User organizer;
+    private List<Integer> chunkLookups;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        rateLimitService = mock(RateLimitService.class);
+        batchRepository = mock(ParticipantBatchRepository.class);
+        properties = new ParticipantImportProperties();
+        properties.setChunkSize(2);
+
+        InputValidationService validation = mock(InputValidationService.class);
+        when(validation.isValidEmail(anyString())).thenAnswer(i -> i.<String>getArgument(0).contains("@"));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(i ->
+                i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        ReminderProperties reminderProperties = new ReminderProperties();
+        ReminderPlanner planner = new ReminderPlanner(new PlanEntitlementCache(mock(PlanRepository.class)),
+                reminderProperties);
+        service = new ParticipantImportService(eventRepository, rateLimitService, batchRepository,
+                planner, mock(ReminderScheduleRepository.class), validation,
+                mock(EventReadCache.class), transactionTemplate, new ObjectMapper(), properties,
+                reminderProperties, new SimpleMeterRegistry());
+
+        Plan plan = new Plan();
+        plan.setReminderChannels("EMAIL");
+        organizer = new User();
+        organizer.setId(7L);
+        organizer.setPlan(plan);
+        Event event = new Event();
+        event.setId(42L);
+        event.setCreator(organizer);
+        event.setEventDateTime(LocalDateTime.of(2030, 5, 1, 18, 0));
+        when(eventRepository.findWithCreatorAndPlanBySlug("launch-party-1")).thenReturn(Optional.of(event));
+
+        // Earlier chunks are committed, so later lookups see their rows
+        chunkLookups = new ArrayList<>();
+        Set<String> registered = new HashSet<>(Set.of("taken@example.com"));
+        when(batchRepository.findExistingEmails(eq(42L), anyCollection())).thenAnswer(i -> {
+            Collection<String> emails = i.getArgument(1);
+            chunkLookups.add(emails.size());
+            return emails.stream().filter(registered::contains).collect(Collectors.toSet());
+        });
+        when(rateLimitService.reserveParticipantSlots(any(), anyInt())).thenAnswer(i -> i.getArgument(1));
+        AtomicLong ids = new AtomicLong();
+        when(batchRepository.insertParticipants(eq(42L), anyList())).thenAnswer(i -> {
+            List<Participant> participants = i.getArgument(1);
+            participants.forEach(p -> {
+                p.setId(ids.incrementAndGet());
+                registered.add(p.getEmail());
+            });
+            return participants;
+        });
+    }
+
+    @Test
+    @DisplayName("Should dedupe each chunk with one lookup and report invalid rows")
+    void shouldImportInChunks() throws Exception {
+        String csv = "email\na@example.com\nnot-an-email\nb@example.com\ntaken@example.com\na@example.com\nc@example.com\n";
+
+        ParticipantImportResultDto result = importCsv(csv);
+
+        assertEquals(6, result.getTotalRows());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals(List.of(2, 2, 1), chunkLookups);
+        verify(batchRepository, times(3)).insertReminders(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject rows beyond the granted capacity")
+    void shouldRejectRowsBeyondCapacity() throws Exception {
+        when(rateLimitService.reserveParticipantSlots(any(), anyInt())).thenReturn(1);
+
+        ParticipantImportResultDto result = importCsv("email\na@example.com\nb@example.com\n");
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals("Event has reached maximum participant capacity", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should report a chunk the database rejects and keep importing the rest")
+    void shouldReportFailedChunk() throws Exception {
+        when(batchRepository.insertParticipants(eq(42L), argThat(batch -> batch.stream()
+                .anyMatch(p -> p.getEmail().equals("b@example.com")))))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        ParticipantImportResultDto result = importCsv(
+                "email\na@example.com\nc@example.com\nb@example.com\nb@example.com\ntaken@example.com\nd@example.com\n");
+
+        // The second chunk rolled back and is reported row by row; the chunks around it import
+        assertEquals(6, result.getTotalRows());
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getDuplicates());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals("Could not be saved; import this row again", result.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    @DisplayName("Should only let the organizer import")
+    void shouldRequireOrganizer() {
+        User stranger = new User();
+        stranger.setId(8L);
+
+        assertThrows(AccessDeniedException.class, () -> service.importParticipants(stranger, "launch-party-1",
+                new ByteArrayInputStream(new byte[0]), ParticipantImportService.Format.CSV, List.of()));
+    }
+
+    private ParticipantImportResultDto importCsv(String csv) throws Exception {
+        return service.importParticipants(organizer, "launch-party-1",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                ParticipantImportService.Format.CSV, List.of(60L));
+    }
+}
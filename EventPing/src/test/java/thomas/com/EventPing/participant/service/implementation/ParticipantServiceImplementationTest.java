@@ -0,0 +1,257 @@
+package thomas.com.EventPing.participant.service.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.common.service.RateLimitService;
+import thomas.com.EventPing.config.ParticipantResponseProperties;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.event.model.EventCustomField;
+import thomas.com.EventPing.event.repository.EventCustomFieldRepository;
+import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.event.service.EventReadCache;
+import thomas.com.EventPing.participant.dtos.JoinEventRequest;
+import thomas.com.EventPing.participant.dtos.ParticipantPageDto;
+import thomas.com.EventPing.participant.mapper.ParticipantMapper;
+import thomas.com.EventPing.participant.model.Participant;
+import thomas.com.EventPing.participant.repository.ParticipantBatchRepository;
+import thomas.com.EventPing.participant.repository.ParticipantRepository;
+import thomas.com.EventPing.participant.service.ParticipantCursor;
+import thomas.com.EventPing.participant.service.ResponseFilter;
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.plan.repository.PlanRepository;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+import thomas.com.EventPing.reminder.model.Reminder;
+import thomas.com.EventPing.reminder.repository.ReminderScheduleRepository;
+import thomas.com.EventPing.reminder.service.ReminderPlanner;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the high-concurrency join path
+ */
+class ParticipantServiceImplementationTest {
+
+    private ParticipantRepository participantRepository;
+    private EventRepository eventRepository;
+    private RateLimitService rateLimitService;
+    private ParticipantBatchRepository batchRepository;
+    private EventReadCache eventReadCache;
+    private EventCustomFieldRepository customFieldRepository;
+    private ReminderScheduleRepository scheduleRepository;
+    private ReminderProperties reminderProperties;
+    private ParticipantResponseProperties responseProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private ParticipantServiceImplementation service;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        participantRepository = mock(ParticipantRepository.class);
+        eventRepository = mock(EventRepository.class);
+        rateLimitService = mock(RateLimitService.class);
+        batchRepository = mock(ParticipantBatchRepository.class);
+        eventReadCache = mock(EventReadCache.class);
+        customFieldRepository = mock(EventCustomFieldRepository.class);
+        scheduleRepository = mock(ReminderScheduleRepository.class);
+        reminderProperties = new ReminderProperties();
+        responseProperties = new ParticipantResponseProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        ReminderPlanner planner = new ReminderPlanner(new PlanEntitlementCache(mock(PlanRepository.class)),
+                reminderProperties);
+        service = new ParticipantServiceImplementation(participantRepository, eventRepository,
+                mock(ParticipantMapper.class), rateLimitService, customFieldRepository,
+                eventReadCache, batchRepository, planner, scheduleRepository,
+                reminderProperties, responseProperties, new ObjectMapper(), meterRegistry);
+
+        Plan plan = new Plan();
+        plan.setReminderChannels("EMAIL");
+        User creator = new User();
+        creator.setPlan(plan);
+        event = new Event();
+        event.setId(42L);
+        event.setSlug("launch-party-1");
+        event.setCreator(creator);
+        event.setEventDateTime(LocalDateTime.of(2030, 5, 1, 18, 0));
+
+        when(eventRepository.findBySlug("launch-party-1")).thenReturn(Optional.of(event));
+        when(participantRepository.findByEventAndEmail(any(), anyString())).thenReturn(Optional.empty());
+        when(participantRepository.saveAndFlush(any())).thenAnswer(i -> {
+            Participant participant = i.getArgument(0);
+            participant.setId(7L);
+            return participant;
+        });
+        when(rateLimitService.canAddParticipant(event)).thenReturn(true);
+        when(rateLimitService.reserveParticipantSlot(event)).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Should batch reminders and reserve the slot after all inserts")
+    void shouldReserveSlotLast() {
+        service.joinEvent("launch-party-1", request("guest@example.com"), List.of(60L, 1440L));
+
+        InOrder order = inOrder(participantRepository, batchRepository, rateLimitService, eventReadCache);
+        order.verify(participantRepository).saveAndFlush(any());
+        order.verify(batchRepository).insertReminders(argThat(plan ->
+                plan.channels().equals(Set.of(Reminder.ReminderChannel.EMAIL))
+                        && plan.offsetMinutes().equals(List.of(60L, 1440L))
+                        && plan.eventDateTime().equals(LocalDateTime.of(2030, 5, 1, 18, 0))),
+                argThat(participants -> participants.size() == 1 && participants.get(0).getId() == 7L));
+        order.verify(batchRepository).insertResponses(anyList());
+        order.verify(rateLimitService).reserveParticipantSlot(event);
+        order.verify(eventReadCache).evictParticipantCount(42L);
+        verify(eventRepository).moveRsvpCounts(42L, null, Participant.RsvpStatus.TENTATIVE, 1);
+        assertEquals(1, meterRegistry.get("eventping.participants.join").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should build event-level schedules from the organizer's offsets, not the joiner's")
+    void shouldWriteEventSchedules() {
+        reminderProperties.setStorage(ReminderProperties.Storage.EVENT_SCHEDULE);
+        event.setReminderTimes(List.of(event.getEventDateTime().minusMinutes(1440),
+                event.getEventDateTime().minusMinutes(30)));
+
+        service.joinEvent("launch-party-1", request("guest@example.com"), List.of(1L, 2L, 3L));
+
+        verify(scheduleRepository).insertSchedules(argThat(plan ->
+                plan.eventId() == 42L && plan.offsetMinutes().equals(List.of(30L, 1440L))));
+        verify(batchRepository, never()).insertReminders(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject the join when the reservation loses the race for the last slot")
+    void shouldRejectWhenReservationFails() {
+        when(rateLimitService.reserveParticipantSlot(event)).thenReturn(false);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> service.joinEvent("launch-party-1", request("guest@example.com"), null));
+
+        assertEquals("Event has reached maximum participant capacity", error.getMessage());
+        verify(eventReadCache, never()).evictParticipantCount(anyLong());
+        assertEquals(1.0, meterRegistry.get("eventping.participants.join.rejected").tag("reason", "full")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Should report a concurrent duplicate caught by the unique constraint")
+    void shouldTranslateUniqueViolation() {
+        doThrow(new DataIntegrityViolationException("insert failed",
+                new SQLException("duplicate key value violates unique constraint \"uq_participants_event_email\"")))
+                .when(participantRepository).saveAndFlush(any());
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> service.joinEvent("launch-party-1", request("guest@example.com"), null));
+
+        assertEquals("Email already registered for this event", error.getMessage());
+        verify(rateLimitService, never()).reserveParticipantSlot(any());
+        verifyNoInteractions(batchRepository);
+    }
+
+    @Test
+    @DisplayName("Should move the RSVP counters only when the status actually changes")
+    void shouldMoveRsvpCounters() {
+        Participant participant = new Participant();
+        participant.setId(7L);
+        participant.setEvent(event);
+        when(participantRepository.findById(7L)).thenReturn(Optional.of(participant));
+        when(participantRepository.updateRsvpStatus(7L, "ATTENDING"))
+                .thenReturn(Optional.of("TENTATIVE"), Optional.empty());
+
+        service.updateRsvp(7L, Participant.RsvpStatus.ATTENDING);
+        service.updateRsvp(7L, Participant.RsvpStatus.ATTENDING);
+
+        verify(eventRepository, times(1)).moveRsvpCounts(42L, Participant.RsvpStatus.TENTATIVE,
+                Participant.RsvpStatus.ATTENDING, 1);
+        verify(participantRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should answer the RSVP summary from the event counters")
+    void shouldReadRsvpSummaryFromCounters() {
+        EventRepository.RsvpCounts counts = mock(EventRepository.RsvpCounts.class);
+        when(counts.getAttending()).thenReturn(120L);
+        when(counts.getNotAttending()).thenReturn(4L);
+        when(counts.getTentative()).thenReturn(0L);
+        when(eventRepository.findRsvpCountsBySlug("launch-party-1")).thenReturn(Optional.of(counts));
+
+        Map<Participant.RsvpStatus, Long> summary = service.getRsvpSummary("launch-party-1");
+
+        assertEquals(Map.of(Participant.RsvpStatus.ATTENDING, 120L, Participant.RsvpStatus.NOT_ATTENDING, 4L,
+                Participant.RsvpStatus.TENTATIVE, 0L), summary);
+        verify(participantRepository, never()).findByEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should page participants by id and hand out the last id as the next cursor")
+    void shouldPageParticipants() {
+        List<Participant> rows = new ArrayList<>();
+        for (long id = 11; id <= 13; id++) {
+            Participant participant = new Participant();
+            participant.setId(id);
+            rows.add(participant);
+        }
+        when(participantRepository.findPageByEventAfter(eq(event), eq(10L), any())).thenReturn(rows);
+
+        ParticipantPageDto page = service.getEventParticipants("launch-party-1",
+                new ParticipantCursor(10L).encode(), 2, null);
+
+        assertTrue(page.isHasMore());
+        assertEquals(2, page.getItems().size());
+        assertEquals(12L, ParticipantCursor.decode(page.getNextCursor()).id());
+        verify(participantRepository, never()).findByEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should store custom-field answers in the participant row when JSONB storage is on")
+    void shouldWriteResponsesAsJsonb() {
+        responseProperties.setStorage(ParticipantResponseProperties.Storage.JSONB);
+        EventCustomField field = new EventCustomField();
+        field.setId(12L);
+        field.setFieldName("Track");
+        when(customFieldRepository.findByEventIdOrderByDisplayOrder(42L)).thenReturn(List.of(field));
+        JoinEventRequest request = request("guest@example.com");
+        request.setCustomFieldResponses(Map.of("Track", "Backend"));
+
+        service.joinEvent("launch-party-1", request, null);
+
+        verify(participantRepository).saveAndFlush(argThat(participant ->
+                Map.of("12", "Backend").equals(participant.getCustomResponses())));
+        verify(batchRepository, never()).insertResponses(anyList());
+    }
+
+    @Test
+    @DisplayName("Should filter pages by answer with a JSONB containment query")
+    void shouldFilterByJsonbAnswer() {
+        responseProperties.setStorage(ParticipantResponseProperties.Storage.JSONB);
+        when(participantRepository.findPageByEventAndCustomResponsesAfter(42L, 0L, "{\"12\":\"Backend\"}", 51))
+                .thenReturn(List.of());
+
+        ParticipantPageDto page = service.getEventParticipants("launch-party-1", null, 50,
+                new ResponseFilter(12L, "Backend"));
+
+        assertFalse(page.isHasMore());
+        verify(participantRepository, never()).findPageByEventAfter(any(), anyLong(), any());
+    }
+
+    private static JoinEventRequest request(String email) {
+        JoinEventRequest request = new JoinEventRequest();
+        request.setEmail(email);
+        return request;
+    }
+}
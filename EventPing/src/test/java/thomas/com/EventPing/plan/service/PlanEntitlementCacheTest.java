@@ -0,0 +1,100 @@
+package thomas.com.EventPing.plan.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.plan.repository.PlanRepository;
+import thomas.com.EventPing.reminder.model.Reminder;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the in-memory plan entitlement cache
+ */
+class PlanEntitlementCacheTest {
+
+    private PlanRepository planRepository;
+    private PlanEntitlementCache cache;
+    private Plan free;
+    private Plan pro;
+
+    @BeforeEach
+    void setUp() {
+        planRepository = mock(PlanRepository.class);
+        cache = new PlanEntitlementCache(planRepository);
+        free = plan(1L, Plan.PlanName.FREE, "EMAIL", 3);
+        pro = plan(2L, Plan.PlanName.PRO, "EMAIL, WHATSAPP,PIGEON", null);
+        pro.setCustomIntervalsEnabled(true);
+        when(planRepository.findAll()).thenReturn(List.of(free, pro));
+        cache.load();
+    }
+
+    @Test
+    @DisplayName("Should answer from the loaded snapshot without querying again")
+    void shouldServeFromSnapshot() {
+        User user = new User();
+        user.setPlan(pro);
+
+        PlanEntitlements entitlements = cache.forUser(user);
+
+        assertEquals(Set.of(Reminder.ReminderChannel.EMAIL, Reminder.ReminderChannel.WHATSAPP),
+                entitlements.reminderChannels());
+        assertTrue(entitlements.customIntervalsEnabled());
+        assertNull(entitlements.maxEventsPerDay());
+        assertSame(entitlements, cache.forUser(user));
+        verify(planRepository, times(1)).findAll();
+        verifyNoMoreInteractions(planRepository);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the free plan for users without a plan")
+    void shouldFallBackToFree() {
+        PlanEntitlements entitlements = cache.forUser(new User());
+
+        assertEquals(Plan.PlanName.FREE, entitlements.name());
+        assertEquals(3, entitlements.maxEventsPerDay());
+        verify(planRepository, never()).findByName(any());
+    }
+
+    @Test
+    @DisplayName("Should match integration names against the channel set")
+    void shouldMatchChannelNames() {
+        PlanEntitlements entitlements = cache.forPlan(pro);
+
+        assertTrue(entitlements.allowsChannel("WHATSAPP"));
+        assertFalse(entitlements.allowsChannel("SLACK"));
+        assertFalse(cache.free().allowsChannel(Reminder.ReminderChannel.WHATSAPP));
+    }
+
+    @Test
+    @DisplayName("Should replace a plan's entitlements when it is saved")
+    void shouldReplaceChangedPlan() {
+        free.setMaxEventsPerDay(10);
+
+        cache.planChanged(free);
+
+        assertEquals(10, cache.free().maxEventsPerDay());
+        assertEquals(10, cache.forUser(userOn(free)).maxEventsPerDay());
+    }
+
+    private static User userOn(Plan plan) {
+        User user = new User();
+        user.setPlan(plan);
+        return user;
+    }
+
+    private static Plan plan(Long id, Plan.PlanName name, String channels, Integer maxEventsPerDay) {
+        Plan plan = new Plan();
+        plan.setId(id);
+        plan.setName(name);
+        plan.setReminderChannels(channels);
+        plan.setMaxEventsPerDay(maxEventsPerDay);
+        return plan;
+    }
+}
@@ -0,0 +1,83 @@
+package thomas.com.EventPing.reminder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.reminder.repository.ReminderCleanupRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for bounded-batch reminder cleanup
+ */
+class ReminderCleanupJobTest {
+
+    private ReminderCleanupRepository repository;
+    private ReminderPartitionManager partitionManager;
+    private ReminderProperties properties;
+    private ReminderCleanupJob job;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReminderCleanupRepository.class);
+        properties = new ReminderProperties();
+        properties.getCleanup().setBatchSize(100);
+        properties.getCleanup().setPauseMs(0);
+        partitionManager = mock(ReminderPartitionManager.class);
+        job = new ReminderCleanupJob(repository, partitionManager, properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should delete in batches until a batch comes back short")
+    void shouldDeleteInBatches() {
+        when(repository.deleteBatch(any(), eq(100))).thenReturn(100, 100, 40);
+
+        assertEquals(240, job.run());
+
+        verify(repository, times(3)).deleteBatch(any(), eq(100));
+        verify(repository, never()).archiveBatch(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should move batches to the history table when archiving is on")
+    void shouldArchiveWhenEnabled() {
+        properties.getCleanup().setArchive(true);
+        when(repository.archiveBatch(any(), eq(100))).thenReturn(100, 0);
+
+        assertEquals(100, job.run());
+
+        verify(repository, times(2)).archiveBatch(any(), eq(100));
+        verify(repository, never()).deleteBatch(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should drop expired partitions instead of deleting rows when partitioned")
+    void shouldDropPartitionsWhenPartitioned() {
+        when(partitionManager.isPartitioned()).thenReturn(true);
+        when(partitionManager.dropExpiredPartitions(any(), anyBoolean(), anyInt())).thenReturn(2);
+
+        assertEquals(0, job.run());
+
+        verify(partitionManager).dropExpiredPartitions(any(), eq(false), eq(100));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Should stop between batches when the thread is interrupted")
+    void shouldStopWhenInterrupted() {
+        properties.getCleanup().setPauseMs(1_000);
+        when(repository.deleteBatch(any(), eq(100))).thenReturn(100);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertEquals(100, job.run());
+        } finally {
+            Thread.interrupted();
+        }
+        verify(repository, times(1)).deleteBatch(any(), eq(100));
+    }
+}
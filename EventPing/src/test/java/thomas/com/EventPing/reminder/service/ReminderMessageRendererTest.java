@@ -0,0 +1,108 @@
+package thomas.com.EventPing.reminder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for compiled reminder templates and per-event rendering
+ */
+class ReminderMessageRendererTest {
+
+    private ReminderProperties properties;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ReminderProperties();
+        properties.getTemplate().setLocale("en-US");
+
+        event = new Event();
+        event.setId(42L);
+        event.setTitle("Launch party");
+        event.setEventDateTime(LocalDateTime.of(2030, 5, 1, 17, 30));
+    }
+
+    @Test
+    @DisplayName("Should render the default email exactly as the hand-built message did")
+    void shouldRenderDefaultEmail() {
+        ReminderMessageRenderer.PreparedReminder reminder =
+                new ReminderMessageRenderer(properties, new SimpleMeterRegistry()).prepare(event);
+
+        assertEquals("Reminder: Launch party", reminder.subjectFor("a@example.com"));
+        assertEquals("Hello,\n\n" +
+                "This is a reminder for the upcoming event:\n\n" +
+                "Event: Launch party\n" +
+                "Date & Time: May 01, 2030 at 05:30 PM\n" +
+                "Description: No description\n\n" +
+                "We look forward to seeing you there!\n\n" +
+                "---\n" +
+                "EventPing Reminder Service", reminder.bodyFor("a@example.com"));
+        assertTrue(reminder.body().isConstant());
+    }
+
+    @Test
+    @DisplayName("Should render an event once for all of its recipients")
+    void shouldShareRenderedEvent() {
+        ReminderMessageRenderer renderer = new ReminderMessageRenderer(properties, new SimpleMeterRegistry());
+
+        ReminderMessageRenderer.PreparedReminder first = renderer.prepare(event);
+        assertSame(first, renderer.prepare(event));
+
+        event.setTitle("Launch party (moved)");
+        assertNotSame(first, renderer.prepare(event));
+    }
+
+    @Test
+    @DisplayName("Should leave only the recipient placeholder after binding the event")
+    void shouldRenderRecipient() {
+        properties.getTemplate().setEmailBody("Hi {recipient}, {title} starts {dateTime}.");
+        properties.getTemplate().setTimeZone("UTC");
+        ReminderMessageRenderer renderer = new ReminderMessageRenderer(properties, new SimpleMeterRegistry());
+
+        ReminderMessageRenderer.PreparedReminder reminder = renderer.prepare(event);
+        String time = renderer.formatter(Locale.US, ZoneId.of("UTC"))
+                .format(event.getEventDateTime().atZone(ZoneId.systemDefault()));
+
+        assertFalse(reminder.body().isConstant());
+        assertEquals("Hi a@example.com, Launch party starts " + time + ".", reminder.bodyFor("a@example.com"));
+        assertEquals("Hi b@example.com, Launch party starts " + time + ".", reminder.bodyFor("b@example.com"));
+    }
+
+    @Test
+    @DisplayName("Should build one formatter per locale and time zone")
+    void shouldCacheFormatters() {
+        ReminderMessageRenderer renderer = new ReminderMessageRenderer(properties, new SimpleMeterRegistry());
+
+        assertSame(renderer.formatter(Locale.US, ZoneId.of("UTC")), renderer.formatter(Locale.US, ZoneId.of("UTC")));
+        assertNotSame(renderer.formatter(Locale.US, ZoneId.of("UTC")),
+                renderer.formatter(Locale.FRANCE, ZoneId.of("UTC")));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown placeholders when compiling")
+    void shouldRejectUnknownPlaceholder() {
+        assertThrows(IllegalArgumentException.class, () -> ReminderTemplate.compile("Hi {name}"));
+        assertThrows(IllegalArgumentException.class, () -> ReminderTemplate.compile("Hi {title"));
+    }
+
+    @Test
+    @DisplayName("Should merge bound values into the surrounding text")
+    void shouldMergeBoundValues() {
+        ReminderTemplate template = ReminderTemplate.compile("{title} at {dateTime}")
+                .bind(Map.of(ReminderTemplate.Field.TITLE, "Standup", ReminderTemplate.Field.DATE_TIME, "9:00"));
+
+        assertTrue(template.isConstant());
+        assertEquals("Standup at 9:00", template.render(null));
+    }
+}
@@ -0,0 +1,87 @@
+package thomas.com.EventPing.reminder.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.plan.model.Plan;
+import thomas.com.EventPing.plan.repository.PlanRepository;
+import thomas.com.EventPing.plan.service.PlanEntitlementCache;
+import thomas.com.EventPing.reminder.model.Reminder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for resolving an event's reminder plan
+ */
+class ReminderPlannerTest {
+
+    private final ReminderProperties properties = new ReminderProperties();
+    private final ReminderPlanner planner =
+            new ReminderPlanner(new PlanEntitlementCache(mock(PlanRepository.class)), properties);
+    private Plan plan;
+    private User creator;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        plan = new Plan();
+        plan.setReminderChannels("EMAIL, WHATSAPP,PIGEON");
+        creator = new User();
+        creator.setPlan(plan);
+        event = new Event();
+        event.setId(42L);
+        event.setCreator(creator);
+        event.setEventDateTime(LocalDateTime.of(2030, 5, 1, 18, 0));
+    }
+
+    @Test
+    @DisplayName("Should resolve allowed channels once and drop unknown or disabled ones")
+    void shouldResolveChannels() {
+        assertEquals(Set.of(Reminder.ReminderChannel.EMAIL), planner.plan(event, List.of(60L)).channels());
+
+        creator.setEnableWhatsApp(true);
+        assertEquals(Set.of(Reminder.ReminderChannel.EMAIL, Reminder.ReminderChannel.WHATSAPP),
+                planner.plan(event, List.of(60L)).channels());
+    }
+
+    @Test
+    @DisplayName("Should force default offsets unless the plan allows custom intervals")
+    void shouldEnforceCustomIntervals() {
+        assertEquals(List.of(60L, 1440L), planner.plan(event, List.of(5L)).offsetMinutes());
+        assertTrue(planner.plan(event, null).isEmpty());
+
+        plan.setCustomIntervalsEnabled(true);
+        assertEquals(List.of(5L), planner.plan(event, List.of(5L)).offsetMinutes());
+    }
+
+    @Test
+    @DisplayName("Should drop out-of-range and duplicate offsets and cap how many are kept")
+    void shouldBoundOffsets() {
+        plan.setCustomIntervalsEnabled(true);
+        properties.setMaxOffsets(3);
+
+        assertEquals(List.of(5L, 10L, 15L),
+                planner.plan(event, List.of(15L, 0L, -60L, 5L, 5L, 43_201L, 10L, 20L)).offsetMinutes());
+    }
+
+    @Test
+    @DisplayName("Should plan event-level reminders from the organizer's reminder times")
+    void shouldPlanFromEventReminderTimes() {
+        LocalDateTime start = event.getEventDateTime();
+        event.setReminderTimes(List.of(start.minusDays(1), start.minusHours(1), start.minusHours(1),
+                start.plusHours(1)));
+
+        ReminderPlan eventPlan = planner.eventPlan(event);
+
+        assertEquals(List.of(60L, 1440L), eventPlan.offsetMinutes());
+        assertEquals(start, eventPlan.eventDateTime());
+    }
+}
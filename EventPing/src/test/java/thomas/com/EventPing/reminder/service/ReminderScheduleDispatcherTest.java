@@ -0,0 +1,161 @@
+package thomas.com.EventPing.reminder.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.config.ReminderProperties;
+import thomas.com.EventPing.event.model.Event;
+import thomas.com.EventPing.event.repository.EventRepository;
+import thomas.com.EventPing.reminder.model.Reminder;
+import thomas.com.EventPing.reminder.repository.ReminderScheduleRepository;
+
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for expanding event-level reminder schedules at fire time
+ */
+class ReminderScheduleDispatcherTest {
+
+    private ReminderScheduleRepository scheduleRepository;
+    private EventRepository eventRepository;
+    private ReminderDelivery delivery;
+    private ReminderScheduleDispatcher dispatcher;
+    private Event event;
+    private ReminderScheduleRepository.Schedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        scheduleRepository = mock(ReminderScheduleRepository.class);
+        eventRepository = mock(EventRepository.class);
+        delivery = mock(ReminderDelivery.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(i ->
+                i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        ReminderProperties properties = new ReminderProperties();
+        properties.setDispatchPageSize(2);
+
+        dispatcher = new ReminderScheduleDispatcher(scheduleRepository, eventRepository, delivery,
+                transactionTemplate, properties, new SimpleMeterRegistry());
+
+        event = new Event();
+        event.setId(42L);
+        event.setStatus(Event.EventStatus.ACTIVE);
+        schedule = new ReminderScheduleRepository.Schedule(9L, 42L, LocalDateTime.of(2030, 5, 1, 17, 0),
+                Reminder.ReminderChannel.EMAIL, 0L);
+        when(scheduleRepository.findDue(any(), anyInt())).thenReturn(List.of(schedule));
+        when(eventRepository.findById(42L)).thenReturn(Optional.of(event));
+        when(delivery.canSend(any())).thenReturn(true);
+        when(delivery.send(any(), any(), any(), any())).thenReturn(true);
+        when(delivery.sendEmails(any(), anyList())).thenAnswer(i -> {
+            BitSet sent = new BitSet();
+            sent.set(0, i.<List<String>>getArgument(1).size());
+            return sent;
+        });
+    }
+
+    @Test
+    @DisplayName("Should stream recipients in pages and advance the cursor after each page")
+    void shouldExpandInPages() {
+        when(scheduleRepository.findRecipients(schedule, 0L, 2)).thenReturn(List.of(
+                new ReminderScheduleRepository.Recipient(3L, "a@example.com", null),
+                new ReminderScheduleRepository.Recipient(5L, "b@example.com", null)));
+        when(scheduleRepository.findRecipients(schedule, 5L, 2)).thenReturn(List.of(
+                new ReminderScheduleRepository.Recipient(8L, "c@example.com", null)));
+
+        assertEquals(3, dispatcher.dispatchDue());
+
+        verify(scheduleRepository).advance(eq(9L), eq(5L), isNull());
+        verify(scheduleRepository).advance(eq(9L), eq(8L), notNull());
+        verify(delivery).sendEmails(event, List.of("a@example.com", "b@example.com"));
+        verify(delivery).sendEmails(event, List.of("c@example.com"));
+        verify(delivery, never()).send(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should count only the emails of a batch that went out")
+    void shouldCountSentEmails() {
+        when(scheduleRepository.findRecipients(schedule, 0L, 2)).thenReturn(List.of(
+                new ReminderScheduleRepository.Recipient(3L, "bad@example.com", null)));
+        when(delivery.sendEmails(any(), anyList())).thenReturn(new BitSet());
+
+        assertEquals(0, dispatcher.dispatchDue());
+
+        verify(scheduleRepository).recordFailures(eq(9L), eq(Map.of(3L, "Not accepted by the mail server")), notNull());
+        verify(scheduleRepository).advance(eq(9L), eq(3L), notNull());
+    }
+
+    @Test
+    @DisplayName("Should keep sending the page when one recipient fails")
+    void shouldSkipFailedRecipient() {
+        schedule = new ReminderScheduleRepository.Schedule(9L, 42L, LocalDateTime.of(2030, 5, 1, 17, 0),
+                Reminder.ReminderChannel.WHATSAPP, 0L);
+        when(scheduleRepository.findDue(any(), anyInt())).thenReturn(List.of(schedule));
+        when(scheduleRepository.findRecipients(schedule, 0L, 2)).thenReturn(List.of(
+                new ReminderScheduleRepository.Recipient(3L, null, "+15550000001"),
+                new ReminderScheduleRepository.Recipient(5L, null, "+15550000002")));
+        when(delivery.send(any(), any(), any(), eq("+15550000001"))).thenThrow(new RuntimeException("bot down"));
+
+        assertEquals(1, dispatcher.dispatchDue());
+
+        verify(scheduleRepository).recordFailures(eq(9L), eq(Map.of(3L, "bot down")), notNull());
+        verify(scheduleRepository).advance(eq(9L), eq(5L), isNull());
+    }
+
+    @Test
+    @DisplayName("Should forget retried recipients that were sent and count another attempt for the rest")
+    void shouldRetryFailedRecipients() {
+        when(scheduleRepository.findDue(any(), anyInt())).thenReturn(List.of());
+        when(scheduleRepository.findRetries(any(), eq(5), eq(2))).thenReturn(List.of(
+                new ReminderScheduleRepository.Retry(schedule,
+                        new ReminderScheduleRepository.Recipient(3L, "a@example.com", null)),
+                new ReminderScheduleRepository.Retry(schedule,
+                        new ReminderScheduleRepository.Recipient(5L, "bad@example.com", null))));
+        BitSet firstSent = new BitSet();
+        firstSent.set(0);
+        when(delivery.sendEmails(any(), anyList())).thenReturn(firstSent);
+
+        assertEquals(1, dispatcher.dispatchDue());
+
+        verify(delivery).sendEmails(event, List.of("a@example.com", "bad@example.com"));
+        verify(scheduleRepository).deleteFailures(9L, List.of(3L));
+        verify(scheduleRepository).recordFailures(eq(9L), eq(Map.of(5L, "Not accepted by the mail server")), notNull());
+        verify(scheduleRepository, never()).advance(any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should not record failures when the creator is out of credits")
+    void shouldNotRetryWithoutCredits() {
+        when(delivery.canSend(event)).thenReturn(false);
+        when(scheduleRepository.findRecipients(schedule, 0L, 2)).thenReturn(List.of(
+                new ReminderScheduleRepository.Recipient(3L, "a@example.com", null)));
+
+        assertEquals(0, dispatcher.dispatchDue());
+
+        verify(scheduleRepository).recordFailures(eq(9L), eq(Map.of()), notNull());
+        verify(delivery, never()).sendEmails(any(), anyList());
+        verify(scheduleRepository).advance(eq(9L), eq(3L), notNull());
+    }
+
+    @Test
+    @DisplayName("Should complete schedules of expired events without sending")
+    void shouldCompleteExpiredEvent() {
+        event.setStatus(Event.EventStatus.EXPIRED);
+
+        assertEquals(0, dispatcher.dispatchDue());
+
+        verify(scheduleRepository).advance(eq(9L), eq(0L), notNull());
+        verify(scheduleRepository, never()).findRecipients(any(), anyLong(), anyInt());
+        verifyNoInteractions(delivery);
+    }
+}
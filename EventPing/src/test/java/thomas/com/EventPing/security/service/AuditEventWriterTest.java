@@ -0,0 +1,254 @@
+package thomas.com.EventPing.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.util.DateTimeUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.config.AuditProperties;
+import thomas.com.EventPing.security.entity.AuditEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the batched audit writer and its ring buffer
+ */
+class AuditEventWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private AuditProperties auditProperties;
+    private AuditStatisticsRollup statisticsRollup;
+    private AuditEventWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.execute("CREATE TABLE audit_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "event_type VARCHAR(50) NOT NULL, username VARCHAR(255), ip_address VARCHAR(45), " +
+                "user_agent VARCHAR(1024), request_uri VARCHAR(1024), request_method VARCHAR(16), " +
+                "session_id VARCHAR(255), resource_type VARCHAR(255), resource_id VARCHAR(255), " +
+                "action VARCHAR(255), result VARCHAR(50), error_message TEXT, details TEXT, " +
+                "severity VARCHAR(20) NOT NULL, \"TIMESTAMP\" TIMESTAMP NOT NULL, " +
+                "correlation_id VARCHAR(100), tenant_id VARCHAR(100))");
+
+        statisticsRollup = mock(AuditStatisticsRollup.class);
+        auditProperties = new AuditProperties();
+        auditProperties.getWriter().setBatchSize(10);
+        auditProperties.getWriter().setFlushIntervalMs(20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should stamp events without a timestamp so the rest of the batch is written")
+    void shouldStampEventsWithoutTimestamp() throws InterruptedException {
+        writer = newWriter();
+        writer.start();
+
+        AuditEvent unstamped = AuditEvent.authenticationSuccess("user0", "10.0.0.1");
+        unstamped.setTimestamp(null);
+        assertTrue(writer.submit(unstamped));
+        for (int i = 1; i < 5; i++) {
+            assertTrue(writer.submit(AuditEvent.authenticationSuccess("user" + i, "10.0.0.1")));
+        }
+
+        assertEquals(5, awaitRowCount(5));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_events WHERE \"TIMESTAMP\" IS NULL", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should write timestamps in UTC whatever the JVM's time zone")
+    void shouldWriteTimestampsInUtc() {
+        TimeZone jvmZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        // H2 caches the JVM zone on first use
+        DateTimeUtils.resetCalendar();
+        try {
+            auditProperties.getWriter().setFlushIntervalMs(60_000);
+            writer = newWriter();
+            writer.start();
+            AuditEvent event = AuditEvent.authenticationSuccess("user", "10.0.0.1");
+            event.setTimestamp(LocalDateTime.of(2030, 5, 31, 22, 30));
+            assertTrue(writer.submit(event));
+            writer.stop();
+
+            // 22:30 in New York is 02:30 UTC, already in June's partition
+            assertEquals(LocalDateTime.of(2030, 6, 1, 2, 30), jdbcTemplate.queryForObject(
+                    "SELECT \"TIMESTAMP\" FROM audit_events", (rs, rowNum) -> rs.getObject(1, LocalDateTime.class)));
+        } finally {
+            TimeZone.setDefault(jvmZone);
+            DateTimeUtils.resetCalendar();
+        }
+    }
+
+    @Test
+    @DisplayName("Should flush all submitted events in batches")
+    void shouldFlushSubmittedEventsInBatches() throws InterruptedException {
+        writer = newWriter();
+        writer.start();
+
+        for (int i = 0; i < 25; i++) {
+            assertTrue(writer.submit(AuditEvent.authenticationSuccess("user" + i, "10.0.0.1")));
+        }
+
+        assertEquals(25, awaitRowCount(25));
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Should write buffered events on stop")
+    void shouldDrainBufferOnStop() {
+        auditProperties.getWriter().setFlushIntervalMs(60_000);
+        writer = newWriter();
+        writer.start();
+
+        for (int i = 0; i < 5; i++) {
+            writer.submit(AuditEvent.authenticationFailure("user", "10.0.0.1", "bad password"));
+        }
+        writer.stop();
+
+        assertEquals(5, countRows());
+    }
+
+    @Test
+    @DisplayName("Should fold every flushed batch into the statistics rollups")
+    void shouldRecordRollupsForFlushedBatches() {
+        // The writer reuses its batch list, so count events at call time
+        AtomicInteger recorded = new AtomicInteger();
+        doAnswer(invocation -> {
+            recorded.addAndGet(invocation.<List<AuditEvent>>getArgument(0).size());
+            return null;
+        }).when(statisticsRollup).record(anyList());
+
+        auditProperties.getWriter().setFlushIntervalMs(60_000);
+        writer = newWriter();
+        writer.start();
+
+        for (int i = 0; i < 25; i++) {
+            writer.submit(AuditEvent.authenticationSuccess("user" + i, "10.0.0.1"));
+        }
+        writer.stop();
+
+        assertEquals(25, recorded.get());
+        assertEquals(25, countRows());
+    }
+
+    @Test
+    @DisplayName("Should apply overflow policy per severity when the buffer is full")
+    void shouldApplyOverflowPolicyPerSeverity() {
+        auditProperties.getWriter().setBufferCapacity(4);
+        auditProperties.getWriter().setOfferTimeoutMs(5);
+        writer = newWriter(); // not started, so nothing drains the buffer
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(writer.submit(AuditEvent.rateLimitExceeded("user", "10.0.0.1", "IP")));
+        }
+
+        assertFalse(writer.submit(AuditEvent.rateLimitExceeded("user", "10.0.0.1", "IP")), "MEDIUM is dropped");
+        assertFalse(writer.submit(AuditEvent.securityViolation("user", "10.0.0.1", "XSS", "x")), "HIGH waits then drops");
+
+        AuditEvent critical = AuditEvent.securityViolation("user", "10.0.0.1", "BREACH", "x");
+        critical.setSeverity(AuditEvent.AuditSeverity.CRITICAL);
+        assertTrue(writer.submit(critical), "CRITICAL is written by the caller");
+        assertEquals(1, countRows());
+    }
+
+    @Test
+    @DisplayName("Should shed LOW severity events above the high watermark")
+    void shouldShedLowSeverityAboveWatermark() {
+        auditProperties.getWriter().setBufferCapacity(8);
+        auditProperties.getWriter().setLowSeverityHighWatermark(0.5);
+        writer = newWriter();
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(writer.submit(AuditEvent.authenticationSuccess("user", "10.0.0.1")));
+        }
+
+        assertFalse(writer.submit(AuditEvent.authenticationSuccess("user", "10.0.0.1")));
+        assertTrue(writer.submit(AuditEvent.authenticationFailure("user", "10.0.0.1", "bad password")));
+    }
+
+    @Test
+    @DisplayName("Ring buffer should not lose or duplicate events under concurrent producers")
+    void ringBufferShouldHandleConcurrentProducers() throws InterruptedException {
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        int producers = 4;
+        int perProducer = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    AuditEvent event = AuditEvent.authenticationSuccess("user", "10.0.0.1");
+                    while (!buffer.offer(event)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        List<AuditEvent> drained = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (drained.size() < producers * perProducer && System.nanoTime() < deadline) {
+            buffer.drainTo(drained, 128);
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(producers * perProducer, drained.size());
+        Set<AuditEvent> unique = Collections.newSetFromMap(new IdentityHashMap<>());
+        unique.addAll(drained);
+        assertEquals(producers * perProducer, unique.size());
+        assertEquals(0, buffer.size());
+    }
+
+    private AuditEventWriter newWriter() {
+        return new AuditEventWriter(jdbcTemplate, transactionTemplate, statisticsRollup, auditProperties, new SimpleMeterRegistry());
+    }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_events", Integer.class);
+    }
+
+    private int awaitRowCount(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        int rows = countRows();
+        while (rows < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            rows = countRows();
+        }
+        return rows;
+    }
+}
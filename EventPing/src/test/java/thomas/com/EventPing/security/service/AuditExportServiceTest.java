@@ -0,0 +1,151 @@
+package thomas.com.EventPing.security.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.util.DateTimeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import thomas.com.EventPing.common.repository.JdbcTimestamps;
+import thomas.com.EventPing.config.AuditProperties;
+import thomas.com.EventPing.security.entity.AuditEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the streaming audit export
+ */
+class AuditExportServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private AuditExportService exportService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit_export_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE audit_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "event_type VARCHAR(50) NOT NULL, username VARCHAR(255), ip_address VARCHAR(45), " +
+                "user_agent VARCHAR(1024), request_uri VARCHAR(1024), request_method VARCHAR(16), " +
+                "session_id VARCHAR(255), resource_type VARCHAR(255), resource_id VARCHAR(255), " +
+                "action VARCHAR(255), result VARCHAR(50), error_message TEXT, details TEXT, " +
+                "severity VARCHAR(20) NOT NULL, \"TIMESTAMP\" TIMESTAMP NOT NULL, " +
+                "correlation_id VARCHAR(100), tenant_id VARCHAR(100))");
+
+        AuditProperties auditProperties = new AuditProperties();
+        auditProperties.getExport().setFetchSize(2);
+        exportService = new AuditExportService(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                objectMapper, auditProperties);
+
+        insert("AUTHENTICATION_FAILURE", "alice", "bad, \"old\" password", BASE.minusDays(1));
+        insert("AUTHENTICATION_FAILURE", "alice", "bad, \"old\" password", BASE);
+        insert("AUTHENTICATION_SUCCESS", "bob", null, BASE.plusMinutes(5));
+        insert("DATA_EXPORT", "carol", "line one\nline two", BASE.plusMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Should stream one JSON object per line within the time range")
+    void shouldExportNdjsonWithinRange() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(BASE, BASE.plusHours(1), null, AuditExportService.Format.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, rows);
+        assertEquals(3, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("alice", first.get("username").asText());
+        assertEquals("bad, \"old\" password", first.get("error_message").asText());
+        assertEquals("DATA_EXPORT", objectMapper.readTree(lines.get(2)).get("event_type").asText());
+    }
+
+    @Test
+    @DisplayName("Should filter by event type")
+    void shouldFilterByEventType() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(BASE.minusDays(2), BASE.plusHours(1),
+                List.of(AuditEvent.AuditEventType.AUTHENTICATION_FAILURE), AuditExportService.Format.NDJSON, out);
+
+        assertEquals(2, rows);
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains("bob"));
+    }
+
+    @Test
+    @DisplayName("Should write a CSV header and quote fields that need it")
+    void shouldExportCsv() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exportService.export(BASE, BASE.plusHours(1), null, AuditExportService.Format.CSV, out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertEquals(3, rows);
+        assertTrue(csv.startsWith("id,timestamp,event_type,severity,username"));
+        assertTrue(csv.contains(",\"bad, \"\"old\"\" password\","));
+        assertTrue(csv.contains("\"line one\nline two\""));
+    }
+
+    @Test
+    @DisplayName("Should neutralize CSV fields that a spreadsheet would run as formulas")
+    void shouldEscapeFormulas() {
+        insert("AUTHENTICATION_FAILURE", "=cmd|' /C calc'!A0", "@SUM(1+1)", BASE.plusMinutes(20));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.export(BASE.plusMinutes(20), BASE.plusHours(1), null, AuditExportService.Format.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertTrue(lines.get(1).contains(",\"'=cmd|' /C calc'!A0\","));
+        assertTrue(lines.get(1).contains(",\"'@SUM(1+1)\","));
+    }
+
+    @Test
+    @DisplayName("Should select and write timestamps in UTC whatever the JVM's time zone")
+    void shouldExportTimestampsInUtc() throws Exception {
+        TimeZone jvmZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+        // H2 caches the JVM zone on first use
+        DateTimeUtils.resetCalendar();
+        try {
+            jdbcTemplate.update("DELETE FROM audit_events");
+            insert("AUTHENTICATION_SUCCESS", "dave", null, BASE);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            long rows = exportService.export(BASE, BASE.plusMinutes(1), null, AuditExportService.Format.NDJSON, out);
+
+            assertEquals(1, rows);
+            JsonNode event = objectMapper.readTree(out.toString(StandardCharsets.UTF_8));
+            assertEquals(BASE.toString(), event.get("timestamp").asText());
+        } finally {
+            TimeZone.setDefault(jvmZone);
+            DateTimeUtils.resetCalendar();
+        }
+    }
+
+    // Written in UTC like AuditEventWriter writes them
+    private void insert(String eventType, String username, String errorMessage, LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO audit_events (event_type, username, error_message, severity, \"TIMESTAMP\") " +
+                "VALUES (?, ?, ?, 'MEDIUM', ?)", ps -> {
+            ps.setString(1, eventType);
+            ps.setString(2, username);
+            ps.setString(3, errorMessage);
+            ps.setTimestamp(4, Timestamp.valueOf(timestamp), JdbcTimestamps.utcCalendar());
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package thomas.com.EventPing.security.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.User.model.User;
+import thomas.com.EventPing.event.model.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for per-entity audit projections and field diffs
+ */
+class AuditProjectionRegistryTest {
+
+    private AuditProjectionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        SensitiveDataEncryptionService encryptionService = mock(SensitiveDataEncryptionService.class);
+        when(encryptionService.containsSensitiveData(anyString())).thenAnswer(i -> i.<String>getArgument(0).contains("@"));
+        when(encryptionService.maskForLogging(anyString())).thenReturn("***");
+        registry = new AuditProjectionRegistry(encryptionService);
+    }
+
+    @Test
+    @DisplayName("Should capture only whitelisted scalar fields on create")
+    void shouldProjectWhitelistedFields() {
+        Event event = newEvent();
+
+        Map<String, Object> details = registry.describeChange(null, event);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> newValue = (Map<String, Object>) details.get("newValue");
+        assertFalse(details.containsKey("oldValue"));
+        assertEquals("Launch party", newValue.get("title"));
+        assertEquals("2030-05-01T18:00", newValue.get("eventDateTime"));
+        assertEquals("ACTIVE", newValue.get("status"));
+        assertEquals(7L, newValue.get("creatorId"));
+        assertFalse(newValue.containsKey("participants"));
+        assertFalse(newValue.containsKey("reminders"));
+    }
+
+    @Test
+    @DisplayName("Should record only changed fields on update")
+    void shouldDiffChangedFields() {
+        Event event = newEvent();
+        Object before = registry.capture(event);
+        event.setTitle("Launch party (moved)");
+        event.setEventDateTime(LocalDateTime.of(2030, 5, 2, 18, 0));
+
+        Map<String, Object> details = registry.describeChange(before, event);
+
+        assertEquals(List.of("title", "eventDateTime"), details.get("changedFields"));
+        assertEquals(Map.of("title", "Launch party", "eventDateTime", "2030-05-01T18:00"), details.get("oldValue"));
+        assertEquals(Map.of("title", "Launch party (moved)", "eventDateTime", "2030-05-02T18:00"), details.get("newValue"));
+    }
+
+    @Test
+    @DisplayName("Should mask personal data and never emit secrets")
+    void shouldMaskPersonalData() {
+        User user = new User();
+        user.setId(3L);
+        user.setEmail("alice@example.com");
+        user.setPasswordHash("$2a$12$secret");
+        user.setResetToken("reset-token");
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> oldValue = (Map<String, Object>) registry.describeChange(user, null).get("oldValue");
+
+        assertEquals("***", oldValue.get("email"));
+        assertFalse(oldValue.containsKey("passwordHash"));
+        assertFalse(oldValue.containsValue("reset-token"));
+    }
+
+    @Test
+    @DisplayName("Should reduce unregistered values to scalars")
+    void shouldReduceUnknownValuesToScalars() {
+        Map<String, Object> details = registry.describeChange("plain text", new Object());
+
+        assertEquals("plain text", details.get("oldValue"));
+        assertEquals("Object", details.get("newValue"));
+    }
+
+    private Event newEvent() {
+        User creator = new User();
+        creator.setId(7L);
+        Event event = new Event();
+        event.setId(42L);
+        event.setTitle("Launch party");
+        event.setSlug("launch-party-1");
+        event.setEventDateTime(LocalDateTime.of(2030, 5, 1, 18, 0));
+        event.setCreator(creator);
+        return event;
+    }
+}
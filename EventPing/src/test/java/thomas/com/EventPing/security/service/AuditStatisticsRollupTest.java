@@ -0,0 +1,87 @@
+package thomas.com.EventPing.security.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import thomas.com.EventPing.security.entity.AuditEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for audit rollup aggregation and statistics windows
+ */
+class AuditStatisticsRollupTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 14, 37, 12);
+
+    @Test
+    @DisplayName("Should count each event once per granularity and dimension")
+    void shouldAggregateByGranularityAndDimension() {
+        AuditEvent first = AuditEvent.authenticationFailure("alice", "10.0.0.1", "bad password");
+        first.setTimestamp(LocalDateTime.of(2026, 10, 18, 14, 5, 30));
+        AuditEvent second = AuditEvent.authenticationFailure("alice", "10.0.0.2", "bad password");
+        second.setTimestamp(LocalDateTime.of(2026, 10, 18, 14, 5, 45));
+        AuditEvent third = AuditEvent.authenticationSuccess("bob", "10.0.0.1");
+        third.setTimestamp(LocalDateTime.of(2026, 10, 18, 14, 40, 0));
+
+        Map<AuditStatisticsRollup.RollupKey, Long> counts =
+                AuditStatisticsRollup.aggregate(List.of(first, second, third), NOW);
+
+        LocalDateTime minute = LocalDateTime.of(2026, 10, 18, 14, 5);
+        LocalDateTime hour = LocalDateTime.of(2026, 10, 18, 14, 0);
+        assertEquals(2L, counts.get(key(AuditStatisticsRollup.Granularity.MINUTE, minute,
+                AuditStatisticsRollup.Dimension.USERNAME, "alice")));
+        assertEquals(2L, counts.get(key(AuditStatisticsRollup.Granularity.HOUR, hour,
+                AuditStatisticsRollup.Dimension.IP_ADDRESS, "10.0.0.1")));
+        assertEquals(2L, counts.get(key(AuditStatisticsRollup.Granularity.HOUR, hour,
+                AuditStatisticsRollup.Dimension.EVENT_TYPE, "AUTHENTICATION_FAILURE")));
+        assertEquals(3L, counts.entrySet().stream()
+                .filter(e -> e.getKey().granularity() == AuditStatisticsRollup.Granularity.HOUR
+                        && e.getKey().dimension() == AuditStatisticsRollup.Dimension.SEVERITY)
+                .mapToLong(Map.Entry::getValue).sum());
+    }
+
+    @Test
+    @DisplayName("Should skip missing users and IPs")
+    void shouldSkipMissingDimensionValues() {
+        AuditEvent event = AuditEvent.dataModification(null, AuditEvent.AuditEventType.DATA_CREATE, "Event", "1");
+        event.setTimestamp(NOW);
+
+        Map<AuditStatisticsRollup.RollupKey, Long> counts = AuditStatisticsRollup.aggregate(List.of(event), NOW);
+
+        assertTrue(counts.keySet().stream().noneMatch(k ->
+                k.dimension() == AuditStatisticsRollup.Dimension.USERNAME
+                        || k.dimension() == AuditStatisticsRollup.Dimension.IP_ADDRESS));
+        assertEquals(4, counts.size());
+    }
+
+    @Test
+    @DisplayName("Should fill the partial first hour from minute rollups")
+    void shouldUseMinutesForPartialHour() {
+        AuditStatisticsRollup.Window window =
+                AuditStatisticsRollup.windowFor(NOW.minusHours(3), NOW, 48);
+
+        assertEquals(LocalDateTime.of(2026, 10, 18, 11, 37), window.minuteFrom());
+        assertEquals(LocalDateTime.of(2026, 10, 18, 12, 0), window.hourFrom());
+    }
+
+    @Test
+    @DisplayName("Should fall back to whole hours beyond the minute horizon")
+    void shouldUseWholeHoursBeyondMinuteHorizon() {
+        AuditStatisticsRollup.Window window =
+                AuditStatisticsRollup.windowFor(NOW.minusDays(7), NOW, 48);
+
+        assertEquals(LocalDateTime.of(2026, 10, 11, 14, 0), window.hourFrom());
+        assertEquals(window.hourFrom(), window.minuteFrom());
+    }
+
+    private static AuditStatisticsRollup.RollupKey key(AuditStatisticsRollup.Granularity granularity,
+                                                       LocalDateTime bucket,
+                                                       AuditStatisticsRollup.Dimension dimension,
+                                                       String value) {
+        return new AuditStatisticsRollup.RollupKey(granularity, bucket, dimension, value);
+    }
+}
@@ -0,0 +1,105 @@
+package thomas.com.EventPing.security.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import thomas.com.EventPing.config.SecurityProperties;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the in-memory sliding-window suspicious activity detector
+ */
+class SuspiciousActivityDetectorTest {
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private ApplicationEventPublisher eventPublisher;
+    private SecurityProperties securityProperties;
+    private SuspiciousActivityDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        securityProperties = new SecurityProperties();
+        securityProperties.getDetection().setWindowSeconds(60);
+        securityProperties.getDetection().setIpFailureThreshold(5);
+        securityProperties.getDetection().setUsernameFailureThreshold(3);
+        securityProperties.getDetection().setBlockDurationSeconds(300);
+        detector = new SuspiciousActivityDetector(securityProperties, eventPublisher, now::get);
+    }
+
+    @Test
+    @DisplayName("Should flag an IP once its failures cross the threshold")
+    void shouldFlagIpAtThreshold() {
+        for (int i = 0; i < 4; i++) {
+            detector.recordIpFailure("10.0.0.1", null);
+        }
+        verifyNoInteractions(eventPublisher);
+
+        detector.recordIpFailure("10.0.0.1", null);
+
+        ArgumentCaptor<SuspiciousActivityDetectedEvent> event = ArgumentCaptor.forClass(SuspiciousActivityDetectedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(SuspiciousActivityDetectedEvent.Reason.IP_FAILURES, event.getValue().reason());
+        assertEquals("10.0.0.1", event.getValue().ipAddress());
+        assertEquals(5, event.getValue().attemptCount());
+    }
+
+    @Test
+    @DisplayName("Should flag a username attacked from many IPs")
+    void shouldFlagUsernameAcrossIps() {
+        detector.recordAuthenticationFailure("alice@example.com", "10.0.0.1");
+        detector.recordAuthenticationFailure("Alice@example.com", "10.0.0.2");
+        detector.recordAuthenticationFailure("alice@example.com", "10.0.0.3");
+
+        ArgumentCaptor<SuspiciousActivityDetectedEvent> event = ArgumentCaptor.forClass(SuspiciousActivityDetectedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(SuspiciousActivityDetectedEvent.Reason.USERNAME_FAILURES, event.getValue().reason());
+        assertEquals("10.0.0.3", event.getValue().ipAddress());
+    }
+
+    @Test
+    @DisplayName("Should forget failures that slide out of the window")
+    void shouldExpireOldFailures() {
+        for (int i = 0; i < 4; i++) {
+            detector.recordIpFailure("10.0.0.1", null);
+        }
+        now.addAndGet(61_000);
+        detector.recordIpFailure("10.0.0.1", null);
+
+        verifyNoInteractions(eventPublisher);
+        assertEquals(1, detector.countRecentByIp("10.0.0.1", LocalDateTime.now().minusHours(1)));
+    }
+
+    @Test
+    @DisplayName("Should alert once per block duration while an attack continues")
+    void shouldSuppressRepeatedTriggers() {
+        for (int i = 0; i < 20; i++) {
+            detector.recordIpFailure("10.0.0.1", null);
+        }
+        verify(eventPublisher, times(1)).publishEvent(any(SuspiciousActivityDetectedEvent.class));
+
+        now.addAndGet(301_000);
+        for (int i = 0; i < 5; i++) {
+            detector.recordIpFailure("10.0.0.1", null);
+        }
+        verify(eventPublisher, times(2)).publishEvent(any(SuspiciousActivityDetectedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should ignore unknown source addresses")
+    void shouldIgnoreUnknownIp() {
+        for (int i = 0; i < 10; i++) {
+            detector.recordIpFailure("UNKNOWN_IP", null);
+            detector.recordIpFailure(null, null);
+        }
+
+        verifyNoInteractions(eventPublisher);
+    }
+}